@@ -0,0 +1,265 @@
+package com.cyngn.vertx.async;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hashed timing wheel for timeouts that rarely fire, ie promise timeouts that are almost always cancelled.
+ *
+ * Scheduling and cancelling a timeout is O(1) and only allocates the returned {@link Timeout}, instead of scheduling
+ * a vert.x timer per timeout the wheel runs a single periodic timer while any timeouts are pending. Timeouts fire up to
+ * one tick after their deadline.
+ *
+ * A wheel belongs to the vert.x context it was created on, it must only be used from that context and its timeouts
+ * fire on it. Use {@link #get(Vertx, long)} to share one wheel per context.
+ */
+public final class TimerWheel {
+
+    private final static Logger logger = LoggerFactory.getLogger(TimerWheel.class);
+
+    public static final long DEFAULT_TICK = 10L;
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+    private static final String CONTEXT_KEY = "cyngn.timer-wheel.";
+
+    private final Vertx vertx;
+    private final long tickMillis;
+    private final long tickNanos;
+    private final Timeout[] slots;
+    private final int mask;
+    private final long startTime;
+    private final Handler<Long> tickHandler = this::onTick;
+
+    private long currentTick;
+    private long timerId = -1L;
+    private int pending;
+    private long fired;
+    private long late;
+    private long maxLateness;
+
+    /**
+     * @param vertx      the vertx instance driving the wheel
+     * @param tickMillis the resolution of the wheel in milliseconds
+     * @param wheelSize  the number of slots, rounded up to a power of two. Timeouts further out than
+     *                   tickMillis * wheelSize share slots with nearer ones and are skipped over until due
+     */
+    public TimerWheel(Vertx vertx, long tickMillis, int wheelSize) {
+        if (tickMillis < 1L) {
+            throw new IllegalArgumentException("Tick must be at least 1 millisecond");
+        }
+        if (wheelSize < 1 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid wheel size: " + wheelSize);
+        }
+
+        this.vertx = vertx;
+        this.tickMillis = tickMillis;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.slots = new Timeout[Math.max(size, 1)];
+        this.mask = slots.length - 1;
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Gets the wheel shared by everything running on the current context, creating it if needed.
+     *
+     * @param vertx      the vertx instance
+     * @param tickMillis the resolution of the wheel in milliseconds, each resolution gets its own wheel
+     * @return the wheel of the current context
+     */
+    public static TimerWheel get(Vertx vertx, long tickMillis) {
+        Context context = vertx.getOrCreateContext();
+        String key = CONTEXT_KEY + tickMillis;
+        TimerWheel wheel = context.get(key);
+        if (wheel == null) {
+            wheel = new TimerWheel(vertx, tickMillis, DEFAULT_WHEEL_SIZE);
+            context.put(key, wheel);
+        }
+        return wheel;
+    }
+
+    /**
+     * Schedules a handler to be called once a delay has passed.
+     *
+     * @param delay   the delay in milliseconds
+     * @param handler the handler to call
+     * @return the timeout, cancel it if the handler is no longer needed
+     */
+    public Timeout schedule(long delay, Handler<Void> handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Cannot schedule a null handler");
+        }
+
+        long now = System.nanoTime();
+        if (timerId == -1L) {
+            // nothing was pending so the skipped ticks had no timeouts in them
+            currentTick = (now - startTime) / tickNanos;
+            timerId = vertx.setPeriodic(tickMillis, tickHandler);
+        }
+
+        // deadlines are kept relative to the wheel's start and saturate, huge delays never wrap around into the past
+        long elapsed = now - startTime;
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(delay, 0L));
+        long deadline = delayNanos > Long.MAX_VALUE - elapsed ? Long.MAX_VALUE : elapsed + delayNanos;
+        long expiryTick = Math.max(deadline / tickNanos + (deadline % tickNanos == 0L ? 0L : 1L), currentTick + 1);
+
+        Timeout timeout = new Timeout(this, handler, deadline, expiryTick);
+        int slot = (int) (expiryTick & mask);
+        timeout.next = slots[slot];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        slots[slot] = timeout;
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel to the current time, firing the timeouts in the slots passed.
+     */
+    private void onTick(Long id) {
+        long now = System.nanoTime();
+        long targetTick = (now - startTime) / tickNanos;
+        // the periodic timer may have been delayed, catch up on every tick missed
+        while (currentTick < targetTick && pending > 0) {
+            currentTick++;
+            expire((int) (currentTick & mask), now);
+        }
+        if (pending == 0 && timerId != -1L) {
+            vertx.cancelTimer(timerId);
+            timerId = -1L;
+        }
+    }
+
+    private void expire(int slot, long now) {
+        Timeout timeout = slots[slot];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            // timeouts further out than a revolution are in the same slot but not due yet
+            if (timeout.expiryTick <= currentTick) {
+                remove(timeout);
+                fired++;
+                long lateness = TimeUnit.NANOSECONDS.toMillis(now - startTime - timeout.deadline);
+                if (lateness > tickMillis) {
+                    late++;
+                }
+                maxLateness = Math.max(maxLateness, lateness);
+                try {
+                    timeout.handler.handle(null);
+                } catch (Exception ex) {
+                    logger.error("Timeout handler failed", ex);
+                }
+                // the handler cancelled the next timeout, start over as the ones not due yet are skipped anyway
+                if (next != null && next.wheel == null) {
+                    next = slots[slot];
+                }
+            }
+            timeout = next;
+        }
+    }
+
+    private void remove(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[(int) (timeout.expiryTick & mask)] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = timeout.next = null;
+        timeout.wheel = null;
+        pending--;
+    }
+
+    /**
+     * Gets the number of timeouts that are scheduled and not cancelled or fired yet.
+     *
+     * @return the pending timeout count
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * Gets the number of timeouts that fired.
+     *
+     * @return the fired timeout count
+     */
+    public long getFired() {
+        return fired;
+    }
+
+    /**
+     * Gets the number of timeouts that fired more than a tick after their deadline, ie because the event loop was
+     * busy.
+     *
+     * @return the late timeout count
+     */
+    public long getLate() {
+        return late;
+    }
+
+    /**
+     * Gets the longest time a timeout fired after its deadline.
+     *
+     * @return the lateness in milliseconds
+     */
+    public long getMaxLateness() {
+        return maxLateness;
+    }
+
+    /**
+     * Gets the resolution of the wheel.
+     *
+     * @return the tick in milliseconds
+     */
+    public long getTick() {
+        return tickMillis;
+    }
+
+    /**
+     * A scheduled handler.
+     */
+    public static final class Timeout {
+        private final Handler<Void> handler;
+        private final long deadline;
+        private final long expiryTick;
+        private TimerWheel wheel;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimerWheel wheel, Handler<Void> handler, long deadline, long expiryTick) {
+            this.wheel = wheel;
+            this.handler = handler;
+            this.deadline = deadline;
+            this.expiryTick = expiryTick;
+        }
+
+        /**
+         * Cancels the timeout if it hasn't fired yet.
+         *
+         * @return true if the timeout was cancelled, false if it already fired or was cancelled before
+         */
+        public boolean cancel() {
+            if (wheel == null) {
+                return false;
+            }
+            wheel.remove(this);
+            return true;
+        }
+
+        /**
+         * Checks if the timeout is still waiting to fire.
+         *
+         * @return true if neither fired nor cancelled
+         */
+        public boolean isPending() {
+            return wheel != null;
+        }
+    }
+}
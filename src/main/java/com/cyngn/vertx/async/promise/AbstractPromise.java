@@ -0,0 +1,538 @@
+package com.cyngn.vertx.async.promise;
+
+import com.cyngn.vertx.async.TimerWheel;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Evaluates a chain of actions sharing a context, the base of {@link PromiseImpl} and {@link TypedPromiseImpl}.
+ *
+ * @param <C> the type of the context passed to the actions
+ */
+abstract class AbstractPromise<C> {
+
+    // synchronously completed actions run inline up to this many in a row before yielding to the event loop
+    static final int MAX_INLINE_STEPS = 128;
+
+    private final Handler<Void> evalStep = this::internalEval;
+    private final Consumer<Boolean> resultHandler = this::onResult;
+    private final Handler<Void> timeoutHandler = aVoid -> cancel();
+
+    private final List<TypedPromiseAction<C>> actions = new ArrayList<>();
+    private final AtomicBoolean evaluated = new AtomicBoolean(false);
+    protected final Vertx vertx;
+    protected final C context;
+    private final long timerTick;
+
+    private int pos;
+    private boolean done;
+    private boolean failed;
+    private Consumer<C> onFailure;
+    private Consumer<C> onComplete;
+    private Long timerId;
+    private Throwable failure;
+    private Context evalContext;
+    // only results on this thread may touch the chain, written on the context so workers can move it along
+    private volatile Thread evalThread;
+    private boolean evaluating;
+    private boolean completedInline;
+    private StepRun activeRun;
+    private TimerWheel.Timeout wheelTimeout;
+    // a timeout set before eval, in nanoTime, it is armed once the chain has a context
+    private Long timeoutAt;
+
+    /**
+     * @param vertx the vertx instance to run on
+     * @param context the context passed to the actions
+     * @param timerTick the resolution of timeouts in milliseconds, see {@link TimerWheel}
+     */
+    AbstractPromise(Vertx vertx, C context, long timerTick) {
+        this.vertx = vertx;
+        this.context = context;
+        this.timerTick = timerTick;
+    }
+
+    /**
+     * Starts evaluating the chain on the event loop.
+     */
+    void evalActions() {
+        if(actions.size() < 1) {
+            throw new IllegalStateException("cannot eval an empty promise");
+        }
+
+        if(evaluated.compareAndSet(false, true)) {
+            evalContext = vertx.getOrCreateContext();
+            if(timeoutAt != null) {
+                armTimer(Math.max(TimeUnit.NANOSECONDS.toMillis(timeoutAt - System.nanoTime()), 1L));
+                timeoutAt = null;
+            }
+            evalContext.runOnContext(evalStep);
+        } else {
+            throw new IllegalStateException("You cannot eval a promise chain more than once");
+        }
+    }
+
+    /**
+     * Move the promise chain along. Actions that complete synchronously advance the chain inline, only actions that
+     * complete later and every {@link #MAX_INLINE_STEPS} steps go back through the event loop.
+     */
+    private void internalEval(Void aVoid) {
+        evalThread = Thread.currentThread();
+        evaluating = true;
+        try {
+            int steps = 0;
+            while (!done && pos < actions.size() && !failed) {
+                if (steps++ == MAX_INLINE_STEPS) {
+                    // let other work on the event loop run before continuing a long chain
+                    evalContext.runOnContext(evalStep);
+                    return;
+                }
+
+                TypedPromiseAction<C> action = actions.get(pos);
+                pos++;
+                completedInline = false;
+                try {
+                    action.execute(context, resultHandler);
+                } catch (Exception ex) {
+                    fail(ex);
+                    return;
+                }
+
+                // the action completes later, its result schedules the next step
+                if (!completedInline) {
+                    return;
+                }
+            }
+        } finally {
+            evaluating = false;
+        }
+    }
+
+    /**
+     * Collects the result of the current action.
+     */
+    private void onResult(Boolean success) {
+        if (!onEvalThread(aVoid -> onResult(success))) { return; }
+        if (failed || done) { return; }
+
+        if (!success) {
+            fail();
+            return;
+        }
+
+        done = pos == actions.size();
+        if (done) {
+            cleanUp();
+            // ultimate success case
+            if(onComplete != null) { onComplete.accept(context); }
+        } else if (evaluating) {
+            // completed synchronously, the running eval loop picks up the next action
+            completedInline = true;
+        } else {
+            evalContext.runOnContext(evalStep);
+        }
+    }
+
+    /**
+     * Checks if a result arrived on the thread evaluating the chain. A result from another thread, ie a worker or
+     * a callback of a client bound to another context, is handed back to the promise's context instead.
+     *
+     * @param retry handles the result again on the promise's context
+     * @return true if the result may be handled now
+     */
+    private boolean onEvalThread(Handler<Void> retry) {
+        if (Thread.currentThread() == evalThread) { return true; }
+
+        evalContext.runOnContext(aVoid -> {
+            // worker contexts don't stick to one thread
+            evalThread = Thread.currentThread();
+            retry.handle(null);
+        });
+        return false;
+    }
+
+    /**
+     * End the processing chain due to an exception or timeout
+     *
+     * @param cause what went wrong
+     */
+    private void fail(Throwable cause) {
+        if (done) { return; }
+
+        failure = cause;
+        recordFailure(cause);
+        fail();
+    }
+
+    /**
+     * End the processing chain due to an error condition
+     */
+    private void fail() {
+        failed = true;
+        done = true;
+        if (activeRun != null) {
+            activeRun.stop();
+        }
+        cleanUp();
+        if(onFailure != null) {
+            onFailure.accept(context);
+        }
+    }
+
+    /**
+     * Called before the failure callback when an action throws or the promise times out, so the cause can be put in
+     * the context.
+     *
+     * @param cause the exception thrown or a {@link TimeoutException}
+     */
+    protected void recordFailure(Throwable cause) {}
+
+    /**
+     * Clear local objects no longer needed
+     */
+    private void cleanUp() {
+        cancelTimer();
+        actions.clear();
+    }
+
+    /**
+     * Adds a step running actions in parallel, at most maxParallel at a time. Actions are taken from the iterator as
+     * slots free up so the iterator may create them lazily.
+     *
+     * @param source the actions to run
+     * @param maxParallel how many actions may be in flight at once
+     */
+    void addParallel(Iterable<? extends TypedPromiseAction<C>> source, int maxParallel) {
+        if (maxParallel < 1) {
+            throw new IllegalArgumentException("maxParallel must be greater than 0");
+        }
+        addAction((context, onResult) -> {
+            ParallelRun run = new ParallelRun(source.iterator(), maxParallel, onResult);
+            activeRun = run;
+            run.launch();
+        });
+    }
+
+    /**
+     * Adds a step running all actions at once that ends with the first of them, see {@link FirstRun}.
+     *
+     * @param theActions the actions to run
+     * @param untilSuccess true to end with the first success and fail only if all fail, false to end with the first
+     *                     result either way
+     */
+    void addFirst(List<? extends TypedPromiseAction<C>> theActions, boolean untilSuccess) {
+        if (theActions.isEmpty()) {
+            throw new IllegalArgumentException("At least one action is required");
+        }
+        addAction((context, onResult) -> {
+            FirstRun run = new FirstRun(theActions, untilSuccess, onResult);
+            activeRun = run;
+            run.launch();
+        });
+    }
+
+    /**
+     * Adds a step running an action per item, at most maxParallel at a time.
+     *
+     * @param items the items to run actions for
+     * @param maxParallel how many actions may be in flight at once
+     * @param toAction creates the action for an item when a slot frees up
+     * @param <T> the type of the items
+     */
+    <T> void addForEach(Iterable<T> items, int maxParallel,
+                        Function<? super T, ? extends TypedPromiseAction<C>> toAction) {
+        addParallel(() -> {
+            Iterator<T> iterator = items.iterator();
+            return new Iterator<TypedPromiseAction<C>>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public TypedPromiseAction<C> next() {
+                    return toAction.apply(iterator.next());
+                }
+            };
+        }, maxParallel);
+    }
+
+    void addAction(TypedPromiseAction<C> action) {
+        if (done) { throw new IllegalArgumentException("can't add actions to a completed chain"); }
+
+        actions.add(action);
+    }
+
+    void setOnComplete(Consumer<C> onComplete) {
+        this.onComplete = onComplete;
+    }
+
+    void setOnFailure(Consumer<C> onFailure) {
+        this.onFailure = onFailure;
+    }
+
+    void setTimeout(long time) {
+        if(done) { throw new IllegalArgumentException("Can't set timer on a completed promise"); }
+
+        if(evalContext == null) {
+            // the chain may be evaluated from another context, only then is it known which wheel to use
+            timeoutAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(time);
+            return;
+        }
+        if(wheelTimeout != null && Vertx.currentContext() != evalContext) {
+            // a wheel is only touched from its own context
+            evalContext.runOnContext(aVoid -> {
+                if(!done) { setTimeout(time); }
+            });
+            return;
+        }
+
+        // if there is a timer and you are not able to cancel it, it already failed the promise
+        if((wheelTimeout != null || timerId != null) && !cancelTimer()) { return; }
+
+        armTimer(time);
+    }
+
+    /**
+     * Starts the timer, on the wheel of the promise's context when running on it.
+     *
+     * @param time the timeout in milliseconds
+     */
+    private void armTimer(long time) {
+        if(Vertx.currentContext() == evalContext) {
+            // share the wheel of the context instead of scheduling a vert.x timer per promise
+            wheelTimeout = TimerWheel.get(vertx, timerTick).schedule(time, timeoutHandler);
+        } else {
+            timerId = vertx.setTimer(time, theTimerId -> cancel());
+        }
+    }
+
+    /**
+     * Get rid of a timer that has not been fired yet.
+     *
+     * @return true if a pending timer was cancelled
+     */
+    private boolean cancelTimer(){
+        boolean cancelled = false;
+        if(wheelTimeout != null) {
+            cancelled = wheelTimeout.cancel();
+            wheelTimeout = null;
+        }
+        if(timerId != null) {
+            cancelled = vertx.cancelTimer(timerId);
+            timerId = null;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Function called when a timer is expired but the chain is not yet complete.
+     */
+    private void cancel() {
+        // a vert.x timer fires on the context it was set from
+        if (!onEvalThread(aVoid -> cancel())) { return; }
+
+        timerId = null;
+        wheelTimeout = null;
+        if(!done) {
+            fail(new TimeoutException("promise timed out"));
+        }
+    }
+
+    /**
+     * Gets what made the promise fail
+     *
+     * @return the exception an action threw, a {@link TimeoutException} if the promise timed out or null if it hasn't
+     *         failed or an action reported the failure
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public boolean succeeded() {
+        return !failed;
+    }
+
+    public boolean completed() {
+        return done;
+    }
+
+    public boolean isEmpty() {
+        return actions.size() == 0;
+    }
+
+    /**
+     * A step running several actions at once.
+     */
+    private abstract class StepRun {
+        protected final List<Launch> inFlight = new ArrayList<>();
+        protected boolean finished;
+
+        /**
+         * Ends the step without launching anything else, cancelling the actions still in flight.
+         */
+        void stop() {
+            if (finished) { return; }
+
+            finished = true;
+            activeRun = null;
+            for (Launch launch : inFlight) {
+                launch.action.cancel(context);
+            }
+            inFlight.clear();
+        }
+
+        /**
+         * Collects the result of a launch.
+         *
+         * @param launch the execution the result is for
+         * @param success true if the action succeeded
+         */
+        abstract void onActionResult(Launch launch, boolean success);
+
+        /**
+         * One execution of an action, the result handler passed to it. Launches are tracked instead of actions so the
+         * same action instance can be in flight more than once.
+         */
+        class Launch implements Consumer<Boolean> {
+            final TypedPromiseAction<C> action;
+
+            Launch(TypedPromiseAction<C> action) {
+                this.action = action;
+            }
+
+            @Override
+            public void accept(Boolean success) {
+                onActionResult(this, success);
+            }
+        }
+    }
+
+    /**
+     * Runs the actions of a parallel step. The step fails once on the first failed action, no more actions are
+     * launched after that and the ones still in flight are cancelled.
+     */
+    private class ParallelRun extends StepRun {
+        private final Iterator<? extends TypedPromiseAction<C>> pending;
+        private final int maxParallel;
+        private final Consumer<Boolean> onResult;
+        private boolean launching;
+
+        ParallelRun(Iterator<? extends TypedPromiseAction<C>> pending, int maxParallel, Consumer<Boolean> onResult) {
+            this.pending = pending;
+            this.maxParallel = maxParallel;
+            this.onResult = onResult;
+        }
+
+        /**
+         * Fills the free slots, completing the step once every action succeeded.
+         */
+        void launch() {
+            // an action completed synchronously, the loop below takes its slot
+            if (launching) { return; }
+
+            launching = true;
+            try {
+                while (!finished && inFlight.size() < maxParallel && pending.hasNext()) {
+                    Launch launch = new Launch(pending.next());
+                    inFlight.add(launch);
+                    launch.action.execute(context, launch);
+                }
+            } catch (Exception ex) {
+                stop();
+                fail(ex);
+                return;
+            } finally {
+                launching = false;
+            }
+
+            if (!finished && inFlight.isEmpty() && !pending.hasNext()) {
+                finished = true;
+                activeRun = null;
+                onResult.accept(true);
+            }
+        }
+
+        @Override
+        void onActionResult(Launch launch, boolean success) {
+            if (!onEvalThread(aVoid -> onActionResult(launch, success))) { return; }
+            // a late result after the step ended or a second result for the same launch
+            if (finished || !inFlight.remove(launch)) { return; }
+
+            if (!success) {
+                stop();
+                onResult.accept(false);
+            } else {
+                launch();
+            }
+        }
+    }
+
+    /**
+     * Runs the actions of an any or race step. All actions start at once, the first success or with race the first
+     * result ends the step and the actions still in flight are cancelled.
+     */
+    private class FirstRun extends StepRun {
+        private final List<? extends TypedPromiseAction<C>> actions;
+        private final boolean untilSuccess;
+        private final Consumer<Boolean> onResult;
+        private int failures;
+        private Exception lastError;
+
+        FirstRun(List<? extends TypedPromiseAction<C>> actions, boolean untilSuccess, Consumer<Boolean> onResult) {
+            this.actions = actions;
+            this.untilSuccess = untilSuccess;
+            this.onResult = onResult;
+        }
+
+        void launch() {
+            for (TypedPromiseAction<C> action : actions) {
+                // an action completed synchronously and ended the step
+                if (finished) { return; }
+
+                Launch launch = new Launch(action);
+                inFlight.add(launch);
+                try {
+                    action.execute(context, launch);
+                } catch (Exception ex) {
+                    lastError = ex;
+                    onActionResult(launch, false);
+                }
+            }
+        }
+
+        @Override
+        void onActionResult(Launch launch, boolean success) {
+            if (!onEvalThread(aVoid -> onActionResult(launch, success))) { return; }
+            // a loser completing after the step ended or a second result for the same launch
+            if (finished || !inFlight.remove(launch)) { return; }
+
+            if (success || !untilSuccess) {
+                stop();
+                endStep(success);
+            } else if (++failures == actions.size()) {
+                finished = true;
+                activeRun = null;
+                endStep(false);
+            }
+        }
+
+        private void endStep(boolean success) {
+            if (!success && lastError != null) {
+                fail(lastError);
+            } else {
+                onResult.accept(success);
+            }
+        }
+    }
+}
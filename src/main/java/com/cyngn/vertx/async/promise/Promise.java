@@ -4,6 +4,7 @@ import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Represents a set of one or more asynchronous actions.
@@ -22,6 +23,48 @@ public interface Promise {
      */
     Promise all(PromiseAction ... actions);
 
+    /**
+     * Executes all actions in parallel with at most maxParallel of them in flight at once. The first failure fails the
+     * promise, no more actions are started after it and the ones in flight are cancelled, see
+     * {@link PromiseAction#cancellable(PromiseAction, Consumer)}.
+     *
+     * @param maxParallel how many actions may be in flight at once
+     * @param actions the actions to execute
+     * @return the promise representing the actions
+     */
+    Promise all(int maxParallel, PromiseAction ... actions);
+
+    /**
+     * Executes an action for every item in parallel with at most maxParallel of them in flight at once, failing like
+     * {@link #all(int, PromiseAction...)}. Actions are created as earlier ones finish.
+     *
+     * @param items the items to execute actions for
+     * @param maxParallel how many actions may be in flight at once
+     * @param toAction creates the action for an item
+     * @param <T> the type of the items
+     * @return the promise representing the actions
+     */
+    <T> Promise forEach(Iterable<T> items, int maxParallel, Function<? super T, ? extends PromiseAction> toAction);
+
+    /**
+     * Executes all actions in parallel, the first one to succeed completes the step and the others are cancelled, see
+     * {@link PromiseAction#cancellable(PromiseAction, Consumer)}. The promise only fails if every action fails. Useful
+     * for querying replicas or caches and going with the fastest answer.
+     *
+     * @param actions the actions to execute
+     * @return the promise representing the actions
+     */
+    Promise any(PromiseAction ... actions);
+
+    /**
+     * Executes all actions in parallel, the first one to complete decides if the step succeeds or fails and the others
+     * are cancelled, see {@link PromiseAction#cancellable(PromiseAction, Consumer)}.
+     *
+     * @param actions the actions to execute
+     * @return the promise representing the actions
+     */
+    Promise race(PromiseAction ... actions);
+
     /**
      * Executes all actions serially
      *
@@ -5,11 +5,12 @@ import io.vertx.core.json.JsonObject;
 import java.util.function.Consumer;
 
 /**
- * The contract of a discrete action to be executed in a Promise
+ * The contract of a discrete action to be executed in a Promise, a {@link TypedPromiseAction} with a JsonObject
+ * context.
  *
  * @author truelove@cyngn.com (Jeremy Truelove) 7/30/15
  */
-public interface  PromiseAction {
+public interface  PromiseAction extends TypedPromiseAction<JsonObject> {
     /**
      * The action to execute.
      *
@@ -18,6 +19,28 @@ public interface  PromiseAction {
      * @param onResult the callback that collects the result of any given PromiseAction necessary for
      *                 continuing or completing the chain of actions in a promise.
      */
+    @Override
     void execute(JsonObject context, Consumer<Boolean> onResult);
+
+    /**
+     * Creates an action with a cancellation hook, see {@link TypedPromiseAction#cancel(Object)}.
+     *
+     * @param action the action to execute
+     * @param onCancel called with the context if the action is cancelled while in flight
+     * @return the cancellable action
+     */
+    static PromiseAction cancellable(PromiseAction action, Consumer<JsonObject> onCancel) {
+        return new PromiseAction() {
+            @Override
+            public void execute(JsonObject context, Consumer<Boolean> onResult) {
+                action.execute(context, onResult);
+            }
+
+            @Override
+            public void cancel(JsonObject context) {
+                onCancel.accept(context);
+            }
+        };
+    }
 }
 
@@ -1,5 +1,6 @@
 package com.cyngn.vertx.async.promise;
 
+import com.cyngn.vertx.async.TimerWheel;
 import io.vertx.core.Vertx;
 
 /**
@@ -11,13 +12,28 @@ import io.vertx.core.Vertx;
 public class PromiseFactory {
 
     private final Vertx vertx;
+    private final long timerTick;
 
     /**
      * Initialize a promise factory with a reference to your vertx event loop
      * @param vertx the vertx event loop to run your promises on
      */
     public PromiseFactory(Vertx vertx) {
+        this(vertx, TimerWheel.DEFAULT_TICK);
+    }
+
+    /**
+     * Initialize a promise factory with a reference to your vertx event loop and the resolution of promise timeouts
+     * @param vertx the vertx event loop to run your promises on
+     * @param timerTick the resolution of promise timeouts in milliseconds, timeouts set on the event loop fire up to
+     *                  this much late, see {@link TimerWheel}
+     */
+    public PromiseFactory(Vertx vertx, long timerTick) {
+        if (timerTick < 1L) {
+            throw new IllegalArgumentException("Timer tick must be at least 1 millisecond");
+        }
         this.vertx = vertx;
+        this.timerTick = timerTick;
     }
 
     /**
@@ -26,7 +42,7 @@ public class PromiseFactory {
      * @return a new empty promise
      */
     public Promise create() {
-        return Promise.newInstance(vertx);
+        return new PromiseImpl(vertx, timerTick);
     }
 
     /**
@@ -36,7 +52,7 @@ public class PromiseFactory {
      * @return the promise representing the actions
      */
     public Promise createSerial(PromiseAction ... actions) {
-        return Promise.newInstance(vertx).allInOrder(actions);
+        return create().allInOrder(actions);
     }
 
     /**
@@ -46,6 +62,17 @@ public class PromiseFactory {
      * @return the promise representing the actions
      */
     public Promise createParallel(PromiseAction ... actions) {
-        return Promise.newInstance(vertx).all(actions);
+        return create().all(actions);
+    }
+
+    /**
+     * Create an empty promise passing a typed context to its actions.
+     *
+     * @param context the context passed to every action and callback
+     * @param <C> the type of the context
+     * @return a new empty promise
+     */
+    public <C> TypedPromise<C> create(C context) {
+        return new TypedPromiseImpl<>(vertx, context, timerTick);
     }
 }
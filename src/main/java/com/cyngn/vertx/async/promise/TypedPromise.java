@@ -0,0 +1,154 @@
+package com.cyngn.vertx.async.promise;
+
+import io.vertx.core.Vertx;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Represents a set of one or more asynchronous actions sharing a context of the caller's type, ie a plain object with
+ * a field per value the actions pass each other. Unlike the JsonObject context of a {@link Promise} nothing is put in a
+ * map or boxed.
+ *
+ * @param <C> the type of the context passed to the actions
+ */
+public interface TypedPromise<C> {
+
+    /**
+     * Executes all actions in parallel. Actions are passed as a list, a generic varargs array can't be made type safe
+     * on an interface.
+     *
+     * @param actions the actions to execute
+     * @return the promise representing the actions
+     */
+    TypedPromise<C> all(List<? extends TypedPromiseAction<C>> actions);
+
+    /**
+     * Executes all actions in parallel with at most maxParallel of them in flight at once. The first failure fails the
+     * promise, no more actions are started after it and the ones in flight are cancelled, see
+     * {@link TypedPromiseAction#cancel(Object)}.
+     *
+     * @param maxParallel how many actions may be in flight at once
+     * @param actions the actions to execute
+     * @return the promise representing the actions
+     */
+    TypedPromise<C> all(int maxParallel, List<? extends TypedPromiseAction<C>> actions);
+
+    /**
+     * Executes an action for every item in parallel with at most maxParallel of them in flight at once, failing like
+     * {@link #all(int, List)}. Actions are created as earlier ones finish.
+     *
+     * @param items the items to execute actions for
+     * @param maxParallel how many actions may be in flight at once
+     * @param toAction creates the action for an item
+     * @param <T> the type of the items
+     * @return the promise representing the actions
+     */
+    <T> TypedPromise<C> forEach(Iterable<T> items, int maxParallel,
+                                Function<? super T, ? extends TypedPromiseAction<C>> toAction);
+
+    /**
+     * Executes all actions in parallel, the first one to succeed completes the step and the others are cancelled, see
+     * {@link TypedPromiseAction#cancel(Object)}. The promise only fails if every action fails. Useful for querying
+     * replicas or caches and going with the fastest answer.
+     *
+     * @param actions the actions to execute
+     * @return the promise representing the actions
+     */
+    TypedPromise<C> any(List<? extends TypedPromiseAction<C>> actions);
+
+    /**
+     * Executes all actions in parallel, the first one to complete decides if the step succeeds or fails and the others
+     * are cancelled, see {@link TypedPromiseAction#cancel(Object)}.
+     *
+     * @param actions the actions to execute
+     * @return the promise representing the actions
+     */
+    TypedPromise<C> race(List<? extends TypedPromiseAction<C>> actions);
+
+    /**
+     * Executes all actions serially
+     *
+     * @param actions the actions to execute
+     * @return the promise representing the actions
+     */
+    TypedPromise<C> allInOrder(List<? extends TypedPromiseAction<C>> actions);
+
+    /**
+     * Add an action to execute in the chain.
+     *
+     * @param action the action to execute
+     * @return the promise representing the actions
+     */
+    TypedPromise<C> then(TypedPromiseAction<C> action);
+
+    /**
+     * Add an exception handler to be called in the event something goes wrong, see {@link #getFailure()}.
+     *
+     * @param onFailure the callback to call on failure
+     * @return the promise representing the actions
+     */
+    TypedPromise<C> except(Consumer<C> onFailure);
+
+    /**
+     * The callback to call when all promise actions are done. This will only be called if there are no failures.
+     * @param onComplete the callback to hit when the promise is complete
+     * @return the promise representing the actions
+     */
+    TypedPromise<C> done(Consumer<C> onComplete);
+
+    /**
+     * A timeout to set on the promise.
+     * @param time the delay in milliseconds that the promise needs to complete in
+     * @return the promise representing the actions
+     */
+    TypedPromise<C> timeout(long time);
+
+    /**
+     * Has the promise succeeded? Will return false while still executing.
+     *
+     * @return true if the promise has succeeded false otherwise
+     */
+    boolean succeeded();
+
+    /**
+     * Has the promise completed yet? Either by completing all tasks or failing to.
+     *
+     * @return true if all actions or done completing or the promise has failed.
+     */
+    boolean completed();
+
+    /**
+     * What made the promise fail.
+     *
+     * @return the exception an action threw, a {@link java.util.concurrent.TimeoutException} if the promise timed out
+     *         or null if it hasn't failed or an action reported the failure
+     */
+    Throwable getFailure();
+
+    /**
+     * Called when you are ready to begin resolution of the promise chain.
+     *
+     * @return the promise you are evaluating
+     */
+    TypedPromise<C> eval();
+
+    /**
+     * If the promise has no actions in it
+     *
+     * @return true if the promise has no actions, false otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * Create a new promise.
+     * @param vertx the vertx instance to run it on
+     * @param context the context passed to every action and callback
+     * @param <C> the type of the context
+     * @return the newly created Promise
+     */
+    static <C> TypedPromise<C> newInstance(Vertx vertx, C context) {
+        return new TypedPromiseImpl<>(vertx, context);
+    }
+}
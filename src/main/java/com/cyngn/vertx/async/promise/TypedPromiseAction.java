@@ -0,0 +1,50 @@
+package com.cyngn.vertx.async.promise;
+
+import java.util.function.Consumer;
+
+/**
+ * The contract of a discrete action to be executed in a {@link TypedPromise}
+ *
+ * @param <C> the type of the context shared by the actions
+ */
+public interface TypedPromiseAction<C> {
+    /**
+     * The action to execute.
+     *
+     * @param context the object the promise was created with for passing data between actions and communicating the
+     *                result
+     * @param onResult the callback that collects the result of any given action necessary for continuing or
+     *                 completing the chain of actions in a promise.
+     */
+    void execute(C context, Consumer<Boolean> onResult);
+
+    /**
+     * Called when the action is still in flight but its result is no longer needed, ie a sibling in a parallel step
+     * failed or the promise timed out. The action can stop its work, calling onResult afterwards is ignored.
+     *
+     * @param context the context the action was executed with
+     */
+    default void cancel(C context) {}
+
+    /**
+     * Creates an action with a cancellation hook, see {@link #cancel(Object)}.
+     *
+     * @param action the action to execute
+     * @param onCancel called with the context if the action is cancelled while in flight
+     * @param <C> the type of the context
+     * @return the cancellable action
+     */
+    static <C> TypedPromiseAction<C> cancellable(TypedPromiseAction<C> action, Consumer<C> onCancel) {
+        return new TypedPromiseAction<C>() {
+            @Override
+            public void execute(C context, Consumer<Boolean> onResult) {
+                action.execute(context, onResult);
+            }
+
+            @Override
+            public void cancel(C context) {
+                onCancel.accept(context);
+            }
+        };
+    }
+}
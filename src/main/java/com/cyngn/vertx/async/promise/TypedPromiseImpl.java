@@ -0,0 +1,91 @@
+package com.cyngn.vertx.async.promise;
+
+import com.cyngn.vertx.async.TimerWheel;
+import io.vertx.core.Vertx;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Implementation of TypedPromise interface.
+ *
+ * @param <C> the type of the context passed to the actions
+ */
+public class TypedPromiseImpl<C> extends AbstractPromise<C> implements TypedPromise<C> {
+
+    // scope to the package
+    TypedPromiseImpl(Vertx vertx, C context) {
+        this(vertx, context, TimerWheel.DEFAULT_TICK);
+    }
+
+    TypedPromiseImpl(Vertx vertx, C context, long timerTick) {
+        super(vertx, context, timerTick);
+    }
+
+    @Override
+    public TypedPromise<C> eval() {
+        evalActions();
+        return this;
+    }
+
+    @Override
+    public TypedPromise<C> all(List<? extends TypedPromiseAction<C>> actions) {
+        return all(Math.max(actions.size(), 1), actions);
+    }
+
+    @Override
+    public TypedPromise<C> all(int maxParallel, List<? extends TypedPromiseAction<C>> actions) {
+        addParallel(actions, maxParallel);
+        return this;
+    }
+
+    @Override
+    public <T> TypedPromise<C> forEach(Iterable<T> items, int maxParallel,
+                                       Function<? super T, ? extends TypedPromiseAction<C>> toAction) {
+        addForEach(items, maxParallel, toAction);
+        return this;
+    }
+
+    @Override
+    public TypedPromise<C> any(List<? extends TypedPromiseAction<C>> actions) {
+        addFirst(actions, true);
+        return this;
+    }
+
+    @Override
+    public TypedPromise<C> race(List<? extends TypedPromiseAction<C>> actions) {
+        addFirst(actions, false);
+        return this;
+    }
+
+    @Override
+    public TypedPromise<C> allInOrder(List<? extends TypedPromiseAction<C>> actions) {
+        for (TypedPromiseAction<C> action : actions) { then(action); }
+        return this;
+    }
+
+    @Override
+    public TypedPromise<C> then(TypedPromiseAction<C> action) {
+        addAction(action);
+        return this;
+    }
+
+    @Override
+    public TypedPromise<C> except(Consumer<C> onFailure) {
+        setOnFailure(onFailure);
+        return this;
+    }
+
+    @Override
+    public TypedPromise<C> done(Consumer<C> onComplete) {
+        setOnComplete(onComplete);
+        return this;
+    }
+
+    @Override
+    public TypedPromise<C> timeout(long time) {
+        setTimeout(time);
+        return this;
+    }
+}
@@ -0,0 +1,137 @@
+package com.cyngn.vertx.client;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precompiled settings for a named api on a {@link ServiceClient}.
+ *
+ * All per api settings are resolved once when the client is built, callers should hold on to the descriptor returned
+ * by {@link ServiceClient#getApi(String)} and pass it to the call methods rather than looking it up on every request.
+ */
+public final class ApiDescriptor {
+
+    private final String name;
+    private final long timeout;
+    private final Map<String, String> headers;
+    private final HeaderSet headerSet;
+    private final CircuitBreaker circuitBreaker;
+    private final long cacheTtl;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final Priority priority;
+
+    /**
+     * @param name           - api name.
+     * @param timeout        - api timeout in milliseconds, 0 means fall back to the client timeout.
+     * @param clientTimeout  - client wide timeout in milliseconds.
+     * @param clientHeaders  - headers sent on every call from the client, may be null.
+     * @param apiHeaders     - headers sent on every call to this api, may be null.
+     * @param breakerOptions - circuit breaker settings, null to disable circuit breaking for the api.
+     * @param cacheTtl       - how long responses without caching headers are cached in milliseconds, 0 for not at all.
+     * @param limitOptions   - concurrency limit settings, null to not limit calls to the api on their own.
+     * @param priority       - priority lane of calls to the api that don't set their own.
+     */
+    ApiDescriptor(String name, long timeout, long clientTimeout, Map<String, String> clientHeaders,
+                  Map<String, String> apiHeaders, CircuitBreakerOptions breakerOptions, long cacheTtl,
+                  ConcurrencyLimitOptions limitOptions, Priority priority) {
+        this.name = name;
+        this.timeout = timeout > 0L ? timeout : clientTimeout;
+
+        Map<String, String> merged = new HashMap<>();
+        if (clientHeaders != null) {
+            merged.putAll(clientHeaders);
+        }
+        // api headers take precedence over client headers
+        if (apiHeaders != null) {
+            merged.putAll(apiHeaders);
+        }
+        this.headers = Collections.unmodifiableMap(merged);
+        this.headerSet = new HeaderSet(merged);
+        this.circuitBreaker = breakerOptions != null ? new CircuitBreaker(name, breakerOptions) : null;
+        this.cacheTtl = cacheTtl;
+        this.concurrencyLimiter = limitOptions != null ? new ConcurrencyLimiter(name, limitOptions) : null;
+        this.priority = priority;
+    }
+
+    /**
+     * Gets the api name
+     *
+     * @return - api name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the resolved timeout for the api
+     *
+     * @return - timeout in milliseconds, 0 means no timeout.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Gets the resolved headers sent on every call to the api, client headers merged with api headers.
+     *
+     * @return - unmodifiable map of string key, string value pairs.
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Gets the resolved headers compiled for putting them on requests.
+     *
+     * @return - the compiled headers
+     */
+    HeaderSet headerSet() {
+        return headerSet;
+    }
+
+    /**
+     * Gets the circuit breaker for the api
+     *
+     * @return - the circuit breaker, null if circuit breaking is not enabled.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Gets the concurrency limiter for the api
+     *
+     * @return - the limiter, null if calls to the api are only limited by the client limiter.
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Gets the priority lane of calls to the api that don't set their own
+     *
+     * @return - the priority
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Gets how long responses without Cache-Control or Expires headers are cached
+     *
+     * @return - ttl in milliseconds, 0 means they are not cached.
+     */
+    public long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    /**
+     * Checks if the api has a timeout
+     *
+     * @return - true if timeout is set, false otherwise.
+     */
+    public boolean hasTimeout() {
+        return timeout > 0L;
+    }
+}
@@ -0,0 +1,193 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpFrame;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.net.NetSocket;
+
+import java.util.List;
+
+/**
+ * A response whose body has already been read, replayed to a handler as if it came off the network.
+ *
+ * The body buffer may be shared with other responses and must not be modified.
+ */
+class BufferedClientResponse implements HttpClientResponse {
+
+    private final HttpVersion version;
+    private final int statusCode;
+    private final String statusMessage;
+    private final MultiMap headers;
+    private final MultiMap trailers;
+    private final List<String> cookies;
+    private final Buffer body;
+
+    private Context context;
+    private Handler<Buffer> dataHandler;
+    private Handler<Buffer> bodyHandler;
+    private Handler<Void> endHandler;
+    private boolean paused;
+    private boolean replayed;
+
+    BufferedClientResponse(HttpVersion version, int statusCode, String statusMessage, MultiMap headers,
+                           MultiMap trailers, List<String> cookies, Buffer body) {
+        this.version = version;
+        this.statusCode = statusCode;
+        this.statusMessage = statusMessage;
+        this.headers = headers;
+        this.trailers = trailers;
+        this.cookies = cookies;
+        this.body = body;
+    }
+
+    /**
+     * Copies the status and headers of a response that has been read.
+     *
+     * @param response - the response
+     * @param body     - the response body
+     */
+    BufferedClientResponse(HttpClientResponse response, Buffer body) {
+        this(response.version(), response.statusCode(), response.statusMessage(), response.headers(),
+                response.trailers(), response.cookies(), body);
+    }
+
+    /**
+     * Gets the size of the body.
+     *
+     * @return - the body length in bytes
+     */
+    int bodyLength() {
+        return body.length();
+    }
+
+    /**
+     * Hands the response to a handler on a context, the body is replayed once the handler returns.
+     *
+     * @param context - the context to run the handler on
+     * @param handler - the response handler
+     */
+    void deliver(Context context, Handler<HttpClientResponse> handler) {
+        this.context = context;
+        context.runOnContext(v -> {
+            handler.handle(this);
+            replay();
+        });
+    }
+
+    private void replay() {
+        if (paused || replayed) {
+            return;
+        }
+        replayed = true;
+
+        if (dataHandler != null && body.length() > 0) {
+            dataHandler.handle(body);
+        }
+        if (bodyHandler != null) {
+            bodyHandler.handle(body);
+        }
+        if (endHandler != null) {
+            endHandler.handle(null);
+        }
+    }
+
+    @Override
+    public HttpClientResponse resume() {
+        if (paused) {
+            paused = false;
+            if (context != null) {
+                context.runOnContext(v -> replay());
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public HttpClientResponse pause() {
+        paused = true;
+        return this;
+    }
+
+    @Override
+    public HttpClientResponse exceptionHandler(Handler<Throwable> handler) {
+        // the body has been read, nothing can fail anymore
+        return this;
+    }
+
+    @Override
+    public HttpClientResponse handler(Handler<Buffer> handler) {
+        dataHandler = handler;
+        return this;
+    }
+
+    @Override
+    public HttpClientResponse endHandler(Handler<Void> handler) {
+        endHandler = handler;
+        return this;
+    }
+
+    @Override
+    public HttpClientResponse bodyHandler(Handler<Buffer> handler) {
+        bodyHandler = handler;
+        return this;
+    }
+
+    @Override
+    public HttpVersion version() {
+        return version;
+    }
+
+    @Override
+    public int statusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public String statusMessage() {
+        return statusMessage;
+    }
+
+    @Override
+    public MultiMap headers() {
+        return headers;
+    }
+
+    @Override
+    public String getHeader(String headerName) {
+        return headers.get(headerName);
+    }
+
+    @Override
+    public String getHeader(CharSequence headerName) {
+        return headers.get(headerName);
+    }
+
+    @Override
+    public String getTrailer(String trailerName) {
+        return trailers.get(trailerName);
+    }
+
+    @Override
+    public MultiMap trailers() {
+        return trailers;
+    }
+
+    @Override
+    public List<String> cookies() {
+        return cookies;
+    }
+
+    @Override
+    public HttpClientResponse customFrameHandler(Handler<HttpFrame> handler) {
+        return this;
+    }
+
+    @Override
+    public NetSocket netSocket() {
+        throw new UnsupportedOperationException("a buffered response has no socket");
+    }
+}
@@ -0,0 +1,111 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpVersion;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A response held in a {@link ResponseCache}.
+ */
+public final class CachedResponse {
+
+    // rough per entry bookkeeping cost on top of the headers and body
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final int statusCode;
+    private final String statusMessage;
+    private final MultiMap headers;
+    private final Buffer body;
+    private final long expiresAt;
+    private final int size;
+
+    /**
+     * @param statusCode    - response status code
+     * @param statusMessage - response status message
+     * @param headers       - response headers, copied
+     * @param body          - response body, must not be modified afterwards
+     * @param expiresAt     - time in epoch milliseconds until which the response is fresh
+     */
+    public CachedResponse(int statusCode, String statusMessage, MultiMap headers, Buffer body, long expiresAt) {
+        this.statusCode = statusCode;
+        this.statusMessage = statusMessage;
+        this.headers = new CaseInsensitiveHeaders().addAll(headers);
+        this.body = body;
+        this.expiresAt = expiresAt;
+
+        int headerSize = 0;
+        for (Map.Entry<String, String> header : this.headers) {
+            headerSize += 2 * (header.getKey().length() + header.getValue().length());
+        }
+        this.size = ENTRY_OVERHEAD + headerSize + body.length();
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public MultiMap getHeaders() {
+        return headers;
+    }
+
+    public Buffer getBody() {
+        return body;
+    }
+
+    /**
+     * Gets the time until which the response may be served without revalidating it
+     *
+     * @return - time in epoch milliseconds
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Gets the approximate number of bytes the entry holds on heap
+     *
+     * @return - size in bytes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the response may be served without revalidating it
+     *
+     * @param now - current time in epoch milliseconds
+     * @return - true if the response is fresh
+     */
+    public boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    /**
+     * Checks if the response carries an ETag or Last-Modified header it can be revalidated with.
+     *
+     * @return - true if the response can be revalidated
+     */
+    public boolean hasValidators() {
+        return headers.contains(HttpHeaders.ETAG) || headers.contains(HttpHeaders.LAST_MODIFIED);
+    }
+
+    /**
+     * Creates a copy that is fresh until a new time, after a successful revalidation.
+     *
+     * @param expiresAt - time in epoch milliseconds until which the response is fresh
+     * @return the refreshed response
+     */
+    CachedResponse refresh(long expiresAt) {
+        return new CachedResponse(statusCode, statusMessage, headers, body, expiresAt);
+    }
+
+    BufferedClientResponse toResponse() {
+        return new BufferedClientResponse(HttpVersion.HTTP_1_1, statusCode, statusMessage, headers,
+                new CaseInsensitiveHeaders(), Collections.emptyList(), body);
+    }
+}
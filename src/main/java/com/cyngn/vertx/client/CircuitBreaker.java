@@ -0,0 +1,204 @@
+package com.cyngn.vertx.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests to a backend that is failing or slow.
+ *
+ * The breaker tracks the outcome of the most recent requests. When the failure rate or the configured latency
+ * percentile crosses its threshold the breaker opens and rejects requests. After the open duration it lets a few probe
+ * requests through and closes again if they all succeed.
+ */
+public class CircuitBreaker {
+
+    /**
+     * Breaker states
+     */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * The permit of a rejected request
+     */
+    public static final long REJECTED = -1L;
+    private static final long NOT_A_PROBE = 0L;
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final CircuitBreakerOptions options;
+    private final long latencyThresholdNanos;
+    private final long openDurationNanos;
+
+    // ring buffer of request outcomes
+    private final byte[] window;
+    private int position;
+    private int count;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    // each half open period gets its own generation, probe permits carry it
+    private long probeGeneration;
+    private long probingSince;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    /**
+     * @param name    - name used in rejection messages, ie the endpoint or api name.
+     * @param options - breaker settings.
+     */
+    public CircuitBreaker(String name, CircuitBreakerOptions options) {
+        this.name = name;
+        this.options = options;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(options.getLatencyThreshold());
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(options.getOpenDuration());
+        this.window = new byte[options.getWindowSize()];
+    }
+
+    /**
+     * Gets the breaker name
+     *
+     * @return - name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the current state, an open breaker whose open duration expired reports OPEN until the next request.
+     *
+     * @return - the state
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Checks if a request may be sent. A request that is allowed must be followed by exactly one call to either
+     * {@link #recordResult(long, boolean, long)} or {@link #cancel(long)} with the permit returned.
+     *
+     * @return the permit of the request, {@link #REJECTED} if it should be rejected.
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.CLOSED) {
+            return NOT_A_PROBE;
+        }
+        long now = System.nanoTime();
+        if (state == State.OPEN) {
+            if (now - openedAt < openDurationNanos) {
+                return REJECTED;
+            }
+            state = State.HALF_OPEN;
+            startProbing(now);
+        }
+
+        if (probesInFlight + probeSuccesses >= options.getHalfOpenRequests()) {
+            // probes that never answer would hold the breaker half open forever, give up on them after the open
+            // duration and let a new generation of probes through
+            if (probesInFlight == 0 || now - probingSince < openDurationNanos) {
+                return REJECTED;
+            }
+            startProbing(now);
+        }
+        probesInFlight++;
+        return probeGeneration;
+    }
+
+    /**
+     * Releases an allowed request that ended up not being sent.
+     *
+     * @param permit - the permit the request was allowed with
+     */
+    public synchronized void cancel(long permit) {
+        if (isProbe(permit) && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    /**
+     * Records the outcome of an allowed request.
+     *
+     * @param permit       - the permit the request was allowed with
+     * @param failed       - true if the request failed
+     * @param latencyNanos - time from sending the request to its outcome
+     */
+    public synchronized void recordResult(long permit, boolean failed, long latencyNanos) {
+        boolean slow = latencyThresholdNanos > 0L && latencyNanos > latencyThresholdNanos;
+
+        if (state == State.HALF_OPEN) {
+            // requests sent before the breaker opened or probes of an earlier half open period don't count
+            if (!isProbe(permit)) {
+                return;
+            }
+            probesInFlight--;
+            if (failed || slow) {
+                open();
+            } else if (++probeSuccesses >= options.getHalfOpenRequests()) {
+                close();
+            }
+            return;
+        }
+
+        // requests sent before the breaker opened don't count
+        if (state == State.OPEN) {
+            return;
+        }
+
+        byte outcome = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        if (count == window.length) {
+            byte evicted = window[position];
+            if ((evicted & FAILED) != 0) { failures--; }
+            if ((evicted & SLOW) != 0) { slowCalls--; }
+        } else {
+            count++;
+        }
+        window[position] = outcome;
+        position = (position + 1) % window.length;
+        if (failed) { failures++; }
+        if (slow) { slowCalls++; }
+
+        if (count >= options.getMinimumRequests() && shouldTrip()) {
+            open();
+        }
+    }
+
+    private void startProbing(long now) {
+        probeGeneration++;
+        probingSince = now;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+    }
+
+    private boolean isProbe(long permit) {
+        return state == State.HALF_OPEN && permit == probeGeneration;
+    }
+
+    private boolean shouldTrip() {
+        if (failures * 100.0 >= options.getFailureRate() * count) {
+            return true;
+        }
+        // the latency percentile is over the threshold when more than (100 - percentile)% of requests are slower
+        return latencyThresholdNanos > 0L && slowCalls * 100.0 > (100.0 - options.getLatencyPercentile()) * count;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        position = count = failures = slowCalls = 0;
+    }
+
+    /**
+     * Creates the exception rejected requests are failed with.
+     *
+     * @return the exception
+     */
+    CircuitOpenException rejection() {
+        return new CircuitOpenException("circuit breaker " + name + " is open");
+    }
+}
@@ -0,0 +1,180 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Settings for the {@link CircuitBreaker}s a {@link ServiceClient} keeps per endpoint and per named api.
+ */
+public class CircuitBreakerOptions {
+
+    // configuration key constants
+    public static final String FAILURE_RATE = "failure_rate";
+    public static final String LATENCY_THRESHOLD = "latency_threshold";
+    public static final String LATENCY_PERCENTILE = "latency_percentile";
+    public static final String WINDOW_SIZE = "window_size";
+    public static final String MINIMUM_REQUESTS = "minimum_requests";
+    public static final String OPEN_DURATION = "open_duration";
+    public static final String HALF_OPEN_REQUESTS = "half_open_requests";
+
+    public static final double DEFAULT_FAILURE_RATE = 50.0;
+    public static final long DEFAULT_LATENCY_THRESHOLD = 0L;
+    public static final double DEFAULT_LATENCY_PERCENTILE = 99.0;
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+    public static final int DEFAULT_MINIMUM_REQUESTS = 20;
+    public static final long DEFAULT_OPEN_DURATION = 5000L;
+    public static final int DEFAULT_HALF_OPEN_REQUESTS = 1;
+
+    private double failureRate = DEFAULT_FAILURE_RATE;
+    private long latencyThreshold = DEFAULT_LATENCY_THRESHOLD;
+    private double latencyPercentile = DEFAULT_LATENCY_PERCENTILE;
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+    private int minimumRequests = DEFAULT_MINIMUM_REQUESTS;
+    private long openDuration = DEFAULT_OPEN_DURATION;
+    private int halfOpenRequests = DEFAULT_HALF_OPEN_REQUESTS;
+
+    /**
+     * Creates options from json configuration, missing keys keep their defaults.
+     *
+     * @param config - Json configuration.
+     * @return the options
+     */
+    public static CircuitBreakerOptions fromConfig(JsonObject config) {
+        return new CircuitBreakerOptions()
+                .setFailureRate(config.getDouble(FAILURE_RATE, DEFAULT_FAILURE_RATE))
+                .setLatencyThreshold(config.getLong(LATENCY_THRESHOLD, DEFAULT_LATENCY_THRESHOLD))
+                .setLatencyPercentile(config.getDouble(LATENCY_PERCENTILE, DEFAULT_LATENCY_PERCENTILE))
+                .setWindowSize(config.getInteger(WINDOW_SIZE, DEFAULT_WINDOW_SIZE))
+                .setMinimumRequests(config.getInteger(MINIMUM_REQUESTS, DEFAULT_MINIMUM_REQUESTS))
+                .setOpenDuration(config.getLong(OPEN_DURATION, DEFAULT_OPEN_DURATION))
+                .setHalfOpenRequests(config.getInteger(HALF_OPEN_REQUESTS, DEFAULT_HALF_OPEN_REQUESTS));
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    /**
+     * Sets the percentage of failed requests in the window that trips the breaker. Failures are exceptions, including
+     * timeouts, and 5XX responses.
+     *
+     * @param failureRate - percentage between 0 and 100.
+     * @return - reference to this object.
+     */
+    public CircuitBreakerOptions setFailureRate(double failureRate) {
+        if (failureRate <= 0.0 || failureRate > 100.0) {
+            throw new IllegalArgumentException("Invalid failure rate: " + failureRate);
+        }
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    public long getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    /**
+     * Sets the latency the {@link #setLatencyPercentile(double)} percentile of requests in the window must stay under,
+     * otherwise the breaker trips.
+     *
+     * @param latencyThreshold - latency in milliseconds, 0 means latency is not considered.
+     * @return - reference to this object.
+     */
+    public CircuitBreakerOptions setLatencyThreshold(long latencyThreshold) {
+        if (latencyThreshold < 0L) {
+            throw new IllegalArgumentException("Invalid latency threshold: " + latencyThreshold);
+        }
+        this.latencyThreshold = latencyThreshold;
+        return this;
+    }
+
+    public double getLatencyPercentile() {
+        return latencyPercentile;
+    }
+
+    /**
+     * Sets the latency percentile checked against the latency threshold, ie 99 for p99.
+     *
+     * @param latencyPercentile - percentile between 0 and 100.
+     * @return - reference to this object.
+     */
+    public CircuitBreakerOptions setLatencyPercentile(double latencyPercentile) {
+        if (latencyPercentile <= 0.0 || latencyPercentile >= 100.0) {
+            throw new IllegalArgumentException("Invalid latency percentile: " + latencyPercentile);
+        }
+        this.latencyPercentile = latencyPercentile;
+        return this;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Sets the number of most recent requests the failure rate and latency are computed over.
+     *
+     * @param windowSize - number of requests.
+     * @return - reference to this object.
+     */
+    public CircuitBreakerOptions setWindowSize(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Invalid window size: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    public int getMinimumRequests() {
+        return minimumRequests;
+    }
+
+    /**
+     * Sets the number of requests the window must hold before the breaker can trip.
+     *
+     * @param minimumRequests - number of requests.
+     * @return - reference to this object.
+     */
+    public CircuitBreakerOptions setMinimumRequests(int minimumRequests) {
+        if (minimumRequests < 1) {
+            throw new IllegalArgumentException("Invalid minimum requests: " + minimumRequests);
+        }
+        this.minimumRequests = minimumRequests;
+        return this;
+    }
+
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * Sets how long a tripped breaker rejects requests before letting probe requests through. Probes that haven't
+     * answered after this long are given up on and new ones are let through.
+     *
+     * @param openDuration - duration in milliseconds.
+     * @return - reference to this object.
+     */
+    public CircuitBreakerOptions setOpenDuration(long openDuration) {
+        if (openDuration < 1L) {
+            throw new IllegalArgumentException("Invalid open duration: " + openDuration);
+        }
+        this.openDuration = openDuration;
+        return this;
+    }
+
+    public int getHalfOpenRequests() {
+        return halfOpenRequests;
+    }
+
+    /**
+     * Sets the number of probe requests that must succeed to close the breaker again.
+     *
+     * @param halfOpenRequests - number of requests.
+     * @return - reference to this object.
+     */
+    public CircuitBreakerOptions setHalfOpenRequests(int halfOpenRequests) {
+        if (halfOpenRequests < 1) {
+            throw new IllegalArgumentException("Invalid half open requests: " + halfOpenRequests);
+        }
+        this.halfOpenRequests = halfOpenRequests;
+        return this;
+    }
+}
@@ -0,0 +1,15 @@
+package com.cyngn.vertx.client;
+
+/**
+ * Passed to the exception handler of a {@link ServiceClient} call that was rejected by an open {@link CircuitBreaker}
+ * without being sent.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String message) {
+        // rejections are expected under failure, skip the stack trace
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,54 @@
+package com.cyngn.vertx.client;
+
+/**
+ * Receives telemetry for the requests a {@link ServiceClient} sends over HTTP, see {@link InMemoryClientMetrics} for
+ * the default implementation.
+ *
+ * Methods are called on the event loop of the calling context for every request, including every hedged attempt, so
+ * implementations must be thread safe and should neither block nor allocate.
+ */
+public interface ClientMetrics {
+
+    /**
+     * Called when a request is sent to an endpoint.
+     *
+     * @param api    - the named api called, null for calls by path
+     * @param queued - true if every connection to the endpoint was busy, so the request waits for one in the pool
+     */
+    void requestStarted(ApiDescriptor api, boolean queued);
+
+    /**
+     * Called when a request had to open a new connection once it is established, requests that reuse a pooled
+     * connection don't get this call.
+     *
+     * @param api         - the named api called, null for calls by path
+     * @param waitNanos - time from sending the request until the connection was established in nanoseconds
+     */
+    void connected(ApiDescriptor api, long waitNanos);
+
+    /**
+     * Called when a request got a response.
+     *
+     * @param api          - the named api called, null for calls by path
+     * @param statusCode   - the response status code
+     * @param latencyNanos - time from sending the request until the response headers arrived in nanoseconds
+     */
+    void responded(ApiDescriptor api, int statusCode, long latencyNanos);
+
+    /**
+     * Called when a request failed without a response, a {@link java.util.concurrent.TimeoutException} means it timed
+     * out.
+     *
+     * @param api          - the named api called, null for calls by path
+     * @param error        - the failure
+     * @param latencyNanos - time from sending the request until it failed in nanoseconds
+     */
+    void failed(ApiDescriptor api, Throwable error, long latencyNanos);
+
+    /**
+     * Called when a request was abandoned before it got a response, ie the losing attempt of a hedged call.
+     *
+     * @param api - the named api called, null for calls by path
+     */
+    void cancelled(ApiDescriptor api);
+}
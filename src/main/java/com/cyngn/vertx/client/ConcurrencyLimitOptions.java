@@ -0,0 +1,214 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Settings for the {@link ConcurrencyLimiter}s a {@link ServiceClient} keeps for the client and per named api.
+ */
+public class ConcurrencyLimitOptions {
+
+    /**
+     * How the limit adapts to the measured round trip times.
+     */
+    public enum Algorithm {
+        /**
+         * Additive increase, multiplicative decrease. The limit grows by one per successful call and is cut by the
+         * backoff ratio on a failure or a call slower than the latency threshold.
+         */
+        AIMD,
+        /**
+         * Scales the limit by the ratio of the no load round trip time to the current one, so the limit shrinks as
+         * soon as requests start queueing at the service. Failures back off like {@link #AIMD}.
+         */
+        GRADIENT;
+
+        /**
+         * Parses the algorithm from its configuration name, ie "aimd".
+         *
+         * @param name - configuration name
+         * @return the algorithm
+         */
+        public static Algorithm fromConfig(String name) {
+            for (Algorithm algorithm : values()) {
+                if (algorithm.name().equalsIgnoreCase(name)) {
+                    return algorithm;
+                }
+            }
+            throw new IllegalArgumentException("Unknown concurrency limit algorithm: " + name);
+        }
+    }
+
+    // configuration key constants
+    public static final String ALGORITHM = "algorithm";
+    public static final String INITIAL_LIMIT = "initial_limit";
+    public static final String MIN_LIMIT = "min_limit";
+    public static final String MAX_LIMIT = "max_limit";
+    public static final String QUEUE_SIZE = "queue_size";
+    public static final String BACKOFF_RATIO = "backoff_ratio";
+    public static final String LATENCY_THRESHOLD = "latency_threshold";
+    public static final String TOLERANCE = "tolerance";
+
+    public static final Algorithm DEFAULT_ALGORITHM = Algorithm.GRADIENT;
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+    public static final int DEFAULT_QUEUE_SIZE = 50;
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+    public static final long DEFAULT_LATENCY_THRESHOLD = 0L;
+    public static final double DEFAULT_TOLERANCE = 2.0;
+
+    private Algorithm algorithm = DEFAULT_ALGORITHM;
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+    private long latencyThreshold = DEFAULT_LATENCY_THRESHOLD;
+    private double tolerance = DEFAULT_TOLERANCE;
+
+    /**
+     * Creates options from json configuration, missing keys keep their defaults.
+     *
+     * @param config - Json configuration.
+     * @return the options
+     */
+    public static ConcurrencyLimitOptions fromConfig(JsonObject config) {
+        return new ConcurrencyLimitOptions()
+                .setAlgorithm(Algorithm.fromConfig(config.getString(ALGORITHM, DEFAULT_ALGORITHM.name())))
+                .setMaxLimit(config.getInteger(MAX_LIMIT, DEFAULT_MAX_LIMIT))
+                .setMinLimit(config.getInteger(MIN_LIMIT, DEFAULT_MIN_LIMIT))
+                .setInitialLimit(config.getInteger(INITIAL_LIMIT, DEFAULT_INITIAL_LIMIT))
+                .setQueueSize(config.getInteger(QUEUE_SIZE, DEFAULT_QUEUE_SIZE))
+                .setBackoffRatio(config.getDouble(BACKOFF_RATIO, DEFAULT_BACKOFF_RATIO))
+                .setLatencyThreshold(config.getLong(LATENCY_THRESHOLD, DEFAULT_LATENCY_THRESHOLD))
+                .setTolerance(config.getDouble(TOLERANCE, DEFAULT_TOLERANCE));
+    }
+
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public ConcurrencyLimitOptions setAlgorithm(Algorithm algorithm) {
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Invalid algorithm: null");
+        }
+        this.algorithm = algorithm;
+        return this;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * Sets the limit used until round trip times are measured.
+     *
+     * @param initialLimit - number of requests in flight, between the min and max limit.
+     * @return - reference to this object.
+     */
+    public ConcurrencyLimitOptions setInitialLimit(int initialLimit) {
+        if (initialLimit < 1) {
+            throw new IllegalArgumentException("Invalid initial limit: " + initialLimit);
+        }
+        this.initialLimit = initialLimit;
+        return this;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public ConcurrencyLimitOptions setMinLimit(int minLimit) {
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("Invalid min limit: " + minLimit);
+        }
+        this.minLimit = minLimit;
+        return this;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public ConcurrencyLimitOptions setMaxLimit(int maxLimit) {
+        if (maxLimit < 1) {
+            throw new IllegalArgumentException("Invalid max limit: " + maxLimit);
+        }
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Sets how many calls may wait for a slot once the limit is reached, further calls are rejected with a
+     * {@link LimitExceededException}.
+     *
+     * @param queueSize - number of waiting calls, 0 rejects as soon as the limit is reached.
+     * @return - reference to this object.
+     */
+    public ConcurrencyLimitOptions setQueueSize(int queueSize) {
+        if (queueSize < 0) {
+            throw new IllegalArgumentException("Invalid queue size: " + queueSize);
+        }
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * Sets the factor the limit is multiplied by when a call fails.
+     *
+     * @param backoffRatio - ratio between 0 and 1 exclusive.
+     * @return - reference to this object.
+     */
+    public ConcurrencyLimitOptions setBackoffRatio(double backoffRatio) {
+        if (backoffRatio <= 0.0 || backoffRatio >= 1.0) {
+            throw new IllegalArgumentException("Invalid backoff ratio: " + backoffRatio);
+        }
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+
+    public long getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    /**
+     * Sets the round trip time over which an {@link Algorithm#AIMD} limiter backs off as if the call failed.
+     *
+     * @param latencyThreshold - latency in milliseconds, 0 means only failures back off.
+     * @return - reference to this object.
+     */
+    public ConcurrencyLimitOptions setLatencyThreshold(long latencyThreshold) {
+        if (latencyThreshold < 0L) {
+            throw new IllegalArgumentException("Invalid latency threshold: " + latencyThreshold);
+        }
+        this.latencyThreshold = latencyThreshold;
+        return this;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Sets how many times the no load round trip time a {@link Algorithm#GRADIENT} limiter accepts before shrinking
+     * the limit.
+     *
+     * @param tolerance - multiple of the no load round trip time, at least 1.
+     * @return - reference to this object.
+     */
+    public ConcurrencyLimitOptions setTolerance(double tolerance) {
+        if (tolerance < 1.0) {
+            throw new IllegalArgumentException("Invalid tolerance: " + tolerance);
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+}
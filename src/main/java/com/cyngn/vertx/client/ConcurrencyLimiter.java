@@ -0,0 +1,325 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of calls a {@link ServiceClient} has in flight, adapting the limit to the measured round trip
+ * times. Calls over the limit wait in a bounded queue and are rejected with a {@link LimitExceededException} once it is
+ * full, so latency stays close to the no load baseline instead of requests piling up in the http client.
+ *
+ * The queue has a lane per {@link Priority}. Freed slots go to the lanes by weight, and a call arriving at a full queue
+ * sheds the newest call of a lower priority lane, or is rejected itself if there is none.
+ */
+public class ConcurrencyLimiter {
+
+    // the no load round trip time is re-measured over this many calls so it can follow the service
+    static final int BASELINE_WINDOW = 1000;
+    // weight of a new limit estimate for the gradient algorithm
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final ConcurrencyLimitOptions options;
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final List<ArrayDeque<Waiter>> lanes;
+    // slots each lane may still take in the current weighted round
+    private final int[] credits;
+    private int queued;
+    private long shed;
+    private double limit;
+    private int inFlight;
+    private long rejected;
+    private long baselineRtt = Long.MAX_VALUE;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+
+    /**
+     * @param name    - name used in rejection messages, ie the api name
+     * @param options - limiter settings
+     */
+    public ConcurrencyLimiter(String name, ConcurrencyLimitOptions options) {
+        if (options.getMinLimit() > options.getMaxLimit()) {
+            throw new IllegalArgumentException("Min limit " + options.getMinLimit() + " is over max limit "
+                    + options.getMaxLimit());
+        }
+        this.name = name;
+        this.options = options;
+        this.limit = clamp(options.getInitialLimit());
+        this.lanes = newLanes();
+        this.credits = new int[PRIORITIES.length];
+    }
+
+    private static List<ArrayDeque<Waiter>> newLanes() {
+        List<ArrayDeque<Waiter>> lanes = new ArrayList<>(PRIORITIES.length);
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            lanes.add(new ArrayDeque<>());
+        }
+        return lanes;
+    }
+
+    /**
+     * Runs the call as soon as it is under the limit. The call must be followed by exactly one
+     * {@link #release(long, boolean)} or {@link #cancel()}.
+     *
+     * @param onPermit   - sends the call, run right away or later on the caller's context once a slot frees up
+     * @param onRejected - called if the call can't be queued
+     */
+    void acquire(Runnable onPermit, Handler<Throwable> onRejected) {
+        acquire(Priority.NORMAL, onPermit, onRejected);
+    }
+
+    /**
+     * Runs the call as soon as it is under the limit, queueing it in its priority lane otherwise. The call must be
+     * followed by exactly one {@link #release(long, boolean)} or {@link #cancel()}.
+     *
+     * @param priority   - lane of the call
+     * @param onPermit   - sends the call, run right away or later on the caller's context once a slot frees up
+     * @param onRejected - called if the call can't be queued, or is shed from the queue for a higher priority call
+     */
+    void acquire(Priority priority, Runnable onPermit, Handler<Throwable> onRejected) {
+        Waiter evicted = null;
+        boolean permitted = false;
+        boolean queuedCall = false;
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                permitted = true;
+            } else if (queued < options.getQueueSize() || (evicted = shed(priority)) != null) {
+                lanes.get(priority.ordinal()).add(new Waiter(Vertx.currentContext(), onPermit, onRejected));
+                queued++;
+                queuedCall = true;
+            } else {
+                rejected++;
+            }
+        }
+
+        if (permitted) {
+            onPermit.run();
+        } else if (!queuedCall) {
+            onRejected.handle(rejection());
+        }
+
+        if (evicted != null) {
+            Waiter shedCall = evicted;
+            LimitExceededException error = rejection();
+            if (shedCall.context != null) {
+                shedCall.context.runOnContext(v -> shedCall.onRejected.handle(error));
+            } else {
+                shedCall.onRejected.handle(error);
+            }
+        }
+    }
+
+    /**
+     * Removes the newest call of the lowest priority lane below the given priority to make room.
+     *
+     * @param priority - priority of the arriving call
+     * @return the removed call or null if there is no lower priority call queued
+     */
+    private Waiter shed(Priority priority) {
+        for (int i = lanes.size() - 1; i > priority.ordinal(); i--) {
+            Waiter waiter = lanes.get(i).pollLast();
+            if (waiter != null) {
+                queued--;
+                shed++;
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private LimitExceededException rejection() {
+        return new LimitExceededException("concurrency limit of " + getLimit() + " reached for " + name);
+    }
+
+    /**
+     * Ends a call and adapts the limit to how it went.
+     *
+     * @param rttNanos - time from sending the call to its response
+     * @param dropped  - true if the call failed or timed out
+     */
+    void release(long rttNanos, boolean dropped) {
+        synchronized (this) {
+            inFlight--;
+            update(rttNanos, dropped);
+        }
+        drain();
+    }
+
+    /**
+     * Ends a call that was never answered by the service, ie rejected by a circuit breaker, without adapting the limit.
+     */
+    void cancel() {
+        synchronized (this) {
+            inFlight--;
+        }
+        drain();
+    }
+
+    private void update(long rttNanos, boolean dropped) {
+        // calls are app limited while well under the limit, they say nothing about how high the limit can go
+        boolean saturated = inFlight + 1 >= limit / 2;
+
+        if (dropped) {
+            limit = clamp(limit * options.getBackoffRatio());
+            return;
+        }
+
+        if (options.getAlgorithm() == ConcurrencyLimitOptions.Algorithm.AIMD) {
+            long threshold = TimeUnit.MILLISECONDS.toNanos(options.getLatencyThreshold());
+            if (threshold > 0L && rttNanos > threshold) {
+                limit = clamp(limit * options.getBackoffRatio());
+            } else if (saturated) {
+                limit = clamp(limit + 1.0);
+            }
+            return;
+        }
+
+        windowMinRtt = Math.min(windowMinRtt, rttNanos);
+        baselineRtt = Math.min(baselineRtt, rttNanos);
+        if (++windowSamples >= BASELINE_WINDOW) {
+            baselineRtt = windowMinRtt;
+            windowMinRtt = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, options.getTolerance() * baselineRtt / Math.max(1L, rttNanos)));
+        // leave headroom so the limit can probe upwards while the round trip time holds
+        double estimate = limit * gradient + (saturated ? Math.sqrt(limit) : 0.0);
+        if (estimate < limit || saturated) {
+            limit = clamp(limit * (1.0 - SMOOTHING) + estimate * SMOOTHING);
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(options.getMinLimit(), Math.min(options.getMaxLimit(), value));
+    }
+
+    private void drain() {
+        List<Waiter> ready = null;
+        synchronized (this) {
+            while (queued > 0 && inFlight < (int) limit) {
+                inFlight++;
+                queued--;
+                if (ready == null) {
+                    ready = new ArrayList<>();
+                }
+                ready.add(nextWaiter());
+            }
+        }
+
+        if (ready != null) {
+            for (Waiter waiter : ready) {
+                if (waiter.context != null) {
+                    waiter.context.runOnContext(v -> waiter.onPermit.run());
+                } else {
+                    waiter.onPermit.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks the next queued call by weighted round robin over the lanes, highest priority first.
+     *
+     * @return the call, there must be at least one queued
+     */
+    private Waiter nextWaiter() {
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < lanes.size(); i++) {
+                if (credits[i] > 0 && !lanes.get(i).isEmpty()) {
+                    credits[i]--;
+                    return lanes.get(i).poll();
+                }
+            }
+            // every lane with calls waiting used up its share, start a new round
+            for (int i = 0; i < lanes.size(); i++) {
+                credits[i] = PRIORITIES[i].getWeight();
+            }
+        }
+        throw new IllegalStateException("no call queued");
+    }
+
+    /**
+     * Gets the limiter name
+     *
+     * @return - name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the current limit on calls in flight
+     *
+     * @return - number of calls
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Gets the number of calls in flight
+     *
+     * @return - number of calls
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Gets the number of calls waiting for a slot
+     *
+     * @return - number of calls
+     */
+    public synchronized int getQueueDepth() {
+        return queued;
+    }
+
+    /**
+     * Gets the number of calls waiting for a slot in a priority lane
+     *
+     * @param priority - the lane
+     * @return - number of calls
+     */
+    public synchronized int getQueueDepth(Priority priority) {
+        return lanes.get(priority.ordinal()).size();
+    }
+
+    /**
+     * Gets the number of queued calls shed to make room for higher priority calls
+     *
+     * @return - number of calls
+     */
+    public synchronized long getShed() {
+        return shed;
+    }
+
+    /**
+     * Gets the number of calls rejected because the queue was full
+     *
+     * @return - number of calls
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+
+    private static class Waiter {
+        private final Context context;
+        private final Runnable onPermit;
+        private final Handler<Throwable> onRejected;
+
+        Waiter(Context context, Runnable onPermit, Handler<Throwable> onRejected) {
+            this.context = context;
+            this.onPermit = onPermit;
+            this.onRejected = onRejected;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpMethod;
+
+/**
+ * Opens the pooled connections of a {@link ServiceClient} ahead of the first calls, so they don't pay the TCP and TLS
+ * handshakes, and periodically revalidates them. vert.x only opens a connection for a request, so the warmer sends as
+ * many concurrent requests to every endpoint as connections are wanted.
+ */
+class ConnectionWarmer {
+
+    private static final long NO_TIMER = -1L;
+
+    private final Vertx vertx;
+    private final Endpoint[] endpoints;
+    private final WarmupOptions options;
+    private final int connections;
+    private long timerId = NO_TIMER;
+
+    /**
+     * @param vertx       - the vertx instance
+     * @param endpoints   - endpoints of the client
+     * @param options     - warmup settings
+     * @param connections - connections opened per endpoint
+     */
+    ConnectionWarmer(Vertx vertx, Endpoint[] endpoints, WarmupOptions options, int connections) {
+        this.vertx = vertx;
+        this.endpoints = endpoints;
+        this.options = options;
+        this.connections = connections;
+    }
+
+    /**
+     * Opens the connections to every endpoint.
+     *
+     * @return succeeds once all warmup requests are done, fails if an endpoint couldn't be reached at all
+     */
+    Future<Void> warm() {
+        Future<Void> ready = Future.future();
+        EndpointsWarmup warmup = new EndpointsWarmup(ready);
+        for (Endpoint endpoint : endpoints) {
+            warm(endpoint, warmup);
+        }
+        return ready;
+    }
+
+    private void warm(Endpoint endpoint, EndpointsWarmup warmup) {
+        EndpointWarmup endpointWarmup = new EndpointWarmup(endpoint, warmup);
+        for (int i = 0; i < connections; i++) {
+            Probe probe = new Probe(endpointWarmup);
+            HttpClientRequest request = endpoint.client().request(HttpMethod.HEAD, options.getPath(), response -> {
+                // the connection goes back to the pool once the response is read
+                response.exceptionHandler(probe::failed);
+                response.endHandler(end -> probe.succeeded());
+            });
+            request.exceptionHandler(probe::failed);
+            request.setTimeout(options.getTimeout());
+            request.end();
+        }
+    }
+
+    /**
+     * Starts revalidating the connections, if enabled.
+     */
+    synchronized void start() {
+        if (options.getValidationInterval() > 0L && timerId == NO_TIMER) {
+            timerId = vertx.setPeriodic(options.getValidationInterval(), id -> warm());
+        }
+    }
+
+    /**
+     * Stops revalidating the connections.
+     */
+    synchronized void stop() {
+        if (timerId != NO_TIMER) {
+            vertx.cancelTimer(timerId);
+            timerId = NO_TIMER;
+        }
+    }
+
+    /**
+     * Completes the readiness future once every endpoint is done.
+     */
+    private class EndpointsWarmup {
+        private final Future<Void> ready;
+        private int pending = endpoints.length;
+
+        EndpointsWarmup(Future<Void> ready) {
+            this.ready = ready;
+        }
+
+        synchronized void done(Endpoint endpoint, int opened, Throwable error) {
+            if (ready.isComplete()) {
+                return;
+            }
+            if (opened == 0) {
+                ready.fail(new IllegalStateException("could not open a connection to " + endpoint, error));
+            } else if (--pending == 0) {
+                ready.complete();
+            }
+        }
+    }
+
+    /**
+     * Counts the warmup requests of one endpoint.
+     */
+    private class EndpointWarmup {
+        private final Endpoint endpoint;
+        private final EndpointsWarmup warmup;
+        private int pending = connections;
+        private int opened;
+        private Throwable error;
+
+        EndpointWarmup(Endpoint endpoint, EndpointsWarmup warmup) {
+            this.endpoint = endpoint;
+            this.warmup = warmup;
+        }
+
+        void done(Throwable failure) {
+            boolean last;
+            synchronized (this) {
+                if (failure == null) {
+                    opened++;
+                } else {
+                    error = failure;
+                }
+                last = --pending == 0;
+            }
+            if (last) {
+                warmup.done(endpoint, opened, error);
+            }
+        }
+    }
+
+    /**
+     * A single warmup request, counted once even if the connection fails after the response.
+     */
+    private static class Probe {
+        private final EndpointWarmup endpointWarmup;
+        private boolean done;
+
+        Probe(EndpointWarmup endpointWarmup) {
+            this.endpointWarmup = endpointWarmup;
+        }
+
+        void succeeded() {
+            finish(null);
+        }
+
+        void failed(Throwable error) {
+            finish(error);
+        }
+
+        private void finish(Throwable error) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            endpointWarmup.done(error);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.cyngn.vertx.client;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Passed to the exception handler of a {@link ServiceClient} call whose deadline passed before it was sent, see
+ * {@link ServiceRequest#setDeadline(long)}.
+ */
+public class DeadlineExceededException extends TimeoutException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        // expected under overload, skip the stack trace
+        return this;
+    }
+}
@@ -0,0 +1,106 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.http.HttpClient;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A backend host and port a {@link ServiceClient} sends requests to.
+ *
+ * Each endpoint has its own connection pool and tracks the number of requests currently outstanding against it.
+ */
+public final class Endpoint {
+
+    private final String host;
+    private final int port;
+    private final HttpClient client;
+    private final CircuitBreaker circuitBreaker;
+    private final int capacity;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * @param host           - host name
+     * @param port           - port
+     * @param client         - http client pooling the connections to the endpoint
+     * @param circuitBreaker - circuit breaker of the endpoint, may be null
+     * @param capacity       - number of requests the pooled connections can carry at once
+     */
+    Endpoint(String host, int port, HttpClient client, CircuitBreaker circuitBreaker, int capacity) {
+        this.host = host;
+        this.port = port;
+        this.client = client;
+        this.circuitBreaker = circuitBreaker;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets the endpoint host
+     *
+     * @return - host name
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Gets the endpoint port
+     *
+     * @return - port
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Gets the number of requests sent to the endpoint that have not received a response yet.
+     *
+     * @return - outstanding request count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the number of requests the connection pool of the endpoint can carry at once, more wait for a connection.
+     *
+     * @return - pool capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the circuit breaker used to eject the endpoint when it fails or is slow.
+     *
+     * @return - the circuit breaker, null if circuit breaking is not enabled.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Checks if the endpoint may take a request, see {@link CircuitBreaker#tryAcquire()}.
+     *
+     * @return the permit of the request, {@link CircuitBreaker#REJECTED} if it may not be sent to the endpoint
+     */
+    long tryAcquire() {
+        return circuitBreaker != null ? circuitBreaker.tryAcquire() : 0L;
+    }
+
+    HttpClient client() {
+        return client;
+    }
+
+    void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    void requestFinished() {
+        inFlight.decrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port;
+    }
+}
@@ -0,0 +1,163 @@
+package com.cyngn.vertx.client;
+
+import com.cyngn.vertx.async.ResultContext;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends the calls of a {@link ServiceClient#fanOut(List, Class, int, long, Handler)} batch, keeping at most max
+ * parallel of them in flight, and collects the results by index.
+ */
+class FanOut<T> {
+
+    private static final long NO_TIMER = -1L;
+
+    private final ServiceClient client;
+    private final Vertx vertx;
+    private final List<FanOutRequest> requests;
+    private final Class<T> clazz;
+    private final int maxParallel;
+    private final long deadline;
+    private final Handler<List<ResultContext<T>>> handler;
+    private final List<ResultContext<T>> results;
+    private long deadlineAt;
+    private long timerId = NO_TIMER;
+    private int next;
+    private int inFlight;
+    private int remaining;
+    private boolean sending;
+    private boolean done;
+
+    FanOut(ServiceClient client, Vertx vertx, List<FanOutRequest> requests, Class<T> clazz, int maxParallel,
+           long deadline, Handler<List<ResultContext<T>>> handler) {
+        this.client = client;
+        this.vertx = vertx;
+        this.requests = requests;
+        this.clazz = clazz;
+        this.maxParallel = maxParallel;
+        this.deadline = deadline;
+        this.handler = handler;
+        this.results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        this.remaining = results.size();
+    }
+
+    void start() {
+        if (results.isEmpty()) {
+            handler.handle(Collections.emptyList());
+            return;
+        }
+
+        if (deadline > 0L) {
+            deadlineAt = System.currentTimeMillis() + deadline;
+            timerId = vertx.setTimer(deadline, id -> expire());
+        }
+        sendMore();
+    }
+
+    /**
+     * Sends calls until max parallel are in flight. Calls that fail right away complete while sending, the loop picks
+     * up the freed slot instead of recursing. The lock is not held while sending so results never run under it.
+     */
+    private void sendMore() {
+        synchronized (this) {
+            if (sending) {
+                return;
+            }
+            sending = true;
+        }
+        while (true) {
+            int index;
+            synchronized (this) {
+                if (done || inFlight >= maxParallel || next >= results.size()) {
+                    sending = false;
+                    return;
+                }
+                index = next++;
+                inFlight++;
+            }
+            send(index);
+        }
+    }
+
+    private void send(int index) {
+        FanOutRequest request = requests.get(index);
+        ApiDescriptor api = request.getApi();
+        long timeout = api != null ? api.getTimeout() : 0L;
+
+        // a call never outlives the batch, deadlineAt is 0 if the batch has no deadline
+        RequestSpec spec = new RequestSpec(api, request.getMethod(), request.getPath(), request.getPayload(), timeout,
+                request.getHeaders()).withPriority(request.getPriority()).withDeadline(deadlineAt);
+        client.sendForObject(spec, null, clazz).setHandler(new Slot(index));
+    }
+
+    private void complete(int index, AsyncResult<T> result) {
+        boolean finished;
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            results.set(index, result.succeeded() ? new ResultContext<>(true, result.result())
+                    : new ResultContext<>(result.cause(), result.cause().getMessage()));
+            inFlight--;
+            finished = --remaining == 0;
+            if (finished) {
+                finish();
+            }
+        }
+        // the batch handler runs outside the lock
+        if (finished) {
+            handler.handle(results);
+        } else {
+            sendMore();
+        }
+    }
+
+    private void expire() {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            timerId = NO_TIMER;
+            TimeoutException timeout = new TimeoutException("fan out deadline of " + deadline + "ms exceeded");
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) == null) {
+                    results.set(i, new ResultContext<>(timeout, timeout.getMessage()));
+                }
+            }
+            finish();
+        }
+        handler.handle(results);
+    }
+
+    /**
+     * Stops the batch, the results are no longer changed once it is done.
+     */
+    private void finish() {
+        done = true;
+        if (timerId != NO_TIMER) {
+            vertx.cancelTimer(timerId);
+        }
+    }
+
+    /**
+     * Routes a call's result to its index.
+     */
+    private final class Slot implements Handler<AsyncResult<T>> {
+        private final int index;
+
+        Slot(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void handle(AsyncResult<T> result) {
+            complete(index, result);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+
+import java.util.Map;
+
+/**
+ * One call of a {@link ServiceClient#fanOut(java.util.List, Class, int, long, io.vertx.core.Handler)} batch.
+ */
+public class FanOutRequest {
+
+    private static final Buffer EMPTY_PAYLOAD = Buffer.buffer();
+
+    private final HttpMethod method;
+    private final String path;
+    private ApiDescriptor api;
+    private Buffer payload = EMPTY_PAYLOAD;
+    private Map<String, String> headers;
+    private Priority priority;
+
+    /**
+     * @param method - HTTP method for the request
+     * @param path   - the absolute URI path
+     */
+    public FanOutRequest(HttpMethod method, String path) {
+        this.method = method;
+        this.path = path;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public ApiDescriptor getApi() {
+        return api;
+    }
+
+    /**
+     * Sets the named api called, its timeout and headers apply.
+     *
+     * @param api - api descriptor from {@link ServiceClient#getApi(String)}
+     * @return - reference to this object.
+     */
+    public FanOutRequest setApi(ApiDescriptor api) {
+        this.api = api;
+        return this;
+    }
+
+    public Buffer getPayload() {
+        return payload;
+    }
+
+    public FanOutRequest setPayload(Buffer payload) {
+        this.payload = payload != null ? payload : EMPTY_PAYLOAD;
+        return this;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Sets headers for this call only, applied after client and api headers.
+     *
+     * @param headers - map of string key, string value pairs
+     * @return - reference to this object.
+     */
+    public FanOutRequest setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+        return this;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the priority lane of this call, null to use the api priority.
+     *
+     * @param priority - the priority
+     * @return - reference to this object.
+     */
+    public FanOutRequest setPriority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+}
@@ -0,0 +1,73 @@
+package com.cyngn.vertx.client;
+
+import io.netty.util.AsciiString;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpHeaders;
+
+import java.util.Map;
+
+/**
+ * Headers compiled once into pre-encoded names and values so they can be put on every request without re-encoding
+ * them or allocating an iterator.
+ */
+final class HeaderSet {
+
+    private final CharSequence[] names;
+    private final CharSequence[] values;
+
+    /**
+     * @param headers - map of string key, string value pairs, may be null
+     */
+    HeaderSet(Map<String, String> headers) {
+        int size = headers != null ? headers.size() : 0;
+        names = new CharSequence[size];
+        values = new CharSequence[size];
+
+        if (size > 0) {
+            int i = 0;
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                names[i] = HttpHeaders.createOptimized(header.getKey());
+                values[i] = HttpHeaders.createOptimized(header.getValue());
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Checks if a header is in the set, header names are case insensitive.
+     *
+     * @param name - the header name
+     * @return true if the set has the header
+     */
+    boolean contains(CharSequence name) {
+        for (CharSequence header : names) {
+            if (AsciiString.contentEqualsIgnoreCase(header, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts the headers on the request.
+     *
+     * @param request - the request
+     */
+    void apply(HttpClientRequest request) {
+        for (int i = 0; i < names.length; i++) {
+            request.putHeader(names[i], values[i]);
+        }
+    }
+
+    /**
+     * Puts the headers in a map.
+     *
+     * @param headers - the map
+     */
+    void apply(MultiMap headers) {
+        for (int i = 0; i < names.length; i++) {
+            headers.set(names[i], values[i]);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClientResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A call that sends a second request if the first is slow or fails, the first response wins and the other request is
+ * cancelled.
+ *
+ * Hedged calls should be made from a vertx context so the timer and the responses are handled on the same thread.
+ */
+class HedgedCall {
+
+    private static final int MAX_ATTEMPTS = 2;
+    private static final long NO_TIMER = -1L;
+
+    private final ServiceClient client;
+    private final Vertx vertx;
+    private final HedgingPolicy policy;
+    private final RequestSpec spec;
+    private final Handler<HttpClientResponse> responseHandler;
+    private final Handler<Throwable> exceptionHandler;
+    private final long startTime;
+
+    private final PendingRequest[] attempts = new PendingRequest[MAX_ATTEMPTS];
+    private final boolean[] finished = new boolean[MAX_ATTEMPTS];
+    private int sent;
+    private int outstanding;
+    private int winner = -1;
+    private boolean done;
+    private long timerId = NO_TIMER;
+
+    HedgedCall(ServiceClient client, Vertx vertx, HedgingPolicy policy, RequestSpec spec,
+               Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler) {
+        this.client = client;
+        this.vertx = vertx;
+        this.policy = policy;
+        this.spec = spec;
+        this.responseHandler = responseHandler;
+        this.exceptionHandler = exceptionHandler;
+        this.startTime = System.nanoTime();
+    }
+
+    void start() {
+        policy.budget().deposit();
+        send();
+
+        if (!done) {
+            timerId = vertx.setTimer(policy.delay(), id -> {
+                timerId = NO_TIMER;
+                hedge();
+            });
+        }
+    }
+
+    private void send() {
+        int attempt = sent++;
+        long timeout = spec.timeout;
+        // the second request only gets what is left of the call timeout
+        if (timeout > 0L && attempt > 0) {
+            timeout = Math.max(1L, timeout - elapsed());
+        }
+
+        outstanding++;
+        attempts[attempt] = client.sendAttempt(spec, timeout, response -> handleResponse(attempt, response),
+                error -> handleException(attempt, error));
+    }
+
+    private void hedge() {
+        if (!done && sent < MAX_ATTEMPTS && policy.budget().tryWithdraw()) {
+            send();
+        }
+    }
+
+    private void handleResponse(int attempt, HttpClientResponse response) {
+        if (done) {
+            return;
+        }
+        done = true;
+        winner = attempt;
+        finished[attempt] = true;
+        cancelTimer();
+        policy.recordLatency(elapsed());
+
+        // the winner is delivered first so a failure cancelling the others can't hold it back
+        try {
+            responseHandler.handle(response);
+        } finally {
+            cancelOthers();
+        }
+    }
+
+    private void handleException(int attempt, Throwable error) {
+        if (done) {
+            // the winning connection can still fail while the body is read
+            if (attempt == winner && exceptionHandler != null) {
+                exceptionHandler.handle(error);
+            }
+            return;
+        }
+
+        if (finished[attempt]) {
+            return;
+        }
+        finished[attempt] = true;
+
+        // wait for the other request
+        if (--outstanding > 0) {
+            return;
+        }
+
+        if (sent < MAX_ATTEMPTS && policy.isRetryOnFailure() && !(error instanceof CircuitOpenException)
+                && policy.budget().tryWithdraw()) {
+            cancelTimer();
+            send();
+            return;
+        }
+
+        done = true;
+        cancelTimer();
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(error);
+        }
+    }
+
+    private void cancelOthers() {
+        for (int i = 0; i < sent; i++) {
+            if (!finished[i] && attempts[i] != null) {
+                finished[i] = true;
+                attempts[i].cancel();
+            }
+        }
+    }
+
+    private void cancelTimer() {
+        if (timerId != NO_TIMER) {
+            vertx.cancelTimer(timerId);
+            timerId = NO_TIMER;
+        }
+    }
+
+    private long elapsed() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+}
@@ -0,0 +1,176 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Settings for hedged calls on a {@link ServiceClient}.
+ *
+ * A hedged call sends a second request when the first has not responded within the configured latency percentile of
+ * previous hedged calls, the first response wins. A failed first request can also be retried. Second requests are
+ * limited by a retry budget so they can't multiply the load on a backend that is already struggling.
+ */
+public class HedgingOptions {
+
+    // configuration key constants
+    public static final String ENABLED = "enabled";
+    public static final String DELAY_PERCENTILE = "delay_percentile";
+    public static final String INITIAL_DELAY = "initial_delay";
+    public static final String MIN_DELAY = "min_delay";
+    public static final String RETRY_ON_FAILURE = "retry_on_failure";
+    public static final String BUDGET_PERCENT = "budget_percent";
+    public static final String MIN_RETRIES_PER_SECOND = "min_retries_per_second";
+
+    public static final double DEFAULT_DELAY_PERCENTILE = 95.0;
+    public static final long DEFAULT_INITIAL_DELAY = 50L;
+    public static final long DEFAULT_MIN_DELAY = 5L;
+    public static final boolean DEFAULT_RETRY_ON_FAILURE = true;
+    public static final double DEFAULT_BUDGET_PERCENT = 10.0;
+    public static final int DEFAULT_MIN_RETRIES_PER_SECOND = 5;
+
+    private boolean enabled = true;
+    private double delayPercentile = DEFAULT_DELAY_PERCENTILE;
+    private long initialDelay = DEFAULT_INITIAL_DELAY;
+    private long minDelay = DEFAULT_MIN_DELAY;
+    private boolean retryOnFailure = DEFAULT_RETRY_ON_FAILURE;
+    private double budgetPercent = DEFAULT_BUDGET_PERCENT;
+    private int minRetriesPerSecond = DEFAULT_MIN_RETRIES_PER_SECOND;
+
+    /**
+     * Creates options from json configuration, missing keys keep their defaults.
+     *
+     * @param config - Json configuration.
+     * @return the options
+     */
+    public static HedgingOptions fromConfig(JsonObject config) {
+        return new HedgingOptions()
+                .setEnabled(config.getBoolean(ENABLED, true))
+                .setDelayPercentile(config.getDouble(DELAY_PERCENTILE, DEFAULT_DELAY_PERCENTILE))
+                .setInitialDelay(config.getLong(INITIAL_DELAY, DEFAULT_INITIAL_DELAY))
+                .setMinDelay(config.getLong(MIN_DELAY, DEFAULT_MIN_DELAY))
+                .setRetryOnFailure(config.getBoolean(RETRY_ON_FAILURE, DEFAULT_RETRY_ON_FAILURE))
+                .setBudgetPercent(config.getDouble(BUDGET_PERCENT, DEFAULT_BUDGET_PERCENT))
+                .setMinRetriesPerSecond(config.getInteger(MIN_RETRIES_PER_SECOND, DEFAULT_MIN_RETRIES_PER_SECOND));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets if idempotent calls are hedged by default, when false only requests that opt in with
+     * {@link ServiceRequest#setHedged(Boolean)} are hedged.
+     *
+     * @param enabled - hedge by default?
+     * @return - reference to this object.
+     */
+    public HedgingOptions setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public double getDelayPercentile() {
+        return delayPercentile;
+    }
+
+    /**
+     * Sets the latency percentile of previous calls to wait for before sending the second request, ie 95 for p95.
+     *
+     * @param delayPercentile - percentile between 0 and 100.
+     * @return - reference to this object.
+     */
+    public HedgingOptions setDelayPercentile(double delayPercentile) {
+        if (delayPercentile <= 0.0 || delayPercentile >= 100.0) {
+            throw new IllegalArgumentException("Invalid delay percentile: " + delayPercentile);
+        }
+        this.delayPercentile = delayPercentile;
+        return this;
+    }
+
+    public long getInitialDelay() {
+        return initialDelay;
+    }
+
+    /**
+     * Sets the delay used until enough calls have been seen to compute the percentile.
+     *
+     * @param initialDelay - delay in milliseconds.
+     * @return - reference to this object.
+     */
+    public HedgingOptions setInitialDelay(long initialDelay) {
+        if (initialDelay < 1L) {
+            throw new IllegalArgumentException("Invalid initial delay: " + initialDelay);
+        }
+        this.initialDelay = initialDelay;
+        return this;
+    }
+
+    public long getMinDelay() {
+        return minDelay;
+    }
+
+    /**
+     * Sets the shortest delay before a second request is sent.
+     *
+     * @param minDelay - delay in milliseconds.
+     * @return - reference to this object.
+     */
+    public HedgingOptions setMinDelay(long minDelay) {
+        if (minDelay < 1L) {
+            throw new IllegalArgumentException("Invalid min delay: " + minDelay);
+        }
+        this.minDelay = minDelay;
+        return this;
+    }
+
+    public boolean isRetryOnFailure() {
+        return retryOnFailure;
+    }
+
+    /**
+     * Sets if a failed first request is retried right away instead of waiting for the hedge delay.
+     *
+     * @param retryOnFailure - retry on failure?
+     * @return - reference to this object.
+     */
+    public HedgingOptions setRetryOnFailure(boolean retryOnFailure) {
+        this.retryOnFailure = retryOnFailure;
+        return this;
+    }
+
+    public double getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    /**
+     * Sets the percentage of hedged calls that may send a second request.
+     *
+     * @param budgetPercent - percentage between 0 and 100.
+     * @return - reference to this object.
+     */
+    public HedgingOptions setBudgetPercent(double budgetPercent) {
+        if (budgetPercent < 0.0 || budgetPercent > 100.0) {
+            throw new IllegalArgumentException("Invalid budget percent: " + budgetPercent);
+        }
+        this.budgetPercent = budgetPercent;
+        return this;
+    }
+
+    public int getMinRetriesPerSecond() {
+        return minRetriesPerSecond;
+    }
+
+    /**
+     * Sets the number of second requests per second allowed regardless of the budget percentage, so low traffic
+     * clients can still hedge.
+     *
+     * @param minRetriesPerSecond - retries per second.
+     * @return - reference to this object.
+     */
+    public HedgingOptions setMinRetriesPerSecond(int minRetriesPerSecond) {
+        if (minRetriesPerSecond < 0) {
+            throw new IllegalArgumentException("Invalid min retries per second: " + minRetriesPerSecond);
+        }
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        return this;
+    }
+}
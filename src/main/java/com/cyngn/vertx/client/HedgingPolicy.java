@@ -0,0 +1,66 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.http.HttpMethod;
+
+/**
+ * The hedging settings and shared state of a {@link ServiceClient}.
+ */
+class HedgingPolicy {
+
+    private final HedgingOptions options;
+    private final RetryBudget budget;
+    private final LatencySampler latencies;
+
+    HedgingPolicy(HedgingOptions options) {
+        this.options = options;
+        this.budget = new RetryBudget(options.getBudgetPercent(), options.getMinRetriesPerSecond());
+        this.latencies = new LatencySampler(options.getDelayPercentile());
+    }
+
+    /**
+     * Checks if a call should be hedged.
+     *
+     * @param method - HTTP method of the call, only idempotent methods are hedged.
+     * @param hedged - the per request setting, null to use the client setting.
+     * @return true if the call should be hedged
+     */
+    boolean shouldHedge(HttpMethod method, Boolean hedged) {
+        return (hedged != null ? hedged : options.isEnabled()) && isIdempotent(method);
+    }
+
+    /**
+     * Gets how long to wait for a response before sending the second request.
+     *
+     * @return delay in milliseconds
+     */
+    long delay() {
+        long percentile = latencies.get();
+        return percentile < 0L ? options.getInitialDelay() : Math.max(options.getMinDelay(), percentile);
+    }
+
+    boolean isRetryOnFailure() {
+        return options.isRetryOnFailure();
+    }
+
+    RetryBudget budget() {
+        return budget;
+    }
+
+    void recordLatency(long latency) {
+        latencies.record(latency);
+    }
+
+    static boolean isIdempotent(HttpMethod method) {
+        switch (method) {
+            case GET:
+            case HEAD:
+            case OPTIONS:
+            case PUT:
+            case DELETE:
+            case TRACE:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
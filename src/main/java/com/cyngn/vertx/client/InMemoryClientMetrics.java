@@ -0,0 +1,111 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps {@link RequestMetrics} for a {@link ServiceClient} as a whole and for each of its named apis in memory.
+ */
+public class InMemoryClientMetrics implements ClientMetrics {
+
+    private static final String CLIENT = "client";
+
+    private final RequestMetrics client = new RequestMetrics(CLIENT);
+    private final ConcurrentHashMap<String, RequestMetrics> apis = new ConcurrentHashMap<>();
+
+    private RequestMetrics forApi(ApiDescriptor api) {
+        if (api == null) {
+            return null;
+        }
+        // looked up first, computeIfAbsent locks the bin even when the api is present
+        RequestMetrics metrics = apis.get(api.getName());
+        return metrics != null ? metrics : apis.computeIfAbsent(api.getName(), RequestMetrics::new);
+    }
+
+    @Override
+    public void requestStarted(ApiDescriptor api, boolean queued) {
+        client.started(queued);
+        RequestMetrics apiMetrics = forApi(api);
+        if (apiMetrics != null) {
+            apiMetrics.started(queued);
+        }
+    }
+
+    @Override
+    public void connected(ApiDescriptor api, long waitNanos) {
+        client.connected(waitNanos);
+        RequestMetrics apiMetrics = forApi(api);
+        if (apiMetrics != null) {
+            apiMetrics.connected(waitNanos);
+        }
+    }
+
+    @Override
+    public void responded(ApiDescriptor api, int statusCode, long latencyNanos) {
+        client.responded(statusCode, latencyNanos);
+        RequestMetrics apiMetrics = forApi(api);
+        if (apiMetrics != null) {
+            apiMetrics.responded(statusCode, latencyNanos);
+        }
+    }
+
+    @Override
+    public void failed(ApiDescriptor api, Throwable error, long latencyNanos) {
+        client.failed(error, latencyNanos);
+        RequestMetrics apiMetrics = forApi(api);
+        if (apiMetrics != null) {
+            apiMetrics.failed(error, latencyNanos);
+        }
+    }
+
+    @Override
+    public void cancelled(ApiDescriptor api) {
+        client.cancelled();
+        RequestMetrics apiMetrics = forApi(api);
+        if (apiMetrics != null) {
+            apiMetrics.cancelled();
+        }
+    }
+
+    /**
+     * Gets the metrics of all requests sent by the client
+     *
+     * @return - client metrics
+     */
+    public RequestMetrics getClientMetrics() {
+        return client;
+    }
+
+    /**
+     * Gets the metrics of requests to a named api
+     *
+     * @param apiName - api name
+     * @return - api metrics, null if the api wasn't called yet
+     */
+    public RequestMetrics getApiMetrics(String apiName) {
+        return apis.get(apiName);
+    }
+
+    /**
+     * Gets the metrics of every named api called so far
+     *
+     * @return - unmodifiable map of api name to metrics
+     */
+    public Map<String, RequestMetrics> getApiMetrics() {
+        return Collections.unmodifiableMap(apis);
+    }
+
+    /**
+     * Gets a snapshot of the client and api metrics, ie to serve them from an admin api
+     *
+     * @return - json object
+     */
+    public JsonObject toJson() {
+        JsonObject apiJson = new JsonObject();
+        apis.forEach((name, metrics) -> apiJson.put(name, metrics.toJson()));
+        return new JsonObject().put(CLIENT, client.toJson()).put("apis", apiJson);
+    }
+}
@@ -0,0 +1,116 @@
+package com.cyngn.vertx.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A log linear histogram of latencies in the style of HdrHistogram. Every power of two range is split into 32 linear
+ * buckets, so a recorded value is off by at most about 3%. Recording is lock free and doesn't allocate.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // about 12.7 days in micros, larger values are recorded as this
+    private static final long MAX_VALUE = (1L << 40) - 1;
+    private static final int BUCKETS = (40 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param micros - latency in microseconds
+     */
+    public void record(long micros) {
+        long value = Math.min(Math.max(micros, 0L), MAX_VALUE);
+        counts.incrementAndGet(index(value));
+        count.increment();
+        sum.add(value);
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        // the highest bit picks the power of two range, the next bits the linear bucket in it
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Gets the number of recorded latencies
+     *
+     * @return - count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the largest recorded latency
+     *
+     * @return - latency in microseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of the recorded latencies
+     *
+     * @return - latency in microseconds, 0 if nothing was recorded
+     */
+    public double getMean() {
+        long recorded = count.sum();
+        return recorded > 0L ? (double) sum.sum() / recorded : 0.0;
+    }
+
+    /**
+     * Gets the latency a percentage of the recorded latencies are at or below.
+     *
+     * @param percentile - percentile between 0 and 100, ie 99.9
+     * @return - latency in microseconds, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+
+        long target = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+}
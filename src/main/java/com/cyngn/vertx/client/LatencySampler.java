@@ -0,0 +1,59 @@
+package com.cyngn.vertx.client;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent latencies and estimates a percentile over them.
+ *
+ * The percentile is recomputed every {@link #REFRESH_INTERVAL} samples rather than on every read.
+ */
+class LatencySampler {
+
+    static final int SIZE = 1024;
+    static final int REFRESH_INTERVAL = 64;
+
+    private final double percentile;
+    private final long[] samples = new long[SIZE];
+    private final long[] sorted = new long[SIZE];
+    private int position;
+    private int count;
+    private int sinceRefresh;
+    private volatile long value = -1L;
+
+    /**
+     * @param percentile - the percentile to estimate, between 0 and 100.
+     */
+    LatencySampler(double percentile) {
+        this.percentile = percentile;
+    }
+
+    /**
+     * Records a latency
+     *
+     * @param latency - latency in milliseconds
+     */
+    synchronized void record(long latency) {
+        samples[position] = latency;
+        position = (position + 1) % SIZE;
+        if (count < SIZE) {
+            count++;
+        }
+
+        if (++sinceRefresh >= REFRESH_INTERVAL) {
+            sinceRefresh = 0;
+            System.arraycopy(samples, 0, sorted, 0, count);
+            Arrays.sort(sorted, 0, count);
+            int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+            value = sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+    }
+
+    /**
+     * Gets the latest percentile estimate
+     *
+     * @return latency in milliseconds, -1 until enough samples have been recorded.
+     */
+    long get() {
+        return value;
+    }
+}
@@ -0,0 +1,15 @@
+package com.cyngn.vertx.client;
+
+/**
+ * Passed to the exception handler of a {@link ServiceClient} call that was rejected by a full
+ * {@link ConcurrencyLimiter} without being sent.
+ */
+public class LimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LimitExceededException(String message) {
+        // rejections are expected under overload, skip the stack trace
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,101 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpClientResponse;
+
+/**
+ * Holds the api and client {@link ConcurrencyLimiter} slots for one {@link ServiceClient} call and hands them back with
+ * the call's round trip time once it is answered.
+ */
+class LimitedCall {
+
+    private final ConcurrencyLimiter apiLimiter;
+    private final ConcurrencyLimiter clientLimiter;
+    private long startTime;
+    private boolean released;
+
+    /**
+     * @param apiLimiter    - limiter of the named api called, may be null
+     * @param clientLimiter - limiter of the client, may be null
+     */
+    LimitedCall(ConcurrencyLimiter apiLimiter, ConcurrencyLimiter clientLimiter) {
+        this.apiLimiter = apiLimiter;
+        this.clientLimiter = clientLimiter;
+    }
+
+    /**
+     * Waits for a slot in both limiters and sends the call. The api slot is taken first so a busy api only queues
+     * behind itself and doesn't hold client slots while waiting.
+     *
+     * @param priority         - priority lane of the call in both limiters
+     * @param send             - sends the call
+     * @param exceptionHandler - gets the rejection if a limiter is full or the call is shed
+     */
+    void start(Priority priority, Runnable send, Handler<Throwable> exceptionHandler) {
+        acquire(apiLimiter, priority, () -> acquire(clientLimiter, priority, () -> {
+            startTime = System.nanoTime();
+            send.run();
+        }, error -> {
+            if (apiLimiter != null) {
+                apiLimiter.cancel();
+            }
+            reject(error, exceptionHandler);
+        }), error -> reject(error, exceptionHandler));
+    }
+
+    private static void acquire(ConcurrencyLimiter limiter, Priority priority, Runnable onPermit,
+                                Handler<Throwable> onRejected) {
+        if (limiter == null) {
+            onPermit.run();
+        } else {
+            limiter.acquire(priority, onPermit, onRejected);
+        }
+    }
+
+    private static void reject(Throwable error, Handler<Throwable> exceptionHandler) {
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(error);
+        }
+    }
+
+    Handler<HttpClientResponse> responseHandler(Handler<HttpClientResponse> responseHandler) {
+        return response -> {
+            release(response.statusCode() >= 500, false);
+            responseHandler.handle(response);
+        };
+    }
+
+    Handler<Throwable> exceptionHandler(Handler<Throwable> exceptionHandler) {
+        return error -> {
+            // a call rejected by a circuit breaker or its deadline never reached the service, it says nothing about its
+            // latency
+            release(true, error instanceof CircuitOpenException || error instanceof DeadlineExceededException);
+            if (exceptionHandler != null) {
+                exceptionHandler.handle(error);
+            }
+        };
+    }
+
+    private void release(boolean dropped, boolean unanswered) {
+        // the exception handler can still fire after the response while the body is read
+        if (released) {
+            return;
+        }
+        released = true;
+
+        long rtt = System.nanoTime() - startTime;
+        release(apiLimiter, rtt, dropped, unanswered);
+        release(clientLimiter, rtt, dropped, unanswered);
+    }
+
+    private static void release(ConcurrencyLimiter limiter, long rtt, boolean dropped, boolean unanswered) {
+        if (limiter == null) {
+            return;
+        }
+        if (unanswered) {
+            limiter.cancel();
+        } else {
+            limiter.release(rtt, dropped);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.cyngn.vertx.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strategies for picking the {@link Endpoint} a request is sent to.
+ */
+public enum LoadBalancer {
+
+    /**
+     * Picks the endpoint with the fewest outstanding requests, ties are broken round robin.
+     */
+    LEAST_OUTSTANDING {
+        private final AtomicInteger next = new AtomicInteger();
+
+        @Override
+        Endpoint select(Endpoint[] endpoints) {
+            int count = endpoints.length;
+            // rotate the starting point so equally loaded endpoints share the traffic
+            int start = (next.getAndIncrement() & Integer.MAX_VALUE) % count;
+            Endpoint best = endpoints[start];
+            int bestInFlight = best.getInFlight();
+
+            for (int i = 1; i < count && bestInFlight > 0; i++) {
+                Endpoint candidate = endpoints[(start + i) % count];
+                int inFlight = candidate.getInFlight();
+                if (inFlight < bestInFlight) {
+                    best = candidate;
+                    bestInFlight = inFlight;
+                }
+            }
+            return best;
+        }
+    },
+
+    /**
+     * Picks two endpoints at random and uses the one with fewer outstanding requests.
+     */
+    POWER_OF_TWO_CHOICES {
+        @Override
+        Endpoint select(Endpoint[] endpoints) {
+            int count = endpoints.length;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(count);
+            // pick a second endpoint distinct from the first
+            int second = (first + 1 + random.nextInt(count - 1)) % count;
+            return endpoints[first].getInFlight() <= endpoints[second].getInFlight()
+                    ? endpoints[first] : endpoints[second];
+        }
+    };
+
+    /**
+     * Picks an endpoint for the next request.
+     *
+     * @param endpoints - the available endpoints, holds at least two entries.
+     * @return the endpoint to send the request to
+     */
+    abstract Endpoint select(Endpoint[] endpoints);
+
+    /**
+     * Looks up a load balancer by its configuration name, ie "least_outstanding" or "power_of_two_choices".
+     *
+     * @param name - configuration name, case insensitive
+     * @return the matching load balancer
+     */
+    public static LoadBalancer fromConfig(String name) {
+        try {
+            return valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown load balancer: " + name);
+        }
+    }
+}
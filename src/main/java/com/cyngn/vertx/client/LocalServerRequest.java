@@ -0,0 +1,307 @@
+package com.cyngn.vertx.client;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.core.http.HttpFrame;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerFileUpload;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.net.NetSocket;
+import io.vertx.core.net.SocketAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.security.cert.X509Certificate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link ServiceClient} call handed to a handler in the same JVM by the {@link LocalTransport}, presented as if it
+ * came off the network. The body is already complete and is replayed to the handler once it returns.
+ */
+class LocalServerRequest implements HttpServerRequest {
+
+    private final static Logger logger = LoggerFactory.getLogger(LocalServerRequest.class);
+
+    private static final SocketAddress LOCAL_ADDRESS = new SocketAddress() {
+        @Override
+        public String host() {
+            return "127.0.0.1";
+        }
+
+        @Override
+        public int port() {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return "local";
+        }
+    };
+
+    private final HttpMethod method;
+    private final String uri;
+    private final MultiMap headers;
+    private final Buffer body;
+
+    private String host;
+    private LocalServerResponse response;
+    private Context context;
+    private MultiMap params;
+    private Handler<Buffer> dataHandler;
+    private Handler<Void> endHandler;
+    private boolean paused;
+    private boolean ended;
+    private boolean expectMultipart;
+
+    /**
+     * @param method  - HTTP method for the request
+     * @param uri     - the absolute URI path with the query
+     * @param headers - request headers
+     * @param body    - the complete request body
+     */
+    LocalServerRequest(HttpMethod method, String uri, MultiMap headers, Buffer body) {
+        this.method = method;
+        this.uri = uri;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * Hands the request to the handler, called on the handler's context.
+     *
+     * @param vertx   - the vertx instance
+     * @param address - the address the handler is registered at
+     * @param message - the message the request came in, replied to with the response
+     * @param handler - the request handler
+     */
+    void accept(Vertx vertx, String address, Message<Object> message, Handler<HttpServerRequest> handler) {
+        this.host = address;
+        this.context = vertx.getOrCreateContext();
+        this.response = new LocalServerResponse(vertx, message);
+        try {
+            handler.handle(this);
+        } catch (Exception ex) {
+            // fail the call instead of leaving it to time out
+            logger.error("Local handler at " + address + " failed on " + method + " " + uri, ex);
+            response.handlerFailed();
+            return;
+        }
+        replay();
+    }
+
+    private void replay() {
+        if (paused || ended) {
+            return;
+        }
+        ended = true;
+
+        if (dataHandler != null && body.length() > 0) {
+            dataHandler.handle(body);
+        }
+        if (endHandler != null) {
+            endHandler.handle(null);
+        }
+    }
+
+    @Override
+    public HttpServerRequest exceptionHandler(Handler<Throwable> handler) {
+        // the body has been received, nothing can fail anymore
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest handler(Handler<Buffer> handler) {
+        dataHandler = handler;
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest pause() {
+        paused = true;
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest resume() {
+        if (paused) {
+            paused = false;
+            if (context != null) {
+                context.runOnContext(v -> replay());
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public HttpServerRequest endHandler(Handler<Void> handler) {
+        endHandler = handler;
+        return this;
+    }
+
+    @Override
+    public HttpVersion version() {
+        return HttpVersion.HTTP_1_1;
+    }
+
+    @Override
+    public HttpMethod method() {
+        return method;
+    }
+
+    @Override
+    public String rawMethod() {
+        return method.name();
+    }
+
+    @Override
+    public boolean isSSL() {
+        return false;
+    }
+
+    @Override
+    public String scheme() {
+        return "http";
+    }
+
+    @Override
+    public String uri() {
+        return uri;
+    }
+
+    @Override
+    public String path() {
+        int query = uri.indexOf('?');
+        return query < 0 ? uri : uri.substring(0, query);
+    }
+
+    @Override
+    public String query() {
+        int query = uri.indexOf('?');
+        return query < 0 ? null : uri.substring(query + 1);
+    }
+
+    @Override
+    public String host() {
+        String hostHeader = headers.get("Host");
+        return hostHeader != null ? hostHeader : host;
+    }
+
+    @Override
+    public HttpServerResponse response() {
+        return response;
+    }
+
+    @Override
+    public MultiMap headers() {
+        return headers;
+    }
+
+    @Override
+    public String getHeader(String headerName) {
+        return headers.get(headerName);
+    }
+
+    @Override
+    public String getHeader(CharSequence headerName) {
+        return headers.get(headerName);
+    }
+
+    @Override
+    public MultiMap params() {
+        if (params == null) {
+            params = MultiMap.caseInsensitiveMultiMap();
+            for (Map.Entry<String, List<String>> param : new QueryStringDecoder(uri).parameters().entrySet()) {
+                params.add(param.getKey(), param.getValue());
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public String getParam(String paramName) {
+        return params().get(paramName);
+    }
+
+    @Override
+    public SocketAddress remoteAddress() {
+        return LOCAL_ADDRESS;
+    }
+
+    @Override
+    public SocketAddress localAddress() {
+        return LOCAL_ADDRESS;
+    }
+
+    @Override
+    public X509Certificate[] peerCertificateChain() {
+        return null;
+    }
+
+    @Override
+    public String absoluteURI() {
+        return "http://" + host() + uri;
+    }
+
+    @Override
+    public NetSocket netSocket() {
+        throw new UnsupportedOperationException("a local request has no socket");
+    }
+
+    @Override
+    public HttpServerRequest setExpectMultipart(boolean expect) {
+        expectMultipart = expect;
+        return this;
+    }
+
+    @Override
+    public boolean isExpectMultipart() {
+        return expectMultipart;
+    }
+
+    @Override
+    public HttpServerRequest uploadHandler(Handler<HttpServerFileUpload> handler) {
+        // bodies are passed as they are, forms are not decoded
+        return this;
+    }
+
+    @Override
+    public MultiMap formAttributes() {
+        return MultiMap.caseInsensitiveMultiMap();
+    }
+
+    @Override
+    public String getFormAttribute(String attributeName) {
+        return null;
+    }
+
+    @Override
+    public ServerWebSocket upgrade() {
+        throw new UnsupportedOperationException("a local request can't be upgraded");
+    }
+
+    @Override
+    public boolean isEnded() {
+        return ended;
+    }
+
+    @Override
+    public HttpServerRequest customFrameHandler(Handler<HttpFrame> handler) {
+        return this;
+    }
+
+    @Override
+    public HttpConnection connection() {
+        return null;
+    }
+}
@@ -0,0 +1,364 @@
+package com.cyngn.vertx.client;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+
+import java.util.Collections;
+
+/**
+ * The response to a {@link LocalServerRequest}. The body is collected in memory and sent back to the calling
+ * {@link ServiceClient} as a {@link BufferedClientResponse} when the response ends.
+ */
+class LocalServerResponse implements HttpServerResponse {
+
+    private static final int RESET_FAILURE = 500;
+
+    private final Vertx vertx;
+    private final Message<Object> message;
+    private final MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+    private final MultiMap trailers = MultiMap.caseInsensitiveMultiMap();
+
+    private int statusCode = HttpResponseStatus.OK.code();
+    private String statusMessage;
+    private Buffer body;
+    private boolean chunked;
+    private boolean headWritten;
+    private boolean ended;
+    private Handler<Void> headersEndHandler;
+    private Handler<Void> bodyEndHandler;
+
+    /**
+     * @param vertx   - the vertx instance
+     * @param message - the message the request came in
+     */
+    LocalServerResponse(Vertx vertx, Message<Object> message) {
+        this.vertx = vertx;
+        this.message = message;
+    }
+
+    private void checkWritable() {
+        if (ended) {
+            throw new IllegalStateException("Response has already been written");
+        }
+    }
+
+    private void writeHead() {
+        if (!headWritten) {
+            if (headersEndHandler != null) {
+                headersEndHandler.handle(null);
+            }
+            headWritten = true;
+        }
+    }
+
+    @Override
+    public HttpServerResponse write(Buffer data) {
+        checkWritable();
+        writeHead();
+        if (body == null) {
+            body = Buffer.buffer(data.length());
+        }
+        body.appendBuffer(data);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse write(String chunk, String enc) {
+        return write(Buffer.buffer(chunk, enc));
+    }
+
+    @Override
+    public HttpServerResponse write(String chunk) {
+        return write(Buffer.buffer(chunk));
+    }
+
+    @Override
+    public void end(String chunk) {
+        end(Buffer.buffer(chunk));
+    }
+
+    @Override
+    public void end(String chunk, String enc) {
+        end(Buffer.buffer(chunk, enc));
+    }
+
+    @Override
+    public void end(Buffer chunk) {
+        checkWritable();
+        writeHead();
+        if (body == null) {
+            // the handler is done with the buffer, pass it on as it is
+            body = chunk;
+        } else {
+            body.appendBuffer(chunk);
+        }
+        end();
+    }
+
+    @Override
+    public void end() {
+        checkWritable();
+        writeHead();
+        ended = true;
+
+        Buffer content = body != null ? body : Buffer.buffer();
+        headers.set(HttpHeaders.CONTENT_LENGTH, Integer.toString(content.length()));
+        message.reply(new BufferedClientResponse(HttpVersion.HTTP_1_1, statusCode, getStatusMessage(), headers,
+                trailers, headers.getAll(HttpHeaders.SET_COOKIE), content), LocalTransport.DELIVERY_OPTIONS);
+
+        if (bodyEndHandler != null) {
+            bodyEndHandler.handle(null);
+        }
+    }
+
+    /**
+     * Answers with a 500 after the request handler threw, unless it already sent its response.
+     */
+    void handlerFailed() {
+        if (!ended) {
+            ended = true;
+            MultiMap failureHeaders = MultiMap.caseInsensitiveMultiMap().set(HttpHeaders.CONTENT_LENGTH, "0");
+            HttpResponseStatus status = HttpResponseStatus.INTERNAL_SERVER_ERROR;
+            message.reply(new BufferedClientResponse(HttpVersion.HTTP_1_1, status.code(), status.reasonPhrase(),
+                    failureHeaders, MultiMap.caseInsensitiveMultiMap(), Collections.emptyList(), Buffer.buffer()),
+                    LocalTransport.DELIVERY_OPTIONS);
+        }
+    }
+
+    @Override
+    public HttpServerResponse exceptionHandler(Handler<Throwable> handler) {
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse setWriteQueueMaxSize(int maxSize) {
+        return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+        return false;
+    }
+
+    @Override
+    public HttpServerResponse drainHandler(Handler<Void> handler) {
+        return this;
+    }
+
+    @Override
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    @Override
+    public HttpServerResponse setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+        return this;
+    }
+
+    @Override
+    public String getStatusMessage() {
+        return statusMessage != null ? statusMessage : HttpResponseStatus.valueOf(statusCode).reasonPhrase();
+    }
+
+    @Override
+    public HttpServerResponse setStatusMessage(String statusMessage) {
+        this.statusMessage = statusMessage;
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse setChunked(boolean chunked) {
+        this.chunked = chunked;
+        return this;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return chunked;
+    }
+
+    @Override
+    public MultiMap headers() {
+        return headers;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(String name, String value) {
+        headers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(CharSequence name, CharSequence value) {
+        headers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(String name, Iterable<String> values) {
+        headers.set(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putHeader(CharSequence name, Iterable<CharSequence> values) {
+        headers.set(name, values);
+        return this;
+    }
+
+    @Override
+    public MultiMap trailers() {
+        return trailers;
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(String name, String value) {
+        trailers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(CharSequence name, CharSequence value) {
+        trailers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(String name, Iterable<String> values) {
+        trailers.set(name, values);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse putTrailer(CharSequence name, Iterable<CharSequence> value) {
+        trailers.set(name, value);
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse closeHandler(Handler<Void> handler) {
+        // there is no connection to close
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse writeContinue() {
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse sendFile(String filename, long offset, long length) {
+        return sendFile(filename, offset, length, null);
+    }
+
+    @Override
+    public HttpServerResponse sendFile(String filename, long offset, long length,
+                                       Handler<AsyncResult<Void>> resultHandler) {
+        checkWritable();
+        vertx.fileSystem().readFile(filename, result -> {
+            if (result.failed()) {
+                setStatusCode(HttpResponseStatus.NOT_FOUND.code()).end();
+            } else {
+                Buffer file = result.result();
+                int start = (int) Math.min(offset, file.length());
+                int end = (int) Math.min((long) file.length(), start + Math.min(length, Integer.MAX_VALUE));
+                end(file.slice(start, end));
+            }
+            if (resultHandler != null) {
+                resultHandler.handle(result.succeeded()
+                        ? Future.succeededFuture() : Future.failedFuture(result.cause()));
+            }
+        });
+        return this;
+    }
+
+    @Override
+    public void close() {
+        reset(0L);
+    }
+
+    @Override
+    public boolean ended() {
+        return ended;
+    }
+
+    @Override
+    public boolean closed() {
+        return false;
+    }
+
+    @Override
+    public boolean headWritten() {
+        return headWritten;
+    }
+
+    @Override
+    public HttpServerResponse headersEndHandler(Handler<Void> handler) {
+        headersEndHandler = handler;
+        return this;
+    }
+
+    @Override
+    public HttpServerResponse bodyEndHandler(Handler<Void> handler) {
+        bodyEndHandler = handler;
+        return this;
+    }
+
+    @Override
+    public long bytesWritten() {
+        return body != null ? body.length() : 0L;
+    }
+
+    @Override
+    public int streamId() {
+        return -1;
+    }
+
+    @Override
+    public HttpServerResponse push(HttpMethod method, String host, String path,
+                                   Handler<AsyncResult<HttpServerResponse>> handler) {
+        return push(method, host, path, null, handler);
+    }
+
+    @Override
+    public HttpServerResponse push(HttpMethod method, String path, MultiMap headers,
+                                   Handler<AsyncResult<HttpServerResponse>> handler) {
+        return push(method, null, path, headers, handler);
+    }
+
+    @Override
+    public HttpServerResponse push(HttpMethod method, String path, Handler<AsyncResult<HttpServerResponse>> handler) {
+        return push(method, null, path, null, handler);
+    }
+
+    @Override
+    public HttpServerResponse push(HttpMethod method, String host, String path, MultiMap headers,
+                                   Handler<AsyncResult<HttpServerResponse>> handler) {
+        handler.handle(Future.failedFuture(new UnsupportedOperationException("a local response can't push")));
+        return this;
+    }
+
+    @Override
+    public void reset(long code) {
+        if (!ended) {
+            ended = true;
+            message.fail(RESET_FAILURE, "response reset with code " + code);
+        }
+    }
+
+    @Override
+    public HttpServerResponse writeCustomFrame(int type, int flags, Buffer payload) {
+        return this;
+    }
+}
@@ -0,0 +1,206 @@
+package com.cyngn.vertx.client;
+
+import com.cyngn.vertx.web.RestApi;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.ext.web.Router;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lets a {@link ServiceClient} call a service deployed in the same vert.x instance without going through HTTP. The
+ * service registers its {@link Router} or {@link RestApi} at an address, clients built with
+ * {@link ServiceClient.Builder#withLocalAddress(String)} then hand their calls straight to it over the local event bus.
+ * Requests and responses are passed as they are, nothing is encoded or copied onto a socket, and the handlers see the
+ * same request and response contract as over HTTP. A handler that throws answers with a 500.
+ *
+ * Local calls are held to the client's timeouts and max response bytes, but skip its endpoint and api circuit
+ * breakers, hedging and request compression as there is no remote service to protect or network to save.
+ */
+public final class LocalTransport {
+
+    static final String CODEC_NAME = "cyngn.local-transport";
+    static final DeliveryOptions DELIVERY_OPTIONS = new DeliveryOptions().setCodecName(CODEC_NAME);
+    private static final String REGISTRY = "cyngn.local-transport.addresses";
+    // the event bus needs a send timeout, calls without a timeout get one long enough to never fire
+    private static final long NO_TIMEOUT = Integer.MAX_VALUE;
+
+    private final Vertx vertx;
+    private final String address;
+    private final MessageConsumer<Object> consumer;
+
+    private LocalTransport(Vertx vertx, String address, MessageConsumer<Object> consumer) {
+        this.vertx = vertx;
+        this.address = address;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Registers a request handler to take local calls sent to an address. Calls run on the context of the caller of
+     * this method, register from the service's verticle.
+     *
+     * @param vertx   - the vertx instance
+     * @param address - address clients call, see {@link ServiceClient.Builder#withLocalAddress(String)}
+     * @param handler - the request handler
+     * @return the registration
+     */
+    public static LocalTransport register(Vertx vertx, String address, Handler<HttpServerRequest> handler) {
+        registerCodec(vertx);
+        MessageConsumer<Object> consumer = vertx.eventBus().localConsumer(address, message ->
+                ((LocalServerRequest) message.body()).accept(vertx, address, message, handler));
+        addRegistration(vertx, address, 1);
+        return new LocalTransport(vertx, address, consumer);
+    }
+
+    /**
+     * Registers a router to take local calls sent to an address.
+     *
+     * @param vertx   - the vertx instance
+     * @param address - address clients call
+     * @param router  - the router
+     * @return the registration
+     */
+    public static LocalTransport register(Vertx vertx, String address, Router router) {
+        return register(vertx, address, router::accept);
+    }
+
+    /**
+     * Registers the apis of a {@link RestApi} to take local calls sent to an address.
+     *
+     * @param vertx   - the vertx instance
+     * @param address - address clients call
+     * @param api     - the rest api
+     * @return the registration
+     */
+    public static LocalTransport register(Vertx vertx, String address, RestApi api) {
+        Router router = Router.router(vertx);
+        api.init(router);
+        return register(vertx, address, router);
+    }
+
+    /**
+     * Stops taking local calls, clients go back to calling the service over HTTP.
+     */
+    public void unregister() {
+        addRegistration(vertx, address, -1);
+        consumer.unregister();
+    }
+
+    /**
+     * Checks if a handler takes local calls at an address.
+     *
+     * @param vertx   - the vertx instance
+     * @param address - the address
+     * @return true if a handler is registered at the address in this vertx instance
+     */
+    public static boolean isRegistered(Vertx vertx, String address) {
+        return registry(vertx).get(address) != null;
+    }
+
+    /**
+     * Sends a call to the handler registered at an address.
+     *
+     * @param vertx            - the vertx instance
+     * @param address          - the address
+     * @param request          - the call
+     * @param timeout          - timeout in millis, 0 means no timeout
+     * @param maxResponseBytes - the largest response body accepted, larger ones fail with a
+     *                           {@link ResponseTooLargeException}
+     * @param responseHandler  - response handler, called on the caller's context
+     * @param exceptionHandler - exception handler
+     */
+    static void send(Vertx vertx, String address, LocalServerRequest request, long timeout, long maxResponseBytes,
+                     Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler) {
+        DeliveryOptions options = new DeliveryOptions().setCodecName(CODEC_NAME)
+                .setSendTimeout(timeout > 0L ? timeout : NO_TIMEOUT);
+        vertx.eventBus().send(address, request, options, reply -> {
+            BufferedClientResponse response = reply.succeeded() ? (BufferedClientResponse) reply.result().body() : null;
+            if (response != null && response.bodyLength() <= maxResponseBytes) {
+                response.deliver(vertx.getOrCreateContext(), responseHandler);
+            } else if (response != null) {
+                if (exceptionHandler != null) {
+                    exceptionHandler.handle(new ResponseTooLargeException(maxResponseBytes));
+                }
+            } else if (exceptionHandler != null) {
+                Throwable error = reply.cause();
+                if (error instanceof ReplyException
+                        && ((ReplyException) error).failureType() == ReplyFailure.TIMEOUT) {
+                    // fail like a call over HTTP does
+                    error = new TimeoutException("The timeout period of " + timeout + "ms has been exceeded");
+                }
+                exceptionHandler.handle(error);
+            }
+        });
+    }
+
+    private static LocalMap<String, Integer> registry(Vertx vertx) {
+        return vertx.sharedData().getLocalMap(REGISTRY);
+    }
+
+    private static void addRegistration(Vertx vertx, String address, int delta) {
+        LocalMap<String, Integer> registry = registry(vertx);
+        while (true) {
+            Integer count = registry.get(address);
+            int updated = (count != null ? count : 0) + delta;
+            boolean swapped;
+            if (count == null) {
+                swapped = updated <= 0 || registry.putIfAbsent(address, updated) == null;
+            } else if (updated <= 0) {
+                swapped = registry.removeIfPresent(address, count);
+            } else {
+                swapped = registry.replaceIfPresent(address, count, updated);
+            }
+            if (swapped) {
+                return;
+            }
+        }
+    }
+
+    private static synchronized void registerCodec(Vertx vertx) {
+        try {
+            vertx.eventBus().registerCodec(new PassThroughCodec());
+        } catch (IllegalStateException ex) {
+            // already registered with this vertx instance
+        }
+    }
+
+    /**
+     * Hands objects over the local event bus as they are, local calls never leave the JVM.
+     */
+    private static class PassThroughCodec implements MessageCodec<Object, Object> {
+
+        @Override
+        public void encodeToWire(Buffer buffer, Object value) {
+            throw new UnsupportedOperationException("local calls can't be sent over the network");
+        }
+
+        @Override
+        public Object decodeFromWire(int pos, Buffer buffer) {
+            throw new UnsupportedOperationException("local calls can't be sent over the network");
+        }
+
+        @Override
+        public Object transform(Object value) {
+            return value;
+        }
+
+        @Override
+        public String name() {
+            return CODEC_NAME;
+        }
+
+        @Override
+        public byte systemCodecID() {
+            return -1;
+        }
+    }
+}
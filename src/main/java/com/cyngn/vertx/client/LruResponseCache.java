@@ -0,0 +1,127 @@
+package com.cyngn.vertx.client;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link ResponseCache} bounded by the number of bytes it holds, the least recently used responses are evicted first.
+ */
+public class LruResponseCache implements ResponseCache {
+
+    private final long maxBytes;
+    // access ordered so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long staleHits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxBytes - the most bytes the cached responses may hold
+     */
+    public LruResponseCache(long maxBytes) {
+        if (maxBytes < 1L) {
+            throw new IllegalArgumentException("Invalid cache size: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public synchronized CachedResponse get(String key) {
+        CachedResponse response = entries.get(key);
+        if (response == null) {
+            misses++;
+        } else if (response.isFresh(System.currentTimeMillis())) {
+            hits++;
+        } else {
+            staleHits++;
+        }
+        return response;
+    }
+
+    @Override
+    public synchronized void put(String key, CachedResponse response) {
+        // a response that can never fit would just flush the cache
+        if (response.size() > maxBytes) {
+            remove(key);
+            return;
+        }
+
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            bytes -= previous.size();
+        }
+        bytes += response.size();
+
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().size();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.size();
+        }
+    }
+
+    /**
+     * Gets the number of lookups that found a fresh response.
+     *
+     * @return - hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that found a stale response that needs revalidating.
+     *
+     * @return - stale hit count
+     */
+    public synchronized long getStaleHits() {
+        return staleHits;
+    }
+
+    /**
+     * Gets the number of lookups that found no response.
+     *
+     * @return - miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of responses evicted to stay within the memory bound.
+     *
+     * @return - eviction count
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the approximate number of bytes held by the cached responses.
+     *
+     * @return - size in bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of cached responses.
+     *
+     * @return - entry count
+     */
+    public synchronized int getCount() {
+        return entries.size();
+    }
+}
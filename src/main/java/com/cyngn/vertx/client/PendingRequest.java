@@ -0,0 +1,161 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+
+/**
+ * Tracks a single request sent by a {@link ServiceClient} until it gets a response or fails.
+ *
+ * The caller's handlers are invoked at most once for the response, the exception handler can still be called after a
+ * response if the connection fails while the body is read.
+ */
+class PendingRequest {
+
+    private final Endpoint endpoint;
+    private final long endpointPermit;
+    private final ApiDescriptor api;
+    private final CircuitBreaker apiBreaker;
+    private final long apiPermit;
+    private final ClientMetrics metrics;
+    private final Handler<HttpClientResponse> responseHandler;
+    private final Handler<Throwable> exceptionHandler;
+    private final long startTime;
+    private HttpClientRequest request;
+    private boolean finished;
+    private boolean cancelled;
+
+    /**
+     * @param endpoint         - the endpoint the request is sent to
+     * @param endpointPermit   - the permit of the endpoint's circuit breaker
+     * @param api              - the named api called, may be null
+     * @param apiPermit        - the permit of the api's circuit breaker
+     * @param metrics          - telemetry of the client, may be null
+     * @param responseHandler  - the caller's response handler
+     * @param exceptionHandler - the caller's exception handler, may be null
+     */
+    PendingRequest(Endpoint endpoint, long endpointPermit, ApiDescriptor api, long apiPermit, ClientMetrics metrics,
+                   Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler) {
+        this.endpoint = endpoint;
+        this.endpointPermit = endpointPermit;
+        this.api = api;
+        this.apiBreaker = api != null ? api.getCircuitBreaker() : null;
+        this.apiPermit = apiPermit;
+        this.metrics = metrics;
+        this.responseHandler = responseHandler;
+        this.exceptionHandler = exceptionHandler;
+        this.startTime = System.nanoTime();
+        endpoint.requestStarted();
+        if (metrics != null) {
+            metrics.requestStarted(api, endpoint.getInFlight() > endpoint.getCapacity());
+        }
+    }
+
+    void setRequest(HttpClientRequest request) {
+        this.request = request;
+        if (metrics != null) {
+            // only called when the request opens a new connection, not for pooled ones
+            request.connectionHandler(connection -> metrics.connected(api, System.nanoTime() - startTime));
+        }
+    }
+
+    void handleResponse(HttpClientResponse response) {
+        if (cancelled) {
+            return;
+        }
+        if (metrics != null && !finished) {
+            metrics.responded(api, response.statusCode(), System.nanoTime() - startTime);
+        }
+        finish(response.statusCode() >= 500);
+        responseHandler.handle(response);
+    }
+
+    void handleException(Throwable error) {
+        if (cancelled) {
+            return;
+        }
+        if (metrics != null && !finished) {
+            metrics.failed(api, error, System.nanoTime() - startTime);
+        }
+        finish(true);
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(error);
+        }
+    }
+
+    /**
+     * Abandons the request because sending it failed on the client side, ie reading a streamed body failed. The
+     * failure is passed to the caller but doesn't count towards the circuit breakers.
+     *
+     * @param error - the failure
+     */
+    void abort(Throwable error) {
+        if (finished) {
+            return;
+        }
+        cancel();
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(error);
+        }
+    }
+
+    /**
+     * Checks if the request was abandoned.
+     *
+     * @return true if cancelled or aborted
+     */
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Abandons the request, a cancelled request doesn't count towards the circuit breakers and its handlers are no
+     * longer called.
+     */
+    void cancel() {
+        if (finished) {
+            return;
+        }
+        finished = cancelled = true;
+        endpoint.requestFinished();
+        if (metrics != null) {
+            metrics.cancelled(api);
+        }
+
+        if (endpoint.getCircuitBreaker() != null) {
+            endpoint.getCircuitBreaker().cancel(endpointPermit);
+        }
+        if (apiBreaker != null) {
+            apiBreaker.cancel(apiPermit);
+        }
+        if (request != null) {
+            try {
+                request.reset();
+            } catch (UnsupportedOperationException ex) {
+                // HTTP/1.x requests can't be reset, the only way to stop one is to close its connection
+                request.connection().close();
+            } catch (IllegalStateException ex) {
+                // still waiting for a pooled connection, the request is dropped as its handlers are ignored
+            }
+        }
+    }
+
+    private void finish(boolean failed) {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        endpoint.requestFinished();
+
+        CircuitBreaker endpointBreaker = endpoint.getCircuitBreaker();
+        if (endpointBreaker != null || apiBreaker != null) {
+            long latency = System.nanoTime() - startTime;
+            if (endpointBreaker != null) {
+                endpointBreaker.recordResult(endpointPermit, failed, latency);
+            }
+            if (apiBreaker != null) {
+                apiBreaker.recordResult(apiPermit, failed, latency);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.cyngn.vertx.client;
+
+/**
+ * Priority lane of a {@link ServiceClient} call. When calls queue in front of a {@link ConcurrencyLimiter}, lanes are
+ * served by weight so higher priorities get more of the freed slots without starving the lower ones, and when the queue
+ * is full the lowest priority calls are shed first.
+ */
+public enum Priority {
+    /**
+     * User facing calls
+     */
+    HIGH(8),
+    /**
+     * The default for calls without a priority
+     */
+    NORMAL(4),
+    /**
+     * Background and batch calls
+     */
+    LOW(1);
+
+    private final int weight;
+
+    Priority(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Gets the share of freed slots the lane gets while all lanes have calls waiting
+     *
+     * @return - relative weight
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * Parses the priority from its configuration name, ie "low".
+     *
+     * @param name - configuration name
+     * @return the priority
+     */
+    public static Priority fromConfig(String name) {
+        for (Priority priority : values()) {
+            if (priority.name().equalsIgnoreCase(name)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown priority: " + name);
+    }
+}
@@ -0,0 +1,72 @@
+package com.cyngn.vertx.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts events and their rate over the last minute as an exponentially weighted moving average, updated every five
+ * seconds. Marking an event is lock free and doesn't allocate.
+ */
+public class RateMeter {
+
+    private static final long TICK_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+    private static final double TICK_SECONDS = 5.0;
+    private static final double ALPHA = 1.0 - Math.exp(-TICK_SECONDS / 60.0);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder uncounted = new LongAdder();
+    private final AtomicLong lastTick = new AtomicLong(System.nanoTime());
+    private volatile double rate;
+    private volatile boolean initialized;
+
+    /**
+     * Records an event.
+     */
+    public void mark() {
+        tickIfNecessary();
+        count.increment();
+        uncounted.increment();
+    }
+
+    private void tickIfNecessary() {
+        long previous = lastTick.get();
+        long now = System.nanoTime();
+        long ticks = (now - previous) / TICK_INTERVAL;
+        // only the thread that moves the tick folds the events in
+        if (ticks > 0L && lastTick.compareAndSet(previous, previous + ticks * TICK_INTERVAL)) {
+            for (long i = 0; i < ticks; i++) {
+                tick();
+            }
+        }
+    }
+
+    private void tick() {
+        double instantRate = uncounted.sumThenReset() / TICK_SECONDS;
+        if (initialized) {
+            rate += ALPHA * (instantRate - rate);
+        } else {
+            rate = instantRate;
+            initialized = true;
+        }
+    }
+
+    /**
+     * Gets the number of events
+     *
+     * @return - count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the rate of events over the last minute
+     *
+     * @return - events per second
+     */
+    public double getRate() {
+        tickIfNecessary();
+        return rate;
+    }
+}
@@ -0,0 +1,246 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Shares one upstream request between identical calls that are in flight at the same time.
+ *
+ * Calls are identical when they have the same method, api, path and values for the key headers. The first call sends
+ * the request and reads the body, every call then gets its own copy of the response on its own context. The shared
+ * request is sent with the first call's timeout and deadline, every call that joins it is still failed with a
+ * {@link TimeoutException} once its own timeout or deadline passes.
+ */
+class RequestCoalescer {
+
+    private static final long NO_TIMER = -1L;
+
+    private final Vertx vertx;
+    private final String[] keyHeaders;
+    private final long maxResponseBytes;
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * @param vertx            - vertx instance, used when a call is made off a vertx context
+     * @param keyHeaders       - request headers whose values must match for calls to be shared
+     * @param maxResponseBytes - the largest shared body read, larger ones fail every call with a
+     *                           {@link ResponseTooLargeException}
+     */
+    RequestCoalescer(Vertx vertx, String[] keyHeaders, long maxResponseBytes) {
+        this.vertx = vertx;
+        this.keyHeaders = keyHeaders;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    /**
+     * Checks if a call can share a request, only bodiless GET and HEAD calls are shared.
+     *
+     * @param spec - the call
+     * @return true if the call can be coalesced
+     */
+    boolean canCoalesce(RequestSpec spec) {
+        return (spec.method == HttpMethod.GET || spec.method == HttpMethod.HEAD) && spec.hasEmptyBody();
+    }
+
+    /**
+     * Joins an identical call in flight or sends the request if there is none.
+     *
+     * @param spec             - the call
+     * @param sender           - sends the request for the first call
+     * @param responseHandler  - response handler
+     * @param exceptionHandler - exception handler
+     */
+    void call(RequestSpec spec, RequestSender sender, Handler<HttpClientResponse> responseHandler,
+              Handler<Throwable> exceptionHandler) {
+        Context context = Vertx.currentContext();
+        if (context == null) {
+            context = vertx.getOrCreateContext();
+        }
+
+        String key = key(spec);
+        while (true) {
+            Flight flight = new Flight(key);
+            Flight existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                flight.join(spec, context, responseHandler, exceptionHandler);
+                sender.send(spec, flight::handleResponse, flight::fail);
+                return;
+            }
+            // the flight can finish between the lookup and the join, in that case start a new one
+            if (existing.join(spec, context, responseHandler, exceptionHandler)) {
+                return;
+            }
+        }
+    }
+
+    private String key(RequestSpec spec) {
+        StringBuilder key = new StringBuilder(spec.method.name()).append(' ');
+        if (spec.api != null) {
+            key.append(spec.api.getName());
+        }
+        key.append(' ').append(spec.path);
+
+        for (String header : keyHeaders) {
+            String value = spec.headers != null ? spec.headers.get(header) : null;
+            if (value == null && spec.api != null) {
+                value = spec.api.getHeaders().get(header);
+            }
+            key.append('\n').append(header).append('=').append(value);
+        }
+        return key.toString();
+    }
+
+    /**
+     * The calls waiting on one shared request.
+     */
+    private class Flight {
+        private final String key;
+        private final List<Joiner> joiners = new ArrayList<>();
+        private boolean finished;
+
+        Flight(String key) {
+            this.key = key;
+        }
+
+        boolean join(RequestSpec spec, Context context, Handler<HttpClientResponse> responseHandler,
+                     Handler<Throwable> exceptionHandler) {
+            Joiner joiner = new Joiner(context, responseHandler, exceptionHandler);
+            synchronized (this) {
+                if (finished) {
+                    return false;
+                }
+                joiners.add(joiner);
+            }
+            joiner.expireAfter(spec);
+            return true;
+        }
+
+        void handleResponse(HttpClientResponse response) {
+            ResponseReader.readBody(response, maxResponseBytes, body -> {
+                if (body.succeeded()) {
+                    complete(response, body.result());
+                } else {
+                    fail(body.cause());
+                }
+            });
+        }
+
+        private void complete(HttpClientResponse response, Buffer body) {
+            if (!finish()) {
+                return;
+            }
+            for (Joiner joiner : joiners) {
+                if (joiner.settle()) {
+                    new BufferedClientResponse(response, body).deliver(joiner.context, joiner.responseHandler);
+                }
+            }
+        }
+
+        void fail(Throwable error) {
+            if (!finish()) {
+                return;
+            }
+            for (Joiner joiner : joiners) {
+                if (joiner.settle()) {
+                    joiner.fail(error);
+                }
+            }
+        }
+
+        /**
+         * Stops new calls from joining.
+         *
+         * @return true the first time the flight finishes
+         */
+        private boolean finish() {
+            flights.remove(key, this);
+            synchronized (this) {
+                if (finished) {
+                    return false;
+                }
+                finished = true;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * A call waiting on a shared request, it gets exactly one of the response, the shared failure or its own timeout.
+     */
+    private class Joiner {
+        private final Context context;
+        private final Handler<HttpClientResponse> responseHandler;
+        private final Handler<Throwable> exceptionHandler;
+        private long timerId = NO_TIMER;
+        private boolean settled;
+
+        Joiner(Context context, Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler) {
+            this.context = context;
+            this.responseHandler = responseHandler;
+            this.exceptionHandler = exceptionHandler;
+        }
+
+        /**
+         * Arms the call's own timeout, the shared request only enforces the timeout of the call that sent it.
+         *
+         * @param spec - the call
+         */
+        void expireAfter(RequestSpec spec) {
+            long timeout = spec.timeout;
+            long remaining = spec.remaining(System.currentTimeMillis());
+            if (remaining >= 0L) {
+                timeout = timeout > 0L ? Math.min(timeout, remaining) : remaining;
+            }
+            if (timeout <= 0L && remaining != 0L) {
+                return;
+            }
+
+            long wait = Math.max(timeout, 1L);
+            long id = vertx.setTimer(wait, timer -> {
+                if (settle()) {
+                    fail(new TimeoutException("The timeout period of " + wait + "ms has been exceeded"));
+                }
+            });
+            synchronized (this) {
+                if (settled) {
+                    vertx.cancelTimer(id);
+                } else {
+                    timerId = id;
+                }
+            }
+        }
+
+        /**
+         * Claims the call's outcome.
+         *
+         * @return true the first time, the caller delivers the outcome
+         */
+        synchronized boolean settle() {
+            if (settled) {
+                return false;
+            }
+            settled = true;
+            if (timerId != NO_TIMER) {
+                vertx.cancelTimer(timerId);
+                timerId = NO_TIMER;
+            }
+            return true;
+        }
+
+        void fail(Throwable error) {
+            if (exceptionHandler != null) {
+                context.runOnContext(v -> exceptionHandler.handle(error));
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.zip.Deflater;
+
+/**
+ * Settings for compressing the request bodies a {@link ServiceClient} sends.
+ */
+public class RequestCompressionOptions {
+
+    /**
+     * The Content-Encoding request bodies are compressed with.
+     */
+    public enum Encoding {
+        GZIP("gzip"),
+        DEFLATE("deflate");
+
+        private final String headerValue;
+
+        Encoding(String headerValue) {
+            this.headerValue = headerValue;
+        }
+
+        /**
+         * Gets the Content-Encoding header value
+         *
+         * @return - header value
+         */
+        public String getHeaderValue() {
+            return headerValue;
+        }
+
+        /**
+         * Parses the encoding from its configuration name, ie "gzip".
+         *
+         * @param name - configuration name
+         * @return the encoding
+         */
+        public static Encoding fromConfig(String name) {
+            for (Encoding encoding : values()) {
+                if (encoding.headerValue.equalsIgnoreCase(name)) {
+                    return encoding;
+                }
+            }
+            throw new IllegalArgumentException("Unknown request compression encoding: " + name);
+        }
+    }
+
+    // configuration key constants
+    public static final String ENCODING = "encoding";
+    public static final String MIN_SIZE = "min_size";
+    public static final String LEVEL = "level";
+
+    public static final Encoding DEFAULT_ENCODING = Encoding.GZIP;
+    public static final int DEFAULT_MIN_SIZE = 1024;
+    // bodies are compressed on the event loop, trade some ratio for speed
+    public static final int DEFAULT_LEVEL = Deflater.BEST_SPEED;
+
+    private Encoding encoding = DEFAULT_ENCODING;
+    private int minSize = DEFAULT_MIN_SIZE;
+    private int level = DEFAULT_LEVEL;
+
+    /**
+     * Creates options from json configuration, missing keys keep their defaults.
+     *
+     * @param config - Json configuration.
+     * @return the options
+     */
+    public static RequestCompressionOptions fromConfig(JsonObject config) {
+        return new RequestCompressionOptions()
+                .setEncoding(Encoding.fromConfig(config.getString(ENCODING, DEFAULT_ENCODING.getHeaderValue())))
+                .setMinSize(config.getInteger(MIN_SIZE, DEFAULT_MIN_SIZE))
+                .setLevel(config.getInteger(LEVEL, DEFAULT_LEVEL));
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    public RequestCompressionOptions setEncoding(Encoding encoding) {
+        if (encoding == null) {
+            throw new IllegalArgumentException("Invalid encoding: null");
+        }
+        this.encoding = encoding;
+        return this;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Sets the smallest body that is compressed, smaller bodies gain little and cost the same per call overhead.
+     *
+     * @param minSize - size in bytes.
+     * @return - reference to this object.
+     */
+    public RequestCompressionOptions setMinSize(int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("Invalid min size: " + minSize);
+        }
+        this.minSize = minSize;
+        return this;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Sets the compression level.
+     *
+     * @param level - 1 (fastest) to 9 (smallest).
+     * @return - reference to this object.
+     */
+    public RequestCompressionOptions setLevel(int level) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.level = level;
+        return this;
+    }
+}
@@ -0,0 +1,151 @@
+package com.cyngn.vertx.client;
+
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses request bodies over the size threshold. Bodies are deflated into a scratch array with a deflater kept per
+ * thread, then copied into an exact size buffer the call owns, so the body stays valid for as long as any attempt of
+ * the call may still write it.
+ */
+class RequestCompressor {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int MIN_CHUNK = 256;
+    // larger scratch arrays are dropped after use instead of being held by the thread
+    private static final int MAX_RETAINED_SCRATCH = 1 << 20;
+
+    private final RequestCompressionOptions options;
+    private final boolean gzip;
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<CRC32> checksums = ThreadLocal.withInitial(CRC32::new);
+    private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[MIN_CHUNK * 16]);
+
+    RequestCompressor(RequestCompressionOptions options) {
+        this.options = options;
+        this.gzip = options.getEncoding() == RequestCompressionOptions.Encoding.GZIP;
+        // gzip wraps raw deflate data in its own header and trailer
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(options.getLevel(), gzip));
+    }
+
+    /**
+     * Checks if the call's body should be compressed.
+     *
+     * @param spec           - the call
+     * @param defaultHeaders - the headers put on every request of the call, may be null
+     * @return true if the body is buffered, over the threshold and not already encoded
+     */
+    boolean shouldCompress(RequestSpec spec, HeaderSet defaultHeaders) {
+        return !spec.isStreamed() && spec.payload.length() > 0 && spec.payload.length() >= options.getMinSize()
+                && !hasContentEncoding(spec.headers)
+                && (defaultHeaders == null || !defaultHeaders.contains(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private static boolean hasContentEncoding(Map<String, String> headers) {
+        if (headers != null) {
+            // header names are case insensitive
+            for (String name : headers.keySet()) {
+                if (HttpHeaders.CONTENT_ENCODING.toString().equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compresses the call's body.
+     *
+     * @param spec - the call, see {@link #shouldCompress(RequestSpec, HeaderSet)}
+     * @return the compressed body
+     */
+    Buffer compress(RequestSpec spec) {
+        ByteBuf in = spec.payload.getByteBuf();
+        int length = in.readableBytes();
+        byte[] input;
+        int offset;
+        if (in.hasArray()) {
+            input = in.array();
+            offset = in.arrayOffset() + in.readerIndex();
+        } else {
+            input = new byte[length];
+            in.getBytes(in.readerIndex(), input);
+            offset = 0;
+        }
+
+        byte[] out = scratch.get();
+        int size = 0;
+        Deflater deflater = deflaters.get();
+        try {
+            if (gzip) {
+                size = writeGzipHeader(out);
+            }
+            deflater.setInput(input, offset, length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (out.length - size < MIN_CHUNK) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                size += deflater.deflate(out, size, out.length - size);
+            }
+            if (gzip) {
+                CRC32 checksum = checksums.get();
+                checksum.reset();
+                checksum.update(input, offset, length);
+                if (out.length - size < GZIP_TRAILER_SIZE) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+                size = writeIntLE(out, size, (int) checksum.getValue());
+                size = writeIntLE(out, size, length);
+            }
+            return Buffer.buffer(size).appendBytes(out, 0, size);
+        } finally {
+            deflater.reset();
+            if (out.length <= MAX_RETAINED_SCRATCH) {
+                scratch.set(out);
+            }
+        }
+    }
+
+    /**
+     * Compresses the call's body.
+     *
+     * @param spec - the call, see {@link #shouldCompress(RequestSpec, HeaderSet)}
+     * @return the call with the compressed body and its content encoding set
+     */
+    RequestSpec compressCall(RequestSpec spec) {
+        Buffer body = compress(spec);
+        Map<String, String> headers = spec.headers != null ? new HashMap<>(spec.headers) : new HashMap<>();
+        headers.put(HttpHeaders.CONTENT_ENCODING.toString(), options.getEncoding().getHeaderValue());
+        return spec.withBody(body, headers);
+    }
+
+    private static int writeGzipHeader(byte[] out) {
+        // magic, deflate, no flags, no modification time, no extra flags, unknown os
+        out[0] = (byte) GZIP_MAGIC;
+        out[1] = (byte) (GZIP_MAGIC >> 8);
+        out[2] = Deflater.DEFLATED;
+        for (int i = 3; i < GZIP_HEADER_SIZE - 1; i++) {
+            out[i] = 0;
+        }
+        out[GZIP_HEADER_SIZE - 1] = (byte) 0xff;
+        return GZIP_HEADER_SIZE;
+    }
+
+    private static int writeIntLE(byte[] out, int index, int value) {
+        out[index] = (byte) value;
+        out[index + 1] = (byte) (value >> 8);
+        out[index + 2] = (byte) (value >> 16);
+        out[index + 3] = (byte) (value >> 24);
+        return index + 4;
+    }
+}
@@ -0,0 +1,205 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.json.JsonObject;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request telemetry of a {@link ServiceClient} or one of its named apis kept by {@link InMemoryClientMetrics}.
+ *
+ * Latencies are kept in microseconds.
+ */
+public class RequestMetrics {
+
+    private static final int STATUS_CLASSES = 5;
+
+    private final String name;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final RateMeter requests = new RateMeter();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram connectLatency = new LatencyHistogram();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    // 1xx through 5xx
+    private final LongAdder[] statusClasses = new LongAdder[STATUS_CLASSES];
+
+    /**
+     * @param name - api name or the client's host and port
+     */
+    public RequestMetrics(String name) {
+        this.name = name;
+        for (int i = 0; i < STATUS_CLASSES; i++) {
+            statusClasses[i] = new LongAdder();
+        }
+    }
+
+    void started(boolean waiting) {
+        inFlight.incrementAndGet();
+        requests.mark();
+        if (waiting) {
+            queued.increment();
+        }
+    }
+
+    void connected(long waitNanos) {
+        connectLatency.record(waitNanos / 1000L);
+    }
+
+    void responded(int statusCode, long latencyNanos) {
+        inFlight.decrementAndGet();
+        latency.record(latencyNanos / 1000L);
+        int statusClass = statusCode / 100;
+        if (statusClass >= 1 && statusClass <= STATUS_CLASSES) {
+            statusClasses[statusClass - 1].increment();
+        }
+    }
+
+    void failed(Throwable error, long latencyNanos) {
+        inFlight.decrementAndGet();
+        latency.record(latencyNanos / 1000L);
+        if (error instanceof TimeoutException) {
+            timeouts.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    void cancelled() {
+        inFlight.decrementAndGet();
+        cancelled.increment();
+    }
+
+    /**
+     * Gets the api name or the client's host and port
+     *
+     * @return - name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of requests that have not finished yet
+     *
+     * @return - in flight request count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the number of requests and their rate over the last minute
+     *
+     * @return - request meter
+     */
+    public RateMeter getRequests() {
+        return requests;
+    }
+
+    /**
+     * Gets the time from sending requests until they got a response or failed
+     *
+     * @return - latency histogram in microseconds
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Gets the time requests waited for a new connection to be established
+     *
+     * @return - latency histogram in microseconds
+     */
+    public LatencyHistogram getConnectLatency() {
+        return connectLatency;
+    }
+
+    /**
+     * Gets the number of requests that had to wait in the pool because every connection was busy
+     *
+     * @return - queued request count
+     */
+    public long getQueued() {
+        return queued.sum();
+    }
+
+    /**
+     * Gets the number of requests that timed out
+     *
+     * @return - timeout count
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Gets the number of requests that failed without a response for another reason than a timeout
+     *
+     * @return - error count
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Gets the number of requests abandoned before they got a response, ie losing hedged attempts
+     *
+     * @return - cancelled request count
+     */
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    /**
+     * Gets the number of responses in a status class
+     *
+     * @param statusClass - 1 through 5, ie 5 for 5xx responses
+     * @return - response count
+     */
+    public long getResponses(int statusClass) {
+        if (statusClass < 1 || statusClass > STATUS_CLASSES) {
+            throw new IllegalArgumentException("Invalid status class: " + statusClass);
+        }
+        return statusClasses[statusClass - 1].sum();
+    }
+
+    /**
+     * Gets a snapshot of the metrics, ie to serve them from an admin api
+     *
+     * @return - json object
+     */
+    public JsonObject toJson() {
+        JsonObject responses = new JsonObject();
+        for (int i = 1; i <= STATUS_CLASSES; i++) {
+            responses.put(i + "xx", getResponses(i));
+        }
+
+        return new JsonObject()
+                .put("name", name)
+                .put("in_flight", getInFlight())
+                .put("requests", requests.getCount())
+                .put("rate", requests.getRate())
+                .put("responses", responses)
+                .put("timeouts", getTimeouts())
+                .put("errors", getErrors())
+                .put("cancelled", getCancelled())
+                .put("queued", getQueued())
+                .put("latency", toJson(latency))
+                .put("connect_latency", toJson(connectLatency));
+    }
+
+    private static JsonObject toJson(LatencyHistogram histogram) {
+        return new JsonObject()
+                .put("count", histogram.getCount())
+                .put("mean", histogram.getMean())
+                .put("p50", histogram.getValueAtPercentile(50.0))
+                .put("p90", histogram.getValueAtPercentile(90.0))
+                .put("p99", histogram.getValueAtPercentile(99.0))
+                .put("p999", histogram.getValueAtPercentile(99.9))
+                .put("max", histogram.getMax());
+    }
+}
@@ -0,0 +1,19 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpClientResponse;
+
+/**
+ * Sends a call on behalf of a layer in front of the network, ie the response cache or request coalescing.
+ */
+interface RequestSender {
+
+    /**
+     * Sends the call
+     *
+     * @param spec             - the call to send
+     * @param responseHandler  - response handler
+     * @param exceptionHandler - exception handler
+     */
+    void send(RequestSpec spec, Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler);
+}
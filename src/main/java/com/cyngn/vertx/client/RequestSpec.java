@@ -0,0 +1,143 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.Map;
+
+/**
+ * Everything needed to send, or resend, a {@link ServiceClient} call.
+ */
+class RequestSpec {
+
+    final ApiDescriptor api;
+    final HttpMethod method;
+    final String path;
+    final Buffer payload;
+    final ReadStream<Buffer> stream;
+    final long timeout;
+    final Map<String, String> headers;
+    final Priority priority;
+    final long deadline;
+
+    /**
+     * @param api     - the named api called, null for calls without an api
+     * @param method  - HTTP method for the request
+     * @param path    - the absolute URI path
+     * @param payload - payload sent in the call
+     * @param timeout - timeout in millis, 0 means no timeout
+     * @param headers - headers for this request only, applied after client and api headers. may be null
+     */
+    RequestSpec(ApiDescriptor api, HttpMethod method, String path, Buffer payload, long timeout,
+                Map<String, String> headers) {
+        this(api, method, path, payload, null, timeout, headers, null, 0L);
+    }
+
+    /**
+     * @param api     - the named api called, null for calls without an api
+     * @param method  - HTTP method for the request
+     * @param path    - the absolute URI path
+     * @param stream  - stream piped as the request body, it can only be sent once
+     * @param timeout - timeout in millis, 0 means no timeout
+     * @param headers - headers for this request only, applied after client and api headers. may be null
+     */
+    RequestSpec(ApiDescriptor api, HttpMethod method, String path, ReadStream<Buffer> stream, long timeout,
+                Map<String, String> headers) {
+        this(api, method, path, null, stream, timeout, headers, null, 0L);
+    }
+
+    private RequestSpec(ApiDescriptor api, HttpMethod method, String path, Buffer payload, ReadStream<Buffer> stream,
+                        long timeout, Map<String, String> headers, Priority priority, long deadline) {
+        this.api = api;
+        this.method = method;
+        this.path = path;
+        this.payload = payload;
+        this.stream = stream;
+        this.timeout = timeout;
+        this.headers = headers;
+        this.priority = priority;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Copies the spec with a priority.
+     *
+     * @param priority - priority lane of the call, null to use the api or default priority
+     * @return the copy
+     */
+    RequestSpec withPriority(Priority priority) {
+        return new RequestSpec(api, method, path, payload, stream, timeout, headers, priority, deadline);
+    }
+
+    /**
+     * Copies the spec with a deadline.
+     *
+     * @param deadline - time the caller stops waiting in epoch millis, 0 for none
+     * @return the copy
+     */
+    RequestSpec withDeadline(long deadline) {
+        return new RequestSpec(api, method, path, payload, stream, timeout, headers, priority, deadline);
+    }
+
+    /**
+     * Copies the spec with another body.
+     *
+     * @param payload - payload sent in the call
+     * @param headers - headers for this request only, may be null
+     * @return the copy
+     */
+    RequestSpec withBody(Buffer payload, Map<String, String> headers) {
+        return new RequestSpec(api, method, path, payload, null, timeout, headers, priority, deadline);
+    }
+
+    /**
+     * Copies the spec with other headers.
+     *
+     * @param headers - headers for this request only, may be null
+     * @return the copy
+     */
+    RequestSpec withHeaders(Map<String, String> headers) {
+        return new RequestSpec(api, method, path, payload, stream, timeout, headers, priority, deadline);
+    }
+
+    /**
+     * Gets the time left until the deadline.
+     *
+     * @param now - current time in epoch millis
+     * @return millis left, 0 if the deadline has passed, -1 if there is no deadline
+     */
+    long remaining(long now) {
+        return deadline > 0L ? Math.max(0L, deadline - now) : -1L;
+    }
+
+    /**
+     * Resolves the priority lane of the call.
+     *
+     * @return the call priority, else the api priority, else {@link Priority#NORMAL}
+     */
+    Priority resolvePriority() {
+        if (priority != null) {
+            return priority;
+        }
+        return api != null ? api.getPriority() : Priority.NORMAL;
+    }
+
+    /**
+     * Checks if the body is streamed, streamed calls can't be resent, shared or cached.
+     *
+     * @return true if the body is a stream
+     */
+    boolean isStreamed() {
+        return stream != null;
+    }
+
+    /**
+     * Checks if the call has no body.
+     *
+     * @return true if there is no payload and no stream
+     */
+    boolean hasEmptyBody() {
+        return stream == null && payload.length() == 0;
+    }
+}
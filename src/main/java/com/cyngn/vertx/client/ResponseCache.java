@@ -0,0 +1,32 @@
+package com.cyngn.vertx.client;
+
+/**
+ * Storage for responses cached by a {@link ServiceClient}, implementations must be thread safe.
+ *
+ * The client decides what is cached and for how long, the cache only has to hold the entries within its memory bounds.
+ */
+public interface ResponseCache {
+
+    /**
+     * Gets a cached response, fresh or stale.
+     *
+     * @param key - the cache key
+     * @return the cached response or null if there is none
+     */
+    CachedResponse get(String key);
+
+    /**
+     * Stores a response, replacing any response cached under the key.
+     *
+     * @param key      - the cache key
+     * @param response - the response
+     */
+    void put(String key, CachedResponse response);
+
+    /**
+     * Removes a cached response.
+     *
+     * @param key - the cache key
+     */
+    void remove(String key);
+}
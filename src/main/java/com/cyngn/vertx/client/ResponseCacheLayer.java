@@ -0,0 +1,226 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves GET calls from a {@link ResponseCache} and stores cacheable responses in it.
+ *
+ * Freshness comes from the Cache-Control max-age or s-maxage directives, then the Expires header, then the cache ttl of
+ * the api. Stale responses with an ETag or Last-Modified header are revalidated with a conditional request, a 304
+ * answer refreshes the cached response.
+ */
+class ResponseCacheLayer {
+
+    static final long NOT_CACHEABLE = -1L;
+
+    private static final String VARY = "Vary";
+    private static final String IF_NONE_MATCH = HttpHeaders.IF_NONE_MATCH.toString();
+    private static final String IF_MODIFIED_SINCE = HttpHeaders.IF_MODIFIED_SINCE.toString();
+
+    private final Vertx vertx;
+    private final ResponseCache cache;
+    private final long maxResponseBytes;
+
+    /**
+     * @param vertx            - vertx instance, used when a call is made off a vertx context
+     * @param cache            - where responses are stored
+     * @param maxResponseBytes - the largest body read to store it, larger ones fail the call with a
+     *                           {@link ResponseTooLargeException}
+     */
+    ResponseCacheLayer(Vertx vertx, ResponseCache cache, long maxResponseBytes) {
+        this.vertx = vertx;
+        this.cache = cache;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    ResponseCache cache() {
+        return cache;
+    }
+
+    /**
+     * Checks if a call may be served from the cache, only bodiless GET calls are.
+     *
+     * @param spec - the call
+     * @return true if the cache applies
+     */
+    boolean canCache(RequestSpec spec) {
+        return spec.method == HttpMethod.GET && spec.hasEmptyBody();
+    }
+
+    /**
+     * Serves the call from the cache if there is a fresh response, otherwise sends it.
+     *
+     * @param spec             - the call
+     * @param sender           - sends the call on a miss or to revalidate
+     * @param responseHandler  - response handler
+     * @param exceptionHandler - exception handler
+     */
+    void call(RequestSpec spec, RequestSender sender, Handler<HttpClientResponse> responseHandler,
+              Handler<Throwable> exceptionHandler) {
+        Context context = Vertx.currentContext();
+        if (context == null) {
+            context = vertx.getOrCreateContext();
+        }
+
+        String key = key(spec);
+        CachedResponse cached = cache.get(key);
+        if (cached != null && cached.isFresh(System.currentTimeMillis())) {
+            cached.toResponse().deliver(context, responseHandler);
+            return;
+        }
+
+        Context callContext = context;
+        RequestSpec toSend = cached != null && cached.hasValidators() ? revalidation(spec, cached) : spec;
+        sender.send(toSend, response -> handleResponse(spec, key, cached, response, callContext, responseHandler,
+                exceptionHandler), exceptionHandler);
+    }
+
+    private void handleResponse(RequestSpec spec, String key, CachedResponse cached, HttpClientResponse response,
+                                Context context, Handler<HttpClientResponse> responseHandler,
+                                Handler<Throwable> exceptionHandler) {
+        long now = System.currentTimeMillis();
+        long apiTtl = spec.api != null ? spec.api.getCacheTtl() : 0L;
+
+        if (cached != null && response.statusCode() == 304) {
+            long expiresAt = expiresAt(response.headers(), apiTtl, now);
+            CachedResponse refreshed = cached.refresh(expiresAt == NOT_CACHEABLE ? now : expiresAt);
+            cache.put(key, refreshed);
+            refreshed.toResponse().deliver(context, responseHandler);
+            return;
+        }
+
+        long expiresAt = isStorable(response) ? expiresAt(response.headers(), apiTtl, now) : NOT_CACHEABLE;
+        if (expiresAt == NOT_CACHEABLE) {
+            if (cached != null) {
+                cache.remove(key);
+            }
+            responseHandler.handle(response);
+            return;
+        }
+
+        ResponseReader.readBody(response, maxResponseBytes, result -> {
+            if (result.failed()) {
+                if (exceptionHandler != null) {
+                    exceptionHandler.handle(result.cause());
+                }
+                return;
+            }
+            Buffer body = result.result();
+            cache.put(key, new CachedResponse(response.statusCode(), response.statusMessage(), response.headers(),
+                    body, expiresAt));
+            new BufferedClientResponse(response, body).deliver(context, responseHandler);
+        });
+    }
+
+    private static boolean isStorable(HttpClientResponse response) {
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        // responses that vary on request headers other than the encoding would need a key per variant
+        String vary = response.getHeader(VARY);
+        return vary == null || vary.trim().equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING.toString());
+    }
+
+    /**
+     * Works out until when a response is fresh.
+     *
+     * @param headers - response headers
+     * @param apiTtl  - cache ttl of the api in milliseconds, 0 if none
+     * @param now     - current time in epoch milliseconds
+     * @return time in epoch milliseconds or {@link #NOT_CACHEABLE}
+     */
+    static long expiresAt(MultiMap headers, long apiTtl, long now) {
+        String cacheControl = headers.get(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl != null) {
+            long maxAge = NOT_CACHEABLE;
+            for (String directive : cacheControl.split(",")) {
+                String name = directive.trim().toLowerCase();
+                if (name.equals("no-store") || name.equals("private")) {
+                    return NOT_CACHEABLE;
+                } else if (name.equals("no-cache")) {
+                    // may be stored but must be revalidated on every use
+                    return now;
+                } else if (name.startsWith("s-maxage=")) {
+                    maxAge = parseSeconds(name.substring("s-maxage=".length()));
+                    // s-maxage wins over max-age
+                    if (maxAge != NOT_CACHEABLE) {
+                        return now + maxAge;
+                    }
+                } else if (name.startsWith("max-age=")) {
+                    maxAge = parseSeconds(name.substring("max-age=".length()));
+                }
+            }
+            if (maxAge != NOT_CACHEABLE) {
+                return now + maxAge;
+            }
+        }
+
+        String expires = headers.get(HttpHeaders.EXPIRES);
+        if (expires != null) {
+            try {
+                return ZonedDateTime.parse(expires, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            } catch (DateTimeParseException ex) {
+                // an invalid date means already expired
+                return now;
+            }
+        }
+
+        if (apiTtl > 0L) {
+            return now + apiTtl;
+        }
+
+        // without a lifetime the response is still worth keeping if it can be revalidated
+        return headers.contains(HttpHeaders.ETAG) || headers.contains(HttpHeaders.LAST_MODIFIED)
+                ? now : NOT_CACHEABLE;
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Math.max(0L, Long.parseLong(value.trim())) * 1000L;
+        } catch (NumberFormatException ex) {
+            return NOT_CACHEABLE;
+        }
+    }
+
+    private static RequestSpec revalidation(RequestSpec spec, CachedResponse cached) {
+        Map<String, String> headers = spec.headers != null ? new HashMap<>(spec.headers) : new HashMap<>();
+        String etag = cached.getHeaders().get(HttpHeaders.ETAG);
+        if (etag != null) {
+            headers.put(IF_NONE_MATCH, etag);
+        }
+        String lastModified = cached.getHeaders().get(HttpHeaders.LAST_MODIFIED);
+        if (lastModified != null) {
+            headers.put(IF_MODIFIED_SINCE, lastModified);
+        }
+        return spec.withHeaders(headers);
+    }
+
+    private static String key(RequestSpec spec) {
+        StringBuilder key = new StringBuilder();
+        if (spec.api != null) {
+            key.append(spec.api.getName());
+        }
+        key.append(' ').append(spec.path);
+
+        // per request headers can change the response, sort them so the order they were set in doesn't matter
+        if (spec.headers != null && !spec.headers.isEmpty()) {
+            new TreeMap<>(spec.headers).forEach((name, value) ->
+                    key.append('\n').append(name).append('=').append(value));
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,253 @@
+package com.cyngn.vertx.client;
+
+import com.cyngn.vertx.web.JsonUtil;
+import io.netty.buffer.ByteBufInputStream;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+
+import java.io.IOException;
+
+/**
+ * Reads {@link ServiceClient} response bodies with a bound on how many bytes are held in memory.
+ *
+ * Bodies with a Content-Length are aggregated into a buffer sized up front (up to 1MB), a Content-Length over the limit
+ * fails before anything is read. Once a body goes over the limit the rest of it is discarded as it arrives.
+ */
+public final class ResponseReader {
+
+    private static final byte NEWLINE = '\n';
+    // larger bodies start from this and grow as they arrive instead of trusting the Content-Length with more
+    private static final int MAX_PRESIZE = 1024 * 1024;
+
+    private ResponseReader() {
+    }
+
+    /**
+     * Reads the whole response body.
+     *
+     * @param response - the response
+     * @param maxBytes - the largest body accepted
+     * @param handler  - gets the body or a {@link ResponseTooLargeException}
+     */
+    public static void readBody(HttpClientResponse response, long maxBytes, Handler<AsyncResult<Buffer>> handler) {
+        long contentLength = contentLength(response);
+        if (contentLength > maxBytes) {
+            discard(response);
+            handler.handle(Future.failedFuture(new ResponseTooLargeException(maxBytes)));
+            return;
+        }
+
+        Buffer body = contentLength > 0L ? Buffer.buffer((int) Math.min(contentLength, MAX_PRESIZE))
+                : Buffer.buffer();
+        Reader<Buffer> reader = new Reader<>(response, handler);
+        response.handler(chunk -> {
+            if (reader.done) {
+                return;
+            }
+            if (body.length() + chunk.length() > maxBytes) {
+                reader.fail(new ResponseTooLargeException(maxBytes));
+                return;
+            }
+            body.appendBuffer(chunk);
+        });
+        response.endHandler(end -> reader.succeed(body));
+    }
+
+    /**
+     * Reads the response body and decodes it with {@link JsonUtil#mapper}. The body is decoded straight from the
+     * aggregated buffer without copying it into an array or string. An empty body decodes to null.
+     *
+     * @param response - the response
+     * @param maxBytes - the largest body accepted
+     * @param clazz    - the class to decode the json into
+     * @param handler  - gets the decoded object, a {@link ResponseTooLargeException} or the decoding failure
+     * @param <T>      - decoded type
+     */
+    public static <T> void readJson(HttpClientResponse response, long maxBytes, Class<T> clazz,
+                                    Handler<AsyncResult<T>> handler) {
+        readBody(response, maxBytes, result -> {
+            if (result.failed()) {
+                handler.handle(Future.failedFuture(result.cause()));
+                return;
+            }
+
+            Buffer body = result.result();
+            if (body.length() == 0) {
+                handler.handle(Future.succeededFuture());
+                return;
+            }
+
+            T value;
+            try {
+                value = decode(body, clazz);
+            } catch (IOException ex) {
+                handler.handle(Future.failedFuture(ex));
+                return;
+            }
+            handler.handle(Future.succeededFuture(value));
+        });
+    }
+
+    /**
+     * Decodes a newline delimited json body record by record as chunks arrive, so decoding overlaps with reading the
+     * rest of the body and only one record at a time is held in memory. Blank lines are skipped.
+     *
+     * @param response      - the response
+     * @param maxLineBytes  - the largest record accepted
+     * @param clazz         - the class to decode each record into
+     * @param recordHandler - gets each decoded record
+     * @param endHandler    - called once after the last record, or with the first failure after which no more records
+     *                      are passed on
+     * @param <T>           - decoded type
+     */
+    public static <T> void readJsonLines(HttpClientResponse response, long maxLineBytes, Class<T> clazz,
+                                         Handler<T> recordHandler, Handler<AsyncResult<Void>> endHandler) {
+        Reader<Void> reader = new Reader<>(response, endHandler);
+        LineSplitter lines = new LineSplitter(maxLineBytes);
+        response.handler(chunk -> {
+            if (reader.done) {
+                return;
+            }
+            try {
+                lines.feed(chunk, line -> recordHandler.handle(decode(line, clazz)));
+            } catch (ResponseTooLargeException | IOException ex) {
+                reader.fail(ex);
+            }
+        });
+        response.endHandler(end -> {
+            if (reader.done) {
+                return;
+            }
+            try {
+                lines.finish(line -> recordHandler.handle(decode(line, clazz)));
+            } catch (IOException ex) {
+                reader.fail(ex);
+                return;
+            }
+            reader.succeed(null);
+        });
+    }
+
+    private static <T> T decode(Buffer json, Class<T> clazz) throws IOException {
+        try (ByteBufInputStream input = new ByteBufInputStream(json.getByteBuf())) {
+            return JsonUtil.mapper.readValue(input, clazz);
+        }
+    }
+
+    private static long contentLength(HttpClientResponse response) {
+        String header = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        if (header == null) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+
+    static void discard(HttpClientResponse response) {
+        // the connection can only be reused once the body is read, drop it chunk by chunk without holding it
+        response.handler(chunk -> { });
+        response.endHandler(end -> { });
+        response.exceptionHandler(error -> { });
+    }
+
+    /**
+     * Makes sure the handler is called once, for the end of the body, a failure reading it or a failure handling it.
+     */
+    private static class Reader<T> {
+        private final HttpClientResponse response;
+        private final Handler<AsyncResult<T>> handler;
+        private boolean done;
+
+        Reader(HttpClientResponse response, Handler<AsyncResult<T>> handler) {
+            this.response = response;
+            this.handler = handler;
+            response.exceptionHandler(this::fail);
+        }
+
+        void succeed(T value) {
+            if (done) {
+                return;
+            }
+            done = true;
+            handler.handle(Future.succeededFuture(value));
+        }
+
+        void fail(Throwable error) {
+            if (done) {
+                return;
+            }
+            done = true;
+            discard(response);
+            handler.handle(Future.failedFuture(error));
+        }
+    }
+
+    /**
+     * Splits chunks into newline terminated records, carrying partial records over to the next chunk.
+     */
+    private static class LineSplitter {
+        private final long maxLineBytes;
+        private Buffer partial = Buffer.buffer();
+
+        LineSplitter(long maxLineBytes) {
+            this.maxLineBytes = maxLineBytes;
+        }
+
+        void feed(Buffer chunk, LineHandler handler) throws IOException {
+            int start = 0;
+            for (int i = 0; i < chunk.length(); i++) {
+                if (chunk.getByte(i) == NEWLINE) {
+                    Buffer line = chunk.slice(start, i);
+                    if (partial.length() > 0) {
+                        line = partial.appendBuffer(line);
+                        partial = Buffer.buffer();
+                    }
+                    checkSize(line.length());
+                    emit(line, handler);
+                    start = i + 1;
+                }
+            }
+
+            if (start < chunk.length()) {
+                checkSize(partial.length() + chunk.length() - start);
+                // copy, the slice would keep the whole chunk alive
+                partial.appendBuffer(chunk, start, chunk.length() - start);
+            }
+        }
+
+        void finish(LineHandler handler) throws IOException {
+            if (partial.length() > 0) {
+                emit(partial, handler);
+                partial = Buffer.buffer();
+            }
+        }
+
+        private void checkSize(long size) {
+            if (size > maxLineBytes) {
+                throw new ResponseTooLargeException(maxLineBytes);
+            }
+        }
+
+        private static void emit(Buffer line, LineHandler handler) throws IOException {
+            for (int i = 0; i < line.length(); i++) {
+                byte b = line.getByte(i);
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    handler.handle(line);
+                    return;
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface LineHandler {
+        void handle(Buffer line) throws IOException;
+    }
+}
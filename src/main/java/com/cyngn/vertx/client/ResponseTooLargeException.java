@@ -0,0 +1,25 @@
+package com.cyngn.vertx.client;
+
+/**
+ * Passed to the handler of a {@link ResponseReader} when a response body is larger than the allowed size.
+ */
+public class ResponseTooLargeException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long maxBytes;
+
+    public ResponseTooLargeException(long maxBytes) {
+        super("response body exceeds " + maxBytes + " bytes", null, false, false);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the size limit that was exceeded
+     *
+     * @return - limit in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,57 @@
+package com.cyngn.vertx.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket limiting how many retries or hedged requests a client sends.
+ *
+ * Every call deposits a fraction of a token and every retry withdraws a whole one, so retries stay under a percentage
+ * of calls. A small number of tokens also trickles in per second so clients with little traffic can still retry.
+ */
+public class RetryBudget {
+
+    // the bucket holds about this many calls worth of deposits
+    private static final int CAPACITY_CALLS = 1000;
+
+    private final double depositPerCall;
+    private final double tokensPerNano;
+    private final double maxTokens;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param percent      - percentage of calls that may be retried.
+     * @param minPerSecond - retries allowed per second regardless of the number of calls.
+     */
+    public RetryBudget(double percent, int minPerSecond) {
+        this.depositPerCall = percent / 100.0;
+        this.tokensPerNano = minPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+        this.maxTokens = Math.max(1.0, depositPerCall * CAPACITY_CALLS + minPerSecond);
+        this.tokens = minPerSecond;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Records a call that may be retried.
+     */
+    public synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + depositPerCall);
+    }
+
+    /**
+     * Takes a token for a retry.
+     *
+     * @return true if the retry may be sent, false if the budget is exhausted.
+     */
+    public synchronized boolean tryWithdraw() {
+        long now = System.nanoTime();
+        tokens = Math.min(maxTokens, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+
+        if (tokens < 1.0) {
+            return false;
+        }
+        tokens -= 1.0;
+        return true;
+    }
+}
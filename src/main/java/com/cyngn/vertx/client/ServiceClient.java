@@ -1,6 +1,11 @@
 package com.cyngn.vertx.client;
 
+import com.cyngn.vertx.async.ResultContext;
+import com.cyngn.vertx.web.RestApi;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
@@ -9,13 +14,21 @@ import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.Pump;
+import io.vertx.core.streams.ReadStream;
 import org.apache.commons.lang.StringUtils;
 
 import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Service client for vertx services.
@@ -36,21 +49,62 @@ public class ServiceClient {
     public static final String TIMEOUT = "timeout";
     public static final String SSL = "ssl";
     public static final String HEADERS = "headers";
+    public static final String ENDPOINTS = "endpoints";
+    public static final String LOAD_BALANCER = "load_balancer";
+    public static final String CIRCUIT_BREAKER = "circuit_breaker";
+    public static final String HEDGING = "hedging";
+    public static final String COALESCING = "coalescing";
+    public static final String KEY_HEADERS = "key_headers";
+    public static final String CACHE = "cache";
+    public static final String MAX_BYTES = "max_bytes";
+    public static final String CACHE_TTL = "cache_ttl";
+    public static final String MAX_RESPONSE_BYTES = "max_response_bytes";
+    public static final String CONCURRENCY_LIMIT = "concurrency_limit";
+    public static final String PRIORITY = "priority";
+    public static final String REQUEST_COMPRESSION = "request_compression";
+    public static final String WARMUP = "warmup";
+    public static final String LOCAL_ADDRESS = "local_address";
+    public static final String METRICS = "metrics";
+    public static final String PROTOCOL = "protocol";
+    public static final String HTTP2_CLEAR_TEXT_UPGRADE = "http2_clear_text_upgrade";
+    public static final String HTTP2_MAX_POOL_SIZE = "http2_max_pool_size";
+    public static final String HTTP2_MULTIPLEXING_LIMIT = "http2_multiplexing_limit";
+    public static final String TRANSPORT = "transport";
+    public static final long DEFAULT_MAX_RESPONSE_BYTES = 10L * 1024L * 1024L;
     private static final long NO_TIMEOUT = 0L;
 
     // empty request.
     public static final String EMPTY_REQUEST = "";
-
-    private Map<String, Long> apiTimeouts = new HashMap<>();
-
-    // http client delegate
-    private HttpClient client;
+    private static final Buffer EMPTY_PAYLOAD = Buffer.buffer();
+    // header values sent on almost every request, encoded once
+    private static final CharSequence APPLICATION_JSON = HttpHeaders.createOptimized(MediaType.APPLICATION_JSON);
+    private static final CharSequence ZERO_LENGTH = HttpHeaders.createOptimized("0");
+    private static final CharSequence DEADLINE_HEADER = HttpHeaders.createOptimized(RestApi.X_REQUEST_DEADLINE);
+
+    private Map<String, ApiDescriptor> apis = new HashMap<>();
+
+    // backends, each with its own http client delegate
+    private Endpoint[] endpoints;
+    private LoadBalancer loadBalancer;
+    private Vertx vertx;
+    private HedgingPolicy hedging;
+    private RequestCoalescer coalescer;
+    private ResponseCacheLayer cache;
+    private ConcurrencyLimiter concurrencyLimiter;
 
     // saving host and port for consumers
     private String host;
     private Integer port;
     private long timeout;
-    private Map<String, String> headers;
+    private HeaderSet headers;
+    private long maxResponseBytes;
+    private RequestCompressor compressor;
+    private ConnectionWarmer warmer;
+    private String localAddress;
+    private ClientMetrics metrics;
+    // the warmup result, null while it runs
+    private AsyncResult<Void> ready = Future.succeededFuture();
+    private final List<Handler<AsyncResult<Void>>> readyHandlers = new ArrayList<>();
 
     // private constructor to prohibit creating instances using constructor
     private ServiceClient() {}
@@ -65,16 +119,54 @@ public class ServiceClient {
     public static ServiceClient create(Vertx vertx, JsonObject config) {
         Builder builder = new Builder(vertx);
 
-        if (config.containsKey(HOST)) {
-            builder.withHost(config.getString(HOST));
+        if (config.containsKey(ENDPOINTS)) {
+            JsonArray endpointArray = config.getJsonArray(ENDPOINTS);
+
+            for (int pos = 0; pos < endpointArray.size(); pos++) {
+                JsonObject endpointObject = endpointArray.getJsonObject(pos);
+                if (!endpointObject.containsKey(HOST) || !endpointObject.containsKey(PORT)) {
+                    throw new IllegalArgumentException("Endpoint " + endpointObject.encode()
+                            + " in service client configuration needs a host and port");
+                }
+                builder.addEndpoint(endpointObject.getString(HOST), endpointObject.getInteger(PORT));
+            }
         } else {
-            throw new IllegalArgumentException("No host key defined in service client configuration");
+            if (config.containsKey(HOST)) {
+                builder.withHost(config.getString(HOST));
+            } else {
+                throw new IllegalArgumentException("No host key defined in service client configuration");
+            }
+
+            if (config.containsKey(PORT)) {
+                builder.withPort(config.getInteger(PORT));
+            } else {
+                throw new IllegalArgumentException("No port key defined in service client configuration");
+            }
         }
 
-        if (config.containsKey(PORT)) {
-            builder.withPort(config.getInteger(PORT));
-        } else {
-            throw new IllegalArgumentException("No port key defined in service client configuration");
+        if (config.containsKey(LOAD_BALANCER)) {
+            builder.withLoadBalancer(LoadBalancer.fromConfig(config.getString(LOAD_BALANCER)));
+        }
+
+        if (config.containsKey(CIRCUIT_BREAKER)) {
+            builder.withCircuitBreaker(CircuitBreakerOptions.fromConfig(config.getJsonObject(CIRCUIT_BREAKER)));
+        }
+
+        if (config.containsKey(HEDGING)) {
+            builder.withHedging(HedgingOptions.fromConfig(config.getJsonObject(HEDGING)));
+        }
+
+        if (config.containsKey(COALESCING)) {
+            JsonArray keyHeaders = config.getJsonObject(COALESCING).getJsonArray(KEY_HEADERS, new JsonArray());
+            String[] names = new String[keyHeaders.size()];
+            for (int pos = 0; pos < names.length; pos++) {
+                names[pos] = keyHeaders.getString(pos);
+            }
+            builder.withCoalescing(names);
+        }
+
+        if (config.containsKey(CACHE)) {
+            builder.withResponseCache(new LruResponseCache(config.getJsonObject(CACHE).getLong(MAX_BYTES)));
         }
 
         if (config.containsKey(NUM_CONNECTIONS)) {
@@ -85,6 +177,11 @@ public class ServiceClient {
             builder.withCompression(config.getBoolean(COMPRESSION));
         }
 
+        if (config.containsKey(REQUEST_COMPRESSION)) {
+            builder.withRequestCompression(
+                    RequestCompressionOptions.fromConfig(config.getJsonObject(REQUEST_COMPRESSION)));
+        }
+
         if (config.containsKey(TIMEOUT)) {
             builder.withTimeout(config.getLong(TIMEOUT));
         }
@@ -93,16 +190,49 @@ public class ServiceClient {
             builder.withSsl(config.getBoolean(SSL));
         }
 
-        if (config.containsKey(HEADERS)) {
-            JsonObject headerConfig = config.getJsonObject(HEADERS, null);
+        if (config.containsKey(PROTOCOL)) {
+            builder.withProtocol(parseProtocol(config.getString(PROTOCOL)));
+        }
 
-            if (headerConfig != null) {
-                Map<String, String> headers = new HashMap<>();
-                headerConfig.forEach(entry -> {
-                    headers.put(entry.getKey(), (String) entry.getValue());
-                });
-                builder.withHeaders(headers);
-            }
+        if (config.containsKey(HTTP2_CLEAR_TEXT_UPGRADE)) {
+            builder.withHttp2ClearTextUpgrade(config.getBoolean(HTTP2_CLEAR_TEXT_UPGRADE));
+        }
+
+        if (config.containsKey(HTTP2_MAX_POOL_SIZE)) {
+            builder.withHttp2MaxPoolSize(config.getInteger(HTTP2_MAX_POOL_SIZE));
+        }
+
+        if (config.containsKey(HTTP2_MULTIPLEXING_LIMIT)) {
+            builder.withHttp2MultiplexingLimit(config.getInteger(HTTP2_MULTIPLEXING_LIMIT));
+        }
+
+        if (config.containsKey(LOCAL_ADDRESS)) {
+            builder.withLocalAddress(config.getString(LOCAL_ADDRESS));
+        }
+
+        if (config.getBoolean(METRICS, false)) {
+            builder.withMetrics(new InMemoryClientMetrics());
+        }
+
+        if (config.containsKey(WARMUP)) {
+            builder.withWarmup(WarmupOptions.fromConfig(config.getJsonObject(WARMUP)));
+        }
+
+        if (config.containsKey(TRANSPORT)) {
+            builder.withTransport(TransportOptions.fromConfig(config.getJsonObject(TRANSPORT)));
+        }
+
+        if (config.containsKey(CONCURRENCY_LIMIT)) {
+            builder.withConcurrencyLimit(ConcurrencyLimitOptions.fromConfig(config.getJsonObject(CONCURRENCY_LIMIT)));
+        }
+
+        if (config.containsKey(MAX_RESPONSE_BYTES)) {
+            builder.withMaxResponseBytes(config.getLong(MAX_RESPONSE_BYTES));
+        }
+
+        Map<String, String> headers = parseHeaders(config);
+        if (headers != null) {
+            builder.withHeaders(headers);
         }
 
         if (config.containsKey(APIS)) {
@@ -112,21 +242,73 @@ public class ServiceClient {
                 JsonObject apiObject = apiArray.getJsonObject(pos);
                 String name = apiObject.getString(API_NAME);
                 long timeout = apiObject.getLong(TIMEOUT, NO_TIMEOUT);
-                builder.addApiTimeout(name, timeout);
+                builder.addApi(name, timeout, parseHeaders(apiObject));
+                if (apiObject.containsKey(CACHE_TTL)) {
+                    builder.withApiCacheTtl(name, apiObject.getLong(CACHE_TTL));
+                }
+                if (apiObject.containsKey(CONCURRENCY_LIMIT)) {
+                    builder.withApiConcurrencyLimit(name,
+                            ConcurrencyLimitOptions.fromConfig(apiObject.getJsonObject(CONCURRENCY_LIMIT)));
+                }
+                if (apiObject.containsKey(PRIORITY)) {
+                    builder.withApiPriority(name, Priority.fromConfig(apiObject.getString(PRIORITY)));
+                }
             }
         }
 
         return builder.build();
     }
 
-    private ServiceClient(HttpClient client, Map<String, Long> apiTimeouts, String host, Integer port, long timeout,
-              Map<String, String> headers) {
-        this.client = client;
-        this.apiTimeouts = apiTimeouts;
-        this.host = host;
-        this.port = port;
+    /**
+     * Parses the protocol from its configuration name, ie "http_2".
+     *
+     * @param name - configuration name.
+     * @return the http version
+     */
+    private static HttpVersion parseProtocol(String name) {
+        for (HttpVersion version : HttpVersion.values()) {
+            if (version.name().equalsIgnoreCase(name)) {
+                return version;
+            }
+        }
+        throw new IllegalArgumentException("Unknown protocol: " + name);
+    }
+
+    /**
+     * Parses the optional headers object from a json configuration.
+     *
+     * @param config - Json configuration holding a headers object.
+     * @return map of string key, string value pairs or null if no headers are defined.
+     */
+    private static Map<String, String> parseHeaders(JsonObject config) {
+        JsonObject headerConfig = config.getJsonObject(HEADERS, null);
+        if (headerConfig == null) {
+            return null;
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        headerConfig.forEach(entry -> headers.put(entry.getKey(), (String) entry.getValue()));
+        return headers;
+    }
+
+    private ServiceClient(Vertx vertx, Endpoint[] endpoints, LoadBalancer loadBalancer, HedgingPolicy hedging,
+                          RequestCoalescer coalescer, ResponseCacheLayer cache, ConcurrencyLimiter concurrencyLimiter,
+                          Map<String, ApiDescriptor> apis, long timeout, Map<String, String> headers,
+                          long maxResponseBytes, RequestCompressor compressor) {
+        this.vertx = vertx;
+        this.endpoints = endpoints;
+        this.loadBalancer = loadBalancer;
+        this.hedging = hedging;
+        this.coalescer = coalescer;
+        this.cache = cache;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.apis = apis;
+        this.host = endpoints[0].getHost();
+        this.port = endpoints[0].getPort();
         this.timeout = timeout;
-        this.headers = headers;
+        this.headers = new HeaderSet(headers);
+        this.maxResponseBytes = maxResponseBytes;
+        this.compressor = compressor;
     }
 
     /**
@@ -147,6 +329,15 @@ public class ServiceClient {
         return port;
     }
 
+    /**
+     * Gets the endpoints requests are balanced across, the first one is the configured host and port if set.
+     *
+     * @return unmodifiable list of endpoints
+     */
+    public List<Endpoint> getEndpoints() {
+        return Collections.unmodifiableList(Arrays.asList(endpoints));
+    }
+
     /**
      * Fluent Builder class to create objects of {@link ServiceClient}
      */
@@ -159,7 +350,31 @@ public class ServiceClient {
         private final Vertx vertx;
         private boolean ssl;
         private Map<String, Long> apiTimeouts = new HashMap<>();
+        private Map<String, Map<String, String>> apiHeaders = new HashMap<>();
         private Map<String, String> headers;
+        private List<String> endpointHosts = new ArrayList<>();
+        private List<Integer> endpointPorts = new ArrayList<>();
+        private LoadBalancer loadBalancer = LoadBalancer.LEAST_OUTSTANDING;
+        private CircuitBreakerOptions circuitBreakerOptions;
+        // hedging is off by default but requests can still opt in
+        private HedgingOptions hedgingOptions = new HedgingOptions().setEnabled(false);
+        private String[] coalescingKeyHeaders;
+        private ResponseCache responseCache;
+        private Map<String, Long> apiCacheTtls = new HashMap<>();
+        private long maxResponseBytes = DEFAULT_MAX_RESPONSE_BYTES;
+        private ConcurrencyLimitOptions concurrencyLimitOptions;
+        private HttpVersion protocol = HttpClientOptions.DEFAULT_PROTOCOL_VERSION;
+        private TransportOptions transportOptions;
+        private WarmupOptions warmupOptions;
+        private String localAddress;
+        private ClientMetrics metrics;
+        // prior knowledge by default, an upgrade costs an extra round trip on every new connection
+        private boolean http2ClearTextUpgrade = false;
+        private int http2MaxPoolSize = HttpClientOptions.DEFAULT_HTTP2_MAX_POOL_SIZE;
+        private int http2MultiplexingLimit = HttpClientOptions.DEFAULT_HTTP2_MULTIPLEXING_LIMIT;
+        private Map<String, ConcurrencyLimitOptions> apiConcurrencyLimits = new HashMap<>();
+        private Map<String, Priority> apiPriorities = new HashMap<>();
+        private RequestCompressionOptions requestCompressionOptions;
 
         public Builder(Vertx vertx) {
             this.vertx = vertx;
@@ -171,28 +386,87 @@ public class ServiceClient {
          * @return - instance of ServiceClient.
          */
         public ServiceClient build() {
-            HttpClientOptions options = new HttpClientOptions();
-
-            if (StringUtils.isNotBlank(host)) {
-                options.setDefaultHost(host);
-            } else {
-                throw new IllegalArgumentException("missing host parameter");
+            List<String> hosts = new ArrayList<>();
+            List<Integer> ports = new ArrayList<>();
+
+            // the host and port are optional when endpoints are added
+            if (endpointHosts.isEmpty() || StringUtils.isNotBlank(host)) {
+                if (StringUtils.isBlank(host)) {
+                    throw new IllegalArgumentException("missing host parameter");
+                }
+
+                if (port == 0) {
+                    throw new IllegalArgumentException("missing port parameter");
+                }
+                hosts.add(host);
+                ports.add(port);
             }
+            hosts.addAll(endpointHosts);
+            ports.addAll(endpointPorts);
 
-            if (port != 0) {
-                options.setDefaultPort(port);
-            } else {
-                throw new IllegalArgumentException("missing port parameter");
+            // each endpoint gets its own connection pool
+            int capacity = numConnections;
+            if (protocol == HttpVersion.HTTP_2) {
+                capacity = http2MultiplexingLimit > 0 ? http2MaxPoolSize * http2MultiplexingLimit : Integer.MAX_VALUE;
+            }
+            Endpoint[] endpoints = new Endpoint[hosts.size()];
+            for (int i = 0; i < endpoints.length; i++) {
+                HttpClientOptions options = new HttpClientOptions();
+                options.setDefaultHost(hosts.get(i));
+                options.setDefaultPort(ports.get(i));
+                options.setTryUseCompression(compression);
+                options.setMaxPoolSize(numConnections);
+                options.setSsl(ssl);
+                options.setProtocolVersion(protocol);
+                if (transportOptions != null) {
+                    transportOptions.apply(options);
+                }
+                if (protocol == HttpVersion.HTTP_2) {
+                    options.setHttp2MaxPoolSize(http2MaxPoolSize);
+                    options.setHttp2MultiplexingLimit(http2MultiplexingLimit);
+                    if (ssl) {
+                        options.setUseAlpn(true);
+                    } else {
+                        options.setHttp2ClearTextUpgrade(http2ClearTextUpgrade);
+                    }
+                }
+
+                CircuitBreaker breaker = circuitBreakerOptions != null
+                        ? new CircuitBreaker(hosts.get(i) + ":" + ports.get(i), circuitBreakerOptions) : null;
+
+                // create the http client;
+                endpoints[i] = new Endpoint(hosts.get(i), ports.get(i), vertx.createHttpClient(options), breaker,
+                        capacity);
             }
 
-            options.setTryUseCompression(compression);
-            options.setMaxPoolSize(numConnections);
-            options.setSsl(ssl);
-
-            // create the http client;
-            HttpClient client = vertx.createHttpClient(options);
-
-            return new ServiceClient(client, apiTimeouts, host, port, timeout, headers);
+            // resolve the per api settings once so the call path doesn't have to
+            Map<String, ApiDescriptor> apis = new HashMap<>();
+            apiTimeouts.forEach((name, apiTimeout) ->
+                    apis.put(name, new ApiDescriptor(name, apiTimeout, timeout, headers, apiHeaders.get(name),
+                            circuitBreakerOptions, apiCacheTtls.getOrDefault(name, 0L),
+                            apiConcurrencyLimits.get(name), apiPriorities.getOrDefault(name, Priority.NORMAL))));
+
+            RequestCoalescer coalescer = coalescingKeyHeaders != null
+                    ? new RequestCoalescer(vertx, coalescingKeyHeaders, maxResponseBytes) : null;
+
+            ResponseCacheLayer cache = responseCache != null
+                    ? new ResponseCacheLayer(vertx, responseCache, maxResponseBytes) : null;
+            ConcurrencyLimiter concurrencyLimiter = concurrencyLimitOptions != null
+                    ? new ConcurrencyLimiter(endpoints[0].toString(), concurrencyLimitOptions) : null;
+
+            ServiceClient client = new ServiceClient(vertx, endpoints, loadBalancer, new HedgingPolicy(hedgingOptions),
+                    coalescer, cache, concurrencyLimiter, apis, timeout, headers, maxResponseBytes,
+                    requestCompressionOptions != null ? new RequestCompressor(requestCompressionOptions) : null);
+
+            client.localAddress = localAddress;
+            client.metrics = metrics;
+            if (warmupOptions != null) {
+                int poolSize = protocol == HttpVersion.HTTP_2 ? http2MaxPoolSize : numConnections;
+                int connections = warmupOptions.getConnections() > 0
+                        ? Math.min(warmupOptions.getConnections(), poolSize) : poolSize;
+                client.warmUp(new ConnectionWarmer(vertx, endpoints, warmupOptions, connections));
+            }
+            return client;
         }
 
         /**
@@ -217,6 +491,135 @@ public class ServiceClient {
             return this;
         }
 
+        /**
+         * Adds another endpoint to balance requests across, in addition to the host and port if set.
+         *
+         * @param host - hostname of the endpoint.
+         * @param port - port of the endpoint.
+         * @return - reference to Builder object.
+         */
+        public Builder addEndpoint(String host, int port) {
+            if (StringUtils.isBlank(host) || port <= 0) {
+                throw new IllegalArgumentException("Invalid endpoint: " + host + ":" + port);
+            }
+            endpointHosts.add(host);
+            endpointPorts.add(port);
+            return this;
+        }
+
+        /**
+         * Sets how an endpoint is picked for each request when there are multiple endpoints.
+         * Defaults to {@link LoadBalancer#LEAST_OUTSTANDING}.
+         *
+         * @param loadBalancer - the load balancing strategy.
+         * @return - reference to Builder object.
+         */
+        public Builder withLoadBalancer(LoadBalancer loadBalancer) {
+            if (loadBalancer == null) {
+                throw new IllegalArgumentException("load balancer can not be null");
+            }
+            this.loadBalancer = loadBalancer;
+            return this;
+        }
+
+        /**
+         * Enables circuit breaking. Each endpoint gets a breaker that ejects it from load balancing while open and each
+         * named api gets a breaker that fails its calls fast while open. When every endpoint is ejected all calls fail
+         * fast.
+         *
+         * Rejected calls are failed with a {@link CircuitOpenException} on the exception handler without being sent.
+         *
+         * @param circuitBreakerOptions - breaker settings.
+         * @return - reference to Builder object.
+         */
+        public Builder withCircuitBreaker(CircuitBreakerOptions circuitBreakerOptions) {
+            this.circuitBreakerOptions = circuitBreakerOptions;
+            return this;
+        }
+
+        /**
+         * Enables hedging of idempotent calls, see {@link HedgingOptions}. Without it requests can still opt in with
+         * {@link ServiceRequest#setHedged(Boolean)} using the default options.
+         *
+         * @param hedgingOptions - hedging settings.
+         * @return - reference to Builder object.
+         */
+        public Builder withHedging(HedgingOptions hedgingOptions) {
+            if (hedgingOptions == null) {
+                throw new IllegalArgumentException("hedging options can not be null");
+            }
+            this.hedgingOptions = hedgingOptions;
+            return this;
+        }
+
+        /**
+         * Enables coalescing of identical GET and HEAD calls. While a call is in flight identical calls share its
+         * request instead of sending their own, every call gets the buffered response.
+         *
+         * Calls are identical when they have the same api, path and values for the key headers, the headers that
+         * change the response such as authorization headers must be listed here.
+         *
+         * @param keyHeaders - names of request headers that must match for calls to be shared.
+         * @return - reference to Builder object.
+         */
+        public Builder withCoalescing(String... keyHeaders) {
+            this.coalescingKeyHeaders = keyHeaders;
+            return this;
+        }
+
+        /**
+         * Enables caching of GET responses. Responses are cached according to their Cache-Control and Expires headers,
+         * or the cache ttl of their api, and revalidated with their ETag or Last-Modified header once stale.
+         *
+         * @param responseCache - where responses are stored, ie a {@link LruResponseCache}.
+         * @return - reference to Builder object.
+         */
+        public Builder withResponseCache(ResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
+        /**
+         * Sets how long responses of an api that have no Cache-Control or Expires header are cached, only used when a
+         * response cache is set.
+         *
+         * @param name - api name, the api must already be added.
+         * @param cacheTtl - ttl in milliseconds, 0 means they are not cached.
+         * @return - reference to Builder object.
+         */
+        public Builder withApiCacheTtl(String name, long cacheTtl) {
+            if (!apiTimeouts.containsKey(name)) {
+                throw new IllegalArgumentException("api by name " + name + " has not been added to builder");
+            }
+
+            if (cacheTtl < 0L) {
+                throw new IllegalArgumentException("Invalid cache ttl value: " + cacheTtl + " for api: " + name);
+            }
+            apiCacheTtls.put(name, cacheTtl);
+            return this;
+        }
+
+        /**
+         * Sets the priority lane of calls to an api that don't set their own. Lanes only matter while calls queue for a
+         * concurrency limit, higher priorities get more of the freed slots and lower priorities are shed first when the
+         * queue is full.
+         *
+         * @param name - api name, the api must already be added.
+         * @param priority - priority of calls to the api.
+         * @return - reference to Builder object.
+         */
+        public Builder withApiPriority(String name, Priority priority) {
+            if (!apiTimeouts.containsKey(name)) {
+                throw new IllegalArgumentException("api by name " + name + " has not been added to builder");
+            }
+
+            if (priority == null) {
+                throw new IllegalArgumentException("Invalid priority for api: " + name);
+            }
+            apiPriorities.put(name, priority);
+            return this;
+        }
+
         /**
          * Sets the compression
          *
@@ -229,7 +632,19 @@ public class ServiceClient {
         }
 
         /**
-         * Sets the number of connections in connection pool for the client
+         * Enables compressing request bodies at or over a size, the service must accept the Content-Encoding.
+         * Streamed bodies and bodies that already have a Content-Encoding header are sent as they are.
+         *
+         * @param requestCompressionOptions - compression settings.
+         * @return - reference to Builder object.
+         */
+        public Builder withRequestCompression(RequestCompressionOptions requestCompressionOptions) {
+            this.requestCompressionOptions = requestCompressionOptions;
+            return this;
+        }
+
+        /**
+         * Sets the number of connections in connection pool for the client, each endpoint gets a pool of this size.
          *
          * @param numConnections - connection pool size.
          * @return - reference to Builder object.
@@ -252,6 +667,160 @@ public class ServiceClient {
             return this;
         }
 
+        /**
+         * Enables an adaptive limit on the calls the client has in flight. Calls over the limit wait in a bounded queue
+         * and are rejected with a {@link LimitExceededException} once it is full.
+         *
+         * @param concurrencyLimitOptions - limiter settings.
+         * @return - reference to Builder object.
+         */
+        public Builder withConcurrencyLimit(ConcurrencyLimitOptions concurrencyLimitOptions) {
+            this.concurrencyLimitOptions = concurrencyLimitOptions;
+            return this;
+        }
+
+        /**
+         * Enables an adaptive limit on the calls in flight to one api, on top of the client limit if one is set.
+         *
+         * @param name - api name, the api must already be added.
+         * @param concurrencyLimitOptions - limiter settings.
+         * @return - reference to Builder object.
+         */
+        public Builder withApiConcurrencyLimit(String name, ConcurrencyLimitOptions concurrencyLimitOptions) {
+            if (!apiTimeouts.containsKey(name)) {
+                throw new IllegalArgumentException("api by name " + name + " has not been added to builder");
+            }
+            apiConcurrencyLimits.put(name, concurrencyLimitOptions);
+            return this;
+        }
+
+        /**
+         * Sets the largest response body read by {@link ServiceClient#readBody(HttpClientResponse, Handler)} and
+         * {@link ServiceClient#readJson(HttpClientResponse, Class, Handler)}.
+         *
+         * @param maxResponseBytes - size in bytes up to {@link Integer#MAX_VALUE}, defaults to
+         *                         {@link #DEFAULT_MAX_RESPONSE_BYTES}.
+         * @return - reference to Builder object.
+         */
+        public Builder withMaxResponseBytes(long maxResponseBytes) {
+            // a body is held in a single buffer
+            if (maxResponseBytes < 1L || maxResponseBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid max response bytes value: " + maxResponseBytes);
+            }
+            this.maxResponseBytes = maxResponseBytes;
+            return this;
+        }
+
+        /**
+         * Sets the http protocol version. With {@link HttpVersion#HTTP_2} calls are multiplexed over a few connections
+         * per endpoint, negotiated with ALPN when ssl is set and cleartext (h2c) otherwise.
+         *
+         * @param protocol - protocol version, defaults to {@link HttpVersion#HTTP_1_1}.
+         * @return - reference to Builder object.
+         */
+        public Builder withProtocol(HttpVersion protocol) {
+            if (protocol == null) {
+                throw new IllegalArgumentException("Invalid protocol: null");
+            }
+            this.protocol = protocol;
+            return this;
+        }
+
+        /**
+         * Sets socket level settings for the connections to every endpoint.
+         *
+         * @param transportOptions - socket settings.
+         * @return - reference to Builder object.
+         */
+        public Builder withTransport(TransportOptions transportOptions) {
+            this.transportOptions = transportOptions;
+            return this;
+        }
+
+        /**
+         * Opens connections to every endpoint when the client is built instead of on the first calls, see
+         * {@link ServiceClient#ready(Handler)}.
+         *
+         * @param warmupOptions - warmup settings.
+         * @return - reference to Builder object.
+         */
+        public Builder withWarmup(WarmupOptions warmupOptions) {
+            this.warmupOptions = warmupOptions;
+            return this;
+        }
+
+        /**
+         * Calls the service in the same vert.x instance while it is registered at an address with
+         * {@link LocalTransport}, skipping HTTP altogether. The host and port are still required, calls go over HTTP
+         * while nothing is registered at the address. Streamed calls always go over HTTP. Local calls skip the
+         * circuit breakers, hedging and compression.
+         *
+         * @param localAddress - the address the service registers at.
+         * @return - reference to Builder object.
+         */
+        public Builder withLocalAddress(String localAddress) {
+            if (StringUtils.isBlank(localAddress)) {
+                throw new IllegalArgumentException("Invalid local address: " + localAddress);
+            }
+            this.localAddress = localAddress;
+            return this;
+        }
+
+        /**
+         * Records telemetry for every request sent over HTTP, see {@link InMemoryClientMetrics} for the default.
+         *
+         * @param metrics - the metrics implementation.
+         * @return - reference to Builder object.
+         */
+        public Builder withMetrics(ClientMetrics metrics) {
+            if (metrics == null) {
+                throw new IllegalArgumentException("Invalid metrics: null");
+            }
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets how cleartext HTTP/2 connections are opened, only used with {@link HttpVersion#HTTP_2} without ssl.
+         *
+         * @param http2ClearTextUpgrade - true to upgrade from an HTTP/1.1 request, false to speak HTTP/2 right away
+         *                              which needs a server known to support it.
+         * @return - reference to Builder object.
+         */
+        public Builder withHttp2ClearTextUpgrade(boolean http2ClearTextUpgrade) {
+            this.http2ClearTextUpgrade = http2ClearTextUpgrade;
+            return this;
+        }
+
+        /**
+         * Sets the number of HTTP/2 connections per endpoint, used instead of the number of connections with
+         * {@link HttpVersion#HTTP_2}.
+         *
+         * @param http2MaxPoolSize - number of connections.
+         * @return - reference to Builder object.
+         */
+        public Builder withHttp2MaxPoolSize(int http2MaxPoolSize) {
+            if (http2MaxPoolSize < 1) {
+                throw new IllegalArgumentException("Invalid http2 max pool size: " + http2MaxPoolSize);
+            }
+            this.http2MaxPoolSize = http2MaxPoolSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of streams multiplexed over one HTTP/2 connection.
+         *
+         * @param http2MultiplexingLimit - number of streams, -1 means the limit the server advertises.
+         * @return - reference to Builder object.
+         */
+        public Builder withHttp2MultiplexingLimit(int http2MultiplexingLimit) {
+            if (http2MultiplexingLimit == 0 || http2MultiplexingLimit < -1) {
+                throw new IllegalArgumentException("Invalid http2 multiplexing limit: " + http2MultiplexingLimit);
+            }
+            this.http2MultiplexingLimit = http2MultiplexingLimit;
+            return this;
+        }
+
         /**
          * Sets the ssl on client.
          *
@@ -284,6 +853,18 @@ public class ServiceClient {
          * @return - reference to Builder object.
          */
         public Builder addApiTimeout(String name, long timeout) {
+            return addApi(name, timeout, null);
+        }
+
+        /**
+         * Adds the api to the builder
+         *
+         * @param name - api name used for subsequent usage to call api.
+         * @param timeout - timeout in milliseconds. timeout with value 0 means use the client timeout.
+         * @param headers - headers to be sent on every call to the api, these override client headers. May be null.
+         * @return - reference to Builder object
+         */
+        public Builder addApi(String name, long timeout, Map<String, String> headers) {
             if (timeout < 0L) {
                 throw new IllegalArgumentException("Invalid timeout value: " + timeout + " for api: " + name);
             }
@@ -293,6 +874,9 @@ public class ServiceClient {
             }
 
             apiTimeouts.put(name, timeout);
+            if (headers != null) {
+                apiHeaders.put(name, headers);
+            }
             return this;
         }
     }
@@ -309,76 +893,74 @@ public class ServiceClient {
      */
     public void call(HttpMethod httpMethod, String path, byte[] payload, long timeout, Handler<HttpClientResponse> responseHandler,
                      Handler<Throwable> exceptionHandler) {
-        HttpClientRequest request = client.request(httpMethod, path, responseHandler)
-                .exceptionHandler(exceptionHandler)
-                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
-                .putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(payload.length))
-                .write(Buffer.buffer(payload))
-                .setTimeout(timeout);
-
-        if (headers != null && headers.size() > 0) {
-            headers.forEach((key, value) -> request.putHeader(key, value));
-        }
-
-        request.end();
+        call(httpMethod, path, toBuffer(payload), timeout, responseHandler, exceptionHandler);
     }
 
     /**
-     * Calls the service api
+     * Calls the service api, sending the buffer as is without copying it.
      *
      * @param httpMethod       - HTTP method for the request
      * @param path             - the absolute URI path
-     * @param serviceRequest   - service request object
+     * @param payload          - payload sent in the call.
+     * @param timeout          - timeout in millis
      * @param responseHandler  -  response handler
      * @param exceptionHandler -  exception handler
      */
-    public void call(HttpMethod httpMethod, String path, ServiceRequest serviceRequest, Handler<HttpClientResponse> responseHandler,
-                     Handler<Throwable> exceptionHandler) {
-
-        HttpClientRequest request = client.request(httpMethod, path, responseHandler)
-                .exceptionHandler(exceptionHandler)
-                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
-                .putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(
-                        serviceRequest.hasPayload() ? serviceRequest.getPayload().length : EMPTY_REQUEST.length()));
-
-
-        if (serviceRequest.hasTimeout()) {
-            request.setTimeout(serviceRequest.getTimeout());
-        }
-
-        if (headers != null && headers.size() > 0) {
-            headers.forEach((key, value) -> request.putHeader(key, value));
-        }
-
-        if (serviceRequest.hasHeaders()) {
-            serviceRequest.getHeaders().forEach((key, value) -> request.putHeader(key, value));
-        }
-
-        request.end();
+    public void call(HttpMethod httpMethod, String path, Buffer payload, long timeout,
+                     Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler) {
+        send(new RequestSpec(null, httpMethod, path, payload, timeout, null), null, responseHandler, exceptionHandler);
     }
 
     /**
-     * Calls the service api
+     * Calls the service api, piping the stream as a chunked request body. The stream is paused whenever the
+     * connection can't keep up. The body is sent chunked unless a Content-Length header is given in the headers.
+     *
+     * Streamed calls are never hedged, retried, coalesced or cached since the stream can only be read once.
      *
      * @param httpMethod       - HTTP method for the request
      * @param path             - the absolute URI path
-     * @param payload          - payload sent in the call.
+     * @param stream           - stream of the request body
+     * @param timeout          - timeout in millis
+     * @param headers          - headers for this request, may be null
      * @param responseHandler  -  response handler
-     * @param exceptionHandler -  exception handler
+     * @param exceptionHandler -  exception handler, also called if the stream fails
      */
-    public void call(HttpMethod httpMethod, String path, byte[] payload, Handler<HttpClientResponse> responseHandler,
+    public void call(HttpMethod httpMethod, String path, ReadStream<Buffer> stream, long timeout,
+                     Map<String, String> headers, Handler<HttpClientResponse> responseHandler,
                      Handler<Throwable> exceptionHandler) {
-        HttpClientRequest request = client.request(httpMethod, path, responseHandler)
-                .exceptionHandler(exceptionHandler)
-                .putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
-                .putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(payload.length))
-                .write(Buffer.buffer(payload));
+        // nothing reads the stream until the request is sent
+        stream.pause();
+        send(new RequestSpec(null, httpMethod, path, stream, timeout, headers), null, responseHandler,
+                exceptionHandler);
+    }
 
-        if (headers != null && headers.size() > 0) {
-            headers.forEach((key, value) -> request.putHeader(key, value));
-        }
+    /**
+     * Calls the service api
+     *
+     * @param httpMethod       - HTTP method for the request
+     * @param path             - the absolute URI path
+     * @param serviceRequest   - service request object
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    public void call(HttpMethod httpMethod, String path, ServiceRequest serviceRequest, Handler<HttpClientResponse> responseHandler,
+                     Handler<Throwable> exceptionHandler) {
+        send(toSpec(null, httpMethod, path, serviceRequest), serviceRequest.getHedged(), responseHandler,
+                exceptionHandler);
+    }
 
-        request.end();
+    /**
+     * Calls the service api
+     *
+     * @param httpMethod       - HTTP method for the request
+     * @param path             - the absolute URI path
+     * @param payload          - payload sent in the call.
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    public void call(HttpMethod httpMethod, String path, byte[] payload, Handler<HttpClientResponse> responseHandler,
+                     Handler<Throwable> exceptionHandler) {
+        call(httpMethod, path, toBuffer(payload), NO_TIMEOUT, responseHandler, exceptionHandler);
     }
 
     /**
@@ -391,7 +973,7 @@ public class ServiceClient {
      */
     public void call(HttpMethod httpMethod, String path, Handler<HttpClientResponse> responseHandler,
                      Handler<Throwable> exceptionHandler) {
-        call(httpMethod, path, EMPTY_REQUEST.getBytes(), responseHandler, exceptionHandler);
+        call(httpMethod, path, EMPTY_PAYLOAD, NO_TIMEOUT, responseHandler, exceptionHandler);
     }
 
     /**
@@ -405,7 +987,563 @@ public class ServiceClient {
      */
     public void call(HttpMethod httpMethod, String path, long timeout, Handler<HttpClientResponse> responseHandler,
                      Handler<Throwable> exceptionHandler) {
-        call(httpMethod, path, EMPTY_REQUEST.getBytes(), timeout, responseHandler, exceptionHandler);
+        call(httpMethod, path, EMPTY_PAYLOAD, timeout, responseHandler, exceptionHandler);
+    }
+
+    /**
+     * Calls a named api, applying the timeout and headers configured for it.
+     *
+     * @param api              - api descriptor from {@link #getApi(String)}
+     * @param httpMethod       - HTTP method for the request
+     * @param path             - the absolute URI path
+     * @param payload          - payload sent in the call.
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    public void call(ApiDescriptor api, HttpMethod httpMethod, String path, byte[] payload,
+                     Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler) {
+        call(api, httpMethod, path, toBuffer(payload), responseHandler, exceptionHandler);
+    }
+
+    /**
+     * Calls a named api, applying the timeout and headers configured for it. The buffer is sent as is without copying
+     * it.
+     *
+     * @param api              - api descriptor from {@link #getApi(String)}
+     * @param httpMethod       - HTTP method for the request
+     * @param path             - the absolute URI path
+     * @param payload          - payload sent in the call.
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    public void call(ApiDescriptor api, HttpMethod httpMethod, String path, Buffer payload,
+                     Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler) {
+        send(new RequestSpec(api, httpMethod, path, payload, api.getTimeout(), null), null, responseHandler,
+                exceptionHandler);
+    }
+
+    /**
+     * Calls a named api, applying the timeout and headers configured for it and piping the stream as a chunked request
+     * body. See {@link #call(HttpMethod, String, ReadStream, long, Map, Handler, Handler)}.
+     *
+     * @param api              - api descriptor from {@link #getApi(String)}
+     * @param httpMethod       - HTTP method for the request
+     * @param path             - the absolute URI path
+     * @param stream           - stream of the request body
+     * @param headers          - headers for this request, may be null
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler, also called if the stream fails
+     */
+    public void call(ApiDescriptor api, HttpMethod httpMethod, String path, ReadStream<Buffer> stream,
+                     Map<String, String> headers, Handler<HttpClientResponse> responseHandler,
+                     Handler<Throwable> exceptionHandler) {
+        // nothing reads the stream until the request is sent
+        stream.pause();
+        send(new RequestSpec(api, httpMethod, path, stream, api.getTimeout(), headers), null, responseHandler,
+                exceptionHandler);
+    }
+
+    /**
+     * Calls a named api, applying the timeout and headers configured for it. Timeout and headers set on the service
+     * request take precedence over the api settings.
+     *
+     * @param api              - api descriptor from {@link #getApi(String)}
+     * @param httpMethod       - HTTP method for the request
+     * @param path             - the absolute URI path
+     * @param serviceRequest   - service request object
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    public void call(ApiDescriptor api, HttpMethod httpMethod, String path, ServiceRequest serviceRequest,
+                     Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler) {
+        send(toSpec(api, httpMethod, path, serviceRequest), serviceRequest.getHedged(), responseHandler,
+                exceptionHandler);
+    }
+
+    /**
+     * Calls a named api, applying the timeout and headers configured for it.
+     *
+     * Prefer holding on to the {@link ApiDescriptor} and using
+     * {@link #call(ApiDescriptor, HttpMethod, String, byte[], Handler, Handler)} on hot paths.
+     *
+     * @param apiName          - name of a configured api
+     * @param httpMethod       - HTTP method for the request
+     * @param path             - the absolute URI path
+     * @param payload          - payload sent in the call.
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    public void call(String apiName, HttpMethod httpMethod, String path, byte[] payload,
+                     Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler) {
+        call(getApi(apiName), httpMethod, path, payload, responseHandler, exceptionHandler);
+    }
+
+    /**
+     * Calls a named api, applying the timeout and headers configured for it.
+     *
+     * @param apiName          - name of a configured api
+     * @param httpMethod       - HTTP method for the request
+     * @param path             - the absolute URI path
+     * @param serviceRequest   - service request object
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    public void call(String apiName, HttpMethod httpMethod, String path, ServiceRequest serviceRequest,
+                     Handler<HttpClientResponse> responseHandler, Handler<Throwable> exceptionHandler) {
+        call(getApi(apiName), httpMethod, path, serviceRequest, responseHandler, exceptionHandler);
+    }
+
+    /**
+     * Calls a named api and decodes the json response into an object. Responses with a status other than 2xx fail with
+     * an {@link UnexpectedStatusException}, bodies over the client's max response bytes with a
+     * {@link ResponseTooLargeException}.
+     *
+     * @param api        - api descriptor from {@link #getApi(String)}
+     * @param httpMethod - HTTP method for the request
+     * @param path       - the absolute URI path
+     * @param payload    - payload sent in the call.
+     * @param clazz      - the class to decode the response into, {@link Buffer} for the raw body
+     * @param <T>        - decoded type
+     * @return future completed with the decoded object, null for an empty body
+     */
+    public <T> Future<T> callForObject(ApiDescriptor api, HttpMethod httpMethod, String path, Buffer payload,
+                                       Class<T> clazz) {
+        return sendForObject(new RequestSpec(api, httpMethod, path, payload, api.getTimeout(), null), null, clazz);
+    }
+
+    /**
+     * Calls a named api and decodes the json response into an object. See
+     * {@link #callForObject(ApiDescriptor, HttpMethod, String, Buffer, Class)}.
+     *
+     * @param api        - api descriptor from {@link #getApi(String)}
+     * @param httpMethod - HTTP method for the request
+     * @param path       - the absolute URI path
+     * @param payload    - payload sent in the call.
+     * @param clazz      - the class to decode the response into
+     * @param handler    - gets the decoded object or the failure
+     * @param <T>        - decoded type
+     */
+    public <T> void callForObject(ApiDescriptor api, HttpMethod httpMethod, String path, Buffer payload,
+                                  Class<T> clazz, Handler<ResultContext<T>> handler) {
+        toResultContext(callForObject(api, httpMethod, path, payload, clazz), handler);
+    }
+
+    /**
+     * Calls a named api and decodes the json response into an object. Timeout and headers set on the service request
+     * take precedence over the api settings. See
+     * {@link #callForObject(ApiDescriptor, HttpMethod, String, Buffer, Class)}.
+     *
+     * @param api            - api descriptor from {@link #getApi(String)}
+     * @param httpMethod     - HTTP method for the request
+     * @param path           - the absolute URI path
+     * @param serviceRequest - service request object
+     * @param clazz          - the class to decode the response into
+     * @param handler        - gets the decoded object or the failure
+     * @param <T>            - decoded type
+     */
+    public <T> void callForObject(ApiDescriptor api, HttpMethod httpMethod, String path, ServiceRequest serviceRequest,
+                                  Class<T> clazz, Handler<ResultContext<T>> handler) {
+        toResultContext(sendForObject(toSpec(api, httpMethod, path, serviceRequest), serviceRequest.getHedged(), clazz),
+                handler);
+    }
+
+    /**
+     * Calls the service and decodes the json response into an object. See
+     * {@link #callForObject(ApiDescriptor, HttpMethod, String, Buffer, Class)}.
+     *
+     * @param httpMethod     - HTTP method for the request
+     * @param path           - the absolute URI path
+     * @param serviceRequest - service request object
+     * @param clazz          - the class to decode the response into
+     * @param handler        - gets the decoded object or the failure
+     * @param <T>            - decoded type
+     */
+    public <T> void callForObject(HttpMethod httpMethod, String path, ServiceRequest serviceRequest, Class<T> clazz,
+                                  Handler<ResultContext<T>> handler) {
+        toResultContext(sendForObject(toSpec(null, httpMethod, path, serviceRequest), serviceRequest.getHedged(),
+                clazz), handler);
+    }
+
+    /**
+     * Resolves a {@link ServiceRequest} into the spec of the call.
+     *
+     * @param api            - the named api called, null for calls without an api
+     * @param httpMethod     - HTTP method for the request
+     * @param path           - the absolute URI path
+     * @param serviceRequest - service request object
+     * @return the spec
+     */
+    private static RequestSpec toSpec(ApiDescriptor api, HttpMethod httpMethod, String path,
+                                      ServiceRequest serviceRequest) {
+        long timeout = api == null || serviceRequest.hasTimeout() ? serviceRequest.getTimeout() : api.getTimeout();
+        return new RequestSpec(api, httpMethod, path, toBuffer(serviceRequest.getPayload()), timeout,
+                serviceRequest.hasHeaders() ? serviceRequest.getHeaders() : null)
+                .withPriority(serviceRequest.getPriority()).withDeadline(serviceRequest.getDeadline());
+    }
+
+    /**
+     * Sends the call and decodes the response body from the buffer it was read into.
+     *
+     * @param spec   - the call to send
+     * @param hedged - per request hedging setting, null to use the client setting
+     * @param clazz  - the class to decode the response into, {@link Buffer} for the raw body
+     * @param <T>    - decoded type
+     * @return future completed once with the decoded object or the failure
+     */
+    <T> Future<T> sendForObject(RequestSpec spec, Boolean hedged, Class<T> clazz) {
+        Future<T> future = Future.future();
+        send(spec, hedged, response -> {
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                ResponseReader.discard(response);
+                future.fail(new UnexpectedStatusException(response.statusCode(), response.statusMessage()));
+                return;
+            }
+
+            if (clazz == Buffer.class) {
+                // raw bodies are handed over as read
+                ResponseReader.readBody(response, maxResponseBytes, result -> {
+                    if (!future.isComplete()) {
+                        if (result.succeeded()) {
+                            future.complete(clazz.cast(result.result()));
+                        } else {
+                            future.fail(result.cause());
+                        }
+                    }
+                });
+                return;
+            }
+
+            ResponseReader.readJson(response, maxResponseBytes, clazz, result -> {
+                if (!future.isComplete()) {
+                    future.completer().handle(result);
+                }
+            });
+        }, error -> {
+            // the connection can still fail after the response arrived, only the first outcome counts
+            if (!future.isComplete()) {
+                future.fail(error);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Sends a batch of calls with at most max parallel calls in flight and collects their decoded responses. A failed
+     * call doesn't affect the others, its result holds the failure. Calls not answered by the deadline fail with a
+     * {@link java.util.concurrent.TimeoutException}, calls not sent by then are skipped.
+     *
+     * @param requests    - the calls
+     * @param clazz       - the class to decode each response into, {@link Buffer} for the raw bodies
+     * @param maxParallel - the most calls in flight at once
+     * @param deadline    - time in milliseconds for the whole batch, 0 means no deadline
+     * @param handler     - gets one result per call, in the order of the requests
+     * @param <T>         - decoded type
+     */
+    public <T> void fanOut(List<FanOutRequest> requests, Class<T> clazz, int maxParallel, long deadline,
+                           Handler<List<ResultContext<T>>> handler) {
+        if (maxParallel < 1) {
+            throw new IllegalArgumentException("Invalid max parallel value: " + maxParallel);
+        }
+        if (deadline < 0L) {
+            throw new IllegalArgumentException("Invalid deadline value: " + deadline);
+        }
+        new FanOut<>(this, vertx, requests, clazz, maxParallel, deadline, handler).start();
+    }
+
+    private static <T> void toResultContext(Future<T> future, Handler<ResultContext<T>> handler) {
+        future.setHandler(result -> handler.handle(result.succeeded() ? new ResultContext<>(true, result.result())
+                : new ResultContext<>(result.cause(), result.cause().getMessage())));
+    }
+
+    /**
+     * Sends the call, serving it from the response cache if enabled.
+     *
+     * @param spec             - the call to send
+     * @param hedged           - per request hedging setting, null to use the client setting
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    private void send(RequestSpec spec, Boolean hedged, Handler<HttpClientResponse> responseHandler,
+                      Handler<Throwable> exceptionHandler) {
+        if (cache != null && cache.canCache(spec)) {
+            cache.call(spec, (uncached, uncachedResponseHandler, uncachedExceptionHandler) ->
+                    sendUncached(uncached, hedged, uncachedResponseHandler, uncachedExceptionHandler),
+                    responseHandler, exceptionHandler);
+        } else {
+            sendUncached(spec, hedged, responseHandler, exceptionHandler);
+        }
+    }
+
+    /**
+     * Sends the call, sharing it with identical calls in flight if enabled.
+     *
+     * @param spec             - the call to send
+     * @param hedged           - per request hedging setting, null to use the client setting
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    private void sendUncached(RequestSpec spec, Boolean hedged, Handler<HttpClientResponse> responseHandler,
+                              Handler<Throwable> exceptionHandler) {
+        if (coalescer != null && coalescer.canCoalesce(spec)) {
+            coalescer.call(spec, (shared, sharedResponseHandler, sharedExceptionHandler) ->
+                    dispatch(shared, hedged, sharedResponseHandler, sharedExceptionHandler),
+                    responseHandler, exceptionHandler);
+        } else {
+            dispatch(spec, hedged, responseHandler, exceptionHandler);
+        }
+    }
+
+    /**
+     * Sends the call once it is under the concurrency limits, if enabled.
+     *
+     * @param spec             - the call to send
+     * @param hedged           - per request hedging setting, null to use the client setting
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    private void dispatch(RequestSpec spec, Boolean hedged, Handler<HttpClientResponse> responseHandler,
+                          Handler<Throwable> exceptionHandler) {
+        // don't take a slot for a call nobody waits for anymore
+        if (spec.remaining(System.currentTimeMillis()) == 0L) {
+            reject(spec, deadlineExceeded(spec), exceptionHandler);
+            return;
+        }
+
+        ConcurrencyLimiter apiLimiter = spec.api != null ? spec.api.getConcurrencyLimiter() : null;
+        if (apiLimiter == null && concurrencyLimiter == null) {
+            dispatchNow(spec, hedged, responseHandler, exceptionHandler);
+            return;
+        }
+
+        LimitedCall call = new LimitedCall(apiLimiter, concurrencyLimiter);
+        call.start(spec.resolvePriority(), () -> dispatchNow(spec, hedged, call.responseHandler(responseHandler),
+                call.exceptionHandler(exceptionHandler)), error -> reject(spec, error, exceptionHandler));
+    }
+
+    /**
+     * Sends the call, hedging it if enabled.
+     *
+     * @param spec             - the call to send
+     * @param hedged           - per request hedging setting, null to use the client setting
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    private void dispatchNow(RequestSpec spec, Boolean hedged, Handler<HttpClientResponse> responseHandler,
+                             Handler<Throwable> exceptionHandler) {
+        if (localAddress != null && !spec.isStreamed() && LocalTransport.isRegistered(vertx, localAddress)) {
+            sendLocal(spec, responseHandler, exceptionHandler);
+            return;
+        }
+
+        if (compressor != null && compressor.shouldCompress(spec, spec.api != null ? spec.api.headerSet() : headers)) {
+            // compressed once for all attempts
+            spec = compressor.compressCall(spec);
+        }
+
+        // a stream can only be read once so streamed calls are never resent
+        if (!spec.isStreamed() && hedging.shouldHedge(spec.method, hedged)) {
+            new HedgedCall(this, vertx, hedging, spec, responseHandler, exceptionHandler).start();
+        } else {
+            sendAttempt(spec, spec.timeout, responseHandler, exceptionHandler);
+        }
+    }
+
+    /**
+     * Builds and sends a single request for a call.
+     *
+     * @param spec             - the call to send
+     * @param timeout          - timeout in millis, 0 means no timeout
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     * @return the pending request or null if it was rejected without being sent
+     */
+    PendingRequest sendAttempt(RequestSpec spec, long timeout, Handler<HttpClientResponse> responseHandler,
+                               Handler<Throwable> exceptionHandler) {
+        long remaining = spec.remaining(System.currentTimeMillis());
+        if (remaining == 0L) {
+            reject(spec, deadlineExceeded(spec), exceptionHandler);
+            return null;
+        }
+        if (remaining > 0L) {
+            timeout = timeout > 0L ? Math.min(timeout, remaining) : remaining;
+        }
+
+        ApiDescriptor api = spec.api;
+        CircuitBreaker apiBreaker = api != null ? api.getCircuitBreaker() : null;
+        long apiPermit = apiBreaker != null ? apiBreaker.tryAcquire() : 0L;
+        if (apiPermit == CircuitBreaker.REJECTED) {
+            reject(spec, apiBreaker.rejection(), exceptionHandler);
+            return null;
+        }
+
+        // pick the endpoint, skipping endpoints ejected by their circuit breaker
+        Endpoint endpoint = endpoints.length == 1 ? endpoints[0] : loadBalancer.select(endpoints);
+        long endpointPermit = endpoint.tryAcquire();
+        if (endpointPermit == CircuitBreaker.REJECTED) {
+            // fall back to any other endpoint, starting at a random one so the load stays spread out
+            Endpoint selected = endpoint;
+            endpoint = null;
+            int start = endpoints.length > 1 ? ThreadLocalRandom.current().nextInt(endpoints.length) : 0;
+            for (int i = 0; i < endpoints.length && endpoint == null; i++) {
+                Endpoint candidate = endpoints[(start + i) % endpoints.length];
+                if (candidate != selected) {
+                    endpointPermit = candidate.tryAcquire();
+                    endpoint = endpointPermit != CircuitBreaker.REJECTED ? candidate : null;
+                }
+            }
+        }
+        if (endpoint == null) {
+            if (apiBreaker != null) {
+                apiBreaker.cancel(apiPermit);
+            }
+            reject(spec, new CircuitOpenException("circuit breakers for all endpoints of " + host + " are open"),
+                    exceptionHandler);
+            return null;
+        }
+
+        HeaderSet defaultHeaders = api != null ? api.headerSet() : headers;
+        PendingRequest pending = new PendingRequest(endpoint, endpointPermit, api, apiPermit, metrics,
+                responseHandler, exceptionHandler);
+
+        HttpClientRequest request = endpoint.client().request(spec.method, spec.path, pending::handleResponse)
+                .exceptionHandler(pending::handleException)
+                .putHeader(HttpHeaders.CONTENT_TYPE, APPLICATION_JSON);
+        if (!spec.isStreamed()) {
+            int length = spec.payload.length();
+            request.putHeader(HttpHeaders.CONTENT_LENGTH, length == 0 ? ZERO_LENGTH : Integer.toString(length));
+        }
+        pending.setRequest(request);
+
+        if (timeout > 0L) {
+            request.setTimeout(timeout);
+        }
+
+        defaultHeaders.apply(request);
+
+        if (remaining > 0L) {
+            // the service can give up when this call does
+            request.putHeader(DEADLINE_HEADER, Long.toString(timeout));
+        }
+
+        if (spec.headers != null) {
+            for (Map.Entry<String, String> header : spec.headers.entrySet()) {
+                request.putHeader(header.getKey(), header.getValue());
+            }
+        }
+
+        if (spec.isStreamed()) {
+            pipe(spec.stream, request, pending);
+        } else {
+            request.end(spec.payload);
+        }
+        return pending;
+    }
+
+    /**
+     * Hands a call to the service registered at the local address. Local calls skip the circuit breakers, see
+     * {@link LocalTransport}.
+     *
+     * @param spec             - the call to send
+     * @param responseHandler  -  response handler
+     * @param exceptionHandler -  exception handler
+     */
+    private void sendLocal(RequestSpec spec, Handler<HttpClientResponse> responseHandler,
+                           Handler<Throwable> exceptionHandler) {
+        long timeout = spec.timeout;
+        long remaining = spec.remaining(System.currentTimeMillis());
+        if (remaining == 0L) {
+            reject(deadlineExceeded(spec), exceptionHandler);
+            return;
+        }
+        if (remaining > 0L) {
+            timeout = timeout > 0L ? Math.min(timeout, remaining) : remaining;
+        }
+
+        MultiMap requestHeaders = MultiMap.caseInsensitiveMultiMap();
+        requestHeaders.set(HttpHeaders.CONTENT_TYPE, APPLICATION_JSON);
+        int length = spec.payload.length();
+        requestHeaders.set(HttpHeaders.CONTENT_LENGTH, length == 0 ? ZERO_LENGTH : Integer.toString(length));
+        (spec.api != null ? spec.api.headerSet() : headers).apply(requestHeaders);
+        if (spec.headers != null) {
+            for (Map.Entry<String, String> header : spec.headers.entrySet()) {
+                requestHeaders.set(header.getKey(), header.getValue());
+            }
+        }
+        if (remaining > 0L) {
+            requestHeaders.set(DEADLINE_HEADER, Long.toString(timeout));
+        }
+
+        LocalTransport.send(vertx, localAddress, new LocalServerRequest(spec.method, spec.path, requestHeaders,
+                spec.payload), timeout, maxResponseBytes, responseHandler, exceptionHandler);
+    }
+
+    /**
+     * Pipes a stream into the request body, pausing the stream while the request's write queue is full.
+     *
+     * @param stream  - the request body
+     * @param request - the request
+     * @param pending - the pending request
+     */
+    private static void pipe(ReadStream<Buffer> stream, HttpClientRequest request, PendingRequest pending) {
+        if (!request.headers().contains(HttpHeaders.CONTENT_LENGTH)) {
+            request.setChunked(true);
+        }
+
+        Pump pump = Pump.pump(stream, request);
+        request.exceptionHandler(error -> {
+            pump.stop();
+            pending.handleException(error);
+        });
+        stream.exceptionHandler(error -> {
+            pump.stop();
+            pending.abort(error);
+        });
+        stream.endHandler(end -> {
+            if (!pending.isCancelled()) {
+                request.end();
+            }
+        });
+        pump.start();
+        // the stream was paused when the call was made
+        stream.resume();
+    }
+
+    private static Buffer toBuffer(byte[] payload) {
+        return payload == null || payload.length == 0 ? EMPTY_PAYLOAD : Buffer.buffer(payload);
+    }
+
+    /**
+     * Creates the exception calls whose deadline passed before they were sent are failed with.
+     */
+    private static DeadlineExceededException deadlineExceeded(RequestSpec spec) {
+        return new DeadlineExceededException("deadline passed before " + spec.method + " " + spec.path + " was sent");
+    }
+
+    /**
+     * Fails a call that is not sent.
+     *
+     * @param error            - the reason for the rejection
+     * @param exceptionHandler - exception handler, may be null
+     */
+    private static void reject(Throwable error, Handler<Throwable> exceptionHandler) {
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(error);
+        }
+    }
+
+    /**
+     * Fails a call that is not sent, discarding the body of a streamed call so its source isn't left paused.
+     *
+     * @param spec             - the call
+     * @param error            - the reason for the rejection
+     * @param exceptionHandler - exception handler, may be null
+     */
+    private static void reject(RequestSpec spec, Throwable error, Handler<Throwable> exceptionHandler) {
+        if (spec.isStreamed()) {
+            spec.stream.handler(null);
+            spec.stream.resume();
+        }
+        reject(error, exceptionHandler);
     }
 
     /**
@@ -413,7 +1551,12 @@ public class ServiceClient {
      * Clients should always be closed after use.
      */
     public void close() {
-        client.close();
+        if (warmer != null) {
+            warmer.stop();
+        }
+        for (Endpoint endpoint : endpoints) {
+            endpoint.client().close();
+        }
     }
 
     /**
@@ -423,9 +1566,123 @@ public class ServiceClient {
      * @return timeout value
      */
     public Long getTimeout(String apiName) {
-        Long timeout = apiTimeouts.get(apiName);
+        ApiDescriptor api = apis.get(apiName);
+
+        return api == null ? this.timeout : api.getTimeout();
+    }
+
+    /**
+     * Reads the whole body of a response from this client, failing with a {@link ResponseTooLargeException} if it is
+     * larger than the client's max response bytes.
+     *
+     * @param response - the response
+     * @param handler  - gets the body or the failure
+     */
+    public void readBody(HttpClientResponse response, Handler<AsyncResult<Buffer>> handler) {
+        ResponseReader.readBody(response, maxResponseBytes, handler);
+    }
+
+    /**
+     * Reads the body of a response from this client and decodes it as json, failing with a
+     * {@link ResponseTooLargeException} if it is larger than the client's max response bytes.
+     *
+     * @param response - the response
+     * @param clazz    - the class to decode the json into
+     * @param handler  - gets the decoded object or the failure
+     * @param <T>      - decoded type
+     */
+    public <T> void readJson(HttpClientResponse response, Class<T> clazz, Handler<AsyncResult<T>> handler) {
+        ResponseReader.readJson(response, maxResponseBytes, clazz, handler);
+    }
+
+    /**
+     * Gets the largest response body read by the client's read helpers
+     *
+     * @return size in bytes
+     */
+    public long getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
 
-        return timeout == null ? this.timeout : timeout;
+    /**
+     * Waits for the client's connections to be ready. With a warmup set the connections are opened when the client is
+     * built, start taking traffic once this completes to keep the handshakes out of the first calls. Any number of
+     * handlers can wait, each is called once.
+     *
+     * @param handler - succeeds once the warmup is done, or right away without a warmup. fails if an endpoint can't
+     *                  be reached
+     */
+    public void ready(Handler<AsyncResult<Void>> handler) {
+        AsyncResult<Void> result;
+        synchronized (readyHandlers) {
+            result = ready;
+            if (result == null) {
+                readyHandlers.add(handler);
+                return;
+            }
+        }
+        handler.handle(result);
+    }
+
+    private void warmUp(ConnectionWarmer warmer) {
+        this.warmer = warmer;
+        this.ready = null;
+        warmer.warm().setHandler(this::onReady);
+        warmer.start();
+    }
+
+    private void onReady(AsyncResult<Void> result) {
+        List<Handler<AsyncResult<Void>>> waiting;
+        synchronized (readyHandlers) {
+            ready = result;
+            waiting = new ArrayList<>(readyHandlers);
+            readyHandlers.clear();
+        }
+        for (Handler<AsyncResult<Void>> handler : waiting) {
+            handler.handle(result);
+        }
+    }
+
+    /**
+     * Gets the concurrency limiter shared by all calls of the client
+     *
+     * @return the limiter or null if concurrency limiting is not enabled
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Gets the telemetry of the requests sent by the client
+     *
+     * @return the metrics or null if metrics are not enabled
+     */
+    public ClientMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the response cache
+     *
+     * @return the response cache or null if caching is not enabled
+     */
+    public ResponseCache getResponseCache() {
+        return cache != null ? cache.cache() : null;
+    }
+
+    /**
+     * Gets the precompiled descriptor for a configured api.
+     *
+     * @param apiName - api name
+     * @return the api descriptor
+     * @throws IllegalArgumentException if no api by that name was configured
+     */
+    public ApiDescriptor getApi(String apiName) {
+        ApiDescriptor api = apis.get(apiName);
+        if (api == null) {
+            throw new IllegalArgumentException("No api by name " + apiName + " defined in service client");
+        }
+        return api;
     }
 
 }
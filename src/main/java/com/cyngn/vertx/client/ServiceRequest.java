@@ -12,6 +12,9 @@ public class ServiceRequest {
     private byte[] payload;
     private long timeout = 0L;
     private Map<String, String> headers;
+    private Boolean hedged;
+    private Priority priority;
+    private long deadline = 0L;
 
     public ServiceRequest() {}
 
@@ -76,6 +79,66 @@ public class ServiceRequest {
         this.headers = headers;
     }
 
+    /**
+     * Gets if the request is hedged
+     *
+     * @return - true or false to override the client hedging setting, null to use it.
+     */
+    public Boolean getHedged() {
+        return hedged;
+    }
+
+    /**
+     * Sets if the request is hedged, see {@link HedgingOptions}. Only idempotent requests are ever hedged.
+     *
+     * @param hedged - true or false to override the client hedging setting, null to use it.
+     */
+    public void setHedged(Boolean hedged) {
+        this.hedged = hedged;
+    }
+
+    /**
+     * Gets the priority lane of the request
+     *
+     * @return - the priority, null to use the api priority or {@link Priority#NORMAL}.
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the priority lane of the request, only used while calls queue for a concurrency limit.
+     *
+     * @param priority - the priority, null to use the api priority or {@link Priority#NORMAL}.
+     */
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Gets the time the caller stops waiting for the request
+     *
+     * @return - epoch millis, 0 means no deadline.
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Sets the time the caller stops waiting for the request, ie the deadline of the inbound request from
+     * {@link com.cyngn.vertx.web.handler.DeadlineHandler#getDeadline(io.vertx.ext.web.RoutingContext)}. The timeout
+     * of every attempt is capped at the time left, which is also forwarded to the service, and the request fails with
+     * a {@link DeadlineExceededException} without being sent once it has passed.
+     *
+     * @param deadline - epoch millis, 0 means no deadline.
+     */
+    public void setDeadline(long deadline) {
+        if (deadline < 0L) {
+            throw new IllegalArgumentException("Invalid deadline value: " + deadline);
+        }
+        this.deadline = deadline;
+    }
+
     /**
      * Checks if the {@link ServiceRequest} has timeout value set
      *
@@ -0,0 +1,190 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Socket level settings for the connections a {@link ServiceClient} opens to its endpoints.
+ *
+ * Only settings supported by the Netty NIO transport vert.x runs on are available, the native epoll transport and
+ * Unix domain socket endpoints need a newer vert.x.
+ */
+public class TransportOptions {
+
+    // configuration key constants
+    public static final String TCP_NO_DELAY = "tcp_no_delay";
+    public static final String CONNECT_TIMEOUT = "connect_timeout";
+    public static final String SEND_BUFFER_SIZE = "send_buffer_size";
+    public static final String RECEIVE_BUFFER_SIZE = "receive_buffer_size";
+    public static final String USE_POOLED_BUFFERS = "use_pooled_buffers";
+    public static final String KEEP_ALIVE = "keep_alive";
+    public static final String IDLE_TIMEOUT = "idle_timeout";
+
+    public static final boolean DEFAULT_TCP_NO_DELAY = HttpClientOptions.DEFAULT_TCP_NO_DELAY;
+    public static final int DEFAULT_CONNECT_TIMEOUT = HttpClientOptions.DEFAULT_CONNECT_TIMEOUT;
+    public static final int DEFAULT_SEND_BUFFER_SIZE = HttpClientOptions.DEFAULT_SEND_BUFFER_SIZE;
+    public static final int DEFAULT_RECEIVE_BUFFER_SIZE = HttpClientOptions.DEFAULT_RECEIVE_BUFFER_SIZE;
+    public static final boolean DEFAULT_USE_POOLED_BUFFERS = HttpClientOptions.DEFAULT_USE_POOLED_BUFFERS;
+    public static final boolean DEFAULT_KEEP_ALIVE = HttpClientOptions.DEFAULT_KEEP_ALIVE;
+    public static final int DEFAULT_IDLE_TIMEOUT = HttpClientOptions.DEFAULT_IDLE_TIMEOUT;
+
+    private boolean tcpNoDelay = DEFAULT_TCP_NO_DELAY;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int sendBufferSize = DEFAULT_SEND_BUFFER_SIZE;
+    private int receiveBufferSize = DEFAULT_RECEIVE_BUFFER_SIZE;
+    private boolean usePooledBuffers = DEFAULT_USE_POOLED_BUFFERS;
+    private boolean keepAlive = DEFAULT_KEEP_ALIVE;
+    private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    /**
+     * Creates options from json configuration, missing keys keep their defaults.
+     *
+     * @param config - Json configuration.
+     * @return the options
+     */
+    public static TransportOptions fromConfig(JsonObject config) {
+        return new TransportOptions()
+                .setTcpNoDelay(config.getBoolean(TCP_NO_DELAY, DEFAULT_TCP_NO_DELAY))
+                .setConnectTimeout(config.getInteger(CONNECT_TIMEOUT, DEFAULT_CONNECT_TIMEOUT))
+                .setSendBufferSize(config.getInteger(SEND_BUFFER_SIZE, DEFAULT_SEND_BUFFER_SIZE))
+                .setReceiveBufferSize(config.getInteger(RECEIVE_BUFFER_SIZE, DEFAULT_RECEIVE_BUFFER_SIZE))
+                .setUsePooledBuffers(config.getBoolean(USE_POOLED_BUFFERS, DEFAULT_USE_POOLED_BUFFERS))
+                .setKeepAlive(config.getBoolean(KEEP_ALIVE, DEFAULT_KEEP_ALIVE))
+                .setIdleTimeout(config.getInteger(IDLE_TIMEOUT, DEFAULT_IDLE_TIMEOUT));
+    }
+
+    /**
+     * Copies the settings onto the options of an endpoint client.
+     *
+     * @param options - http client options
+     */
+    void apply(HttpClientOptions options) {
+        options.setTcpNoDelay(tcpNoDelay);
+        options.setConnectTimeout(connectTimeout);
+        options.setSendBufferSize(sendBufferSize);
+        options.setReceiveBufferSize(receiveBufferSize);
+        options.setUsePooledBuffers(usePooledBuffers);
+        options.setKeepAlive(keepAlive);
+        options.setIdleTimeout(idleTimeout);
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    /**
+     * Sets TCP_NODELAY, disabling Nagle's algorithm so small requests are sent without waiting for earlier ones to be
+     * acknowledged.
+     *
+     * @param tcpNoDelay - true to disable Nagle's algorithm.
+     * @return - reference to this object.
+     */
+    public TransportOptions setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+        return this;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets how long opening a connection may take.
+     *
+     * @param connectTimeout - timeout in milliseconds.
+     * @return - reference to this object.
+     */
+    public TransportOptions setConnectTimeout(int connectTimeout) {
+        if (connectTimeout < 0) {
+            throw new IllegalArgumentException("Invalid connect timeout: " + connectTimeout);
+        }
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    /**
+     * Sets the socket send buffer size.
+     *
+     * @param sendBufferSize - size in bytes, -1 means the operating system default.
+     * @return - reference to this object.
+     */
+    public TransportOptions setSendBufferSize(int sendBufferSize) {
+        if (sendBufferSize < 1 && sendBufferSize != DEFAULT_SEND_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Invalid send buffer size: " + sendBufferSize);
+        }
+        this.sendBufferSize = sendBufferSize;
+        return this;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    /**
+     * Sets the socket receive buffer size.
+     *
+     * @param receiveBufferSize - size in bytes, -1 means the operating system default.
+     * @return - reference to this object.
+     */
+    public TransportOptions setReceiveBufferSize(int receiveBufferSize) {
+        if (receiveBufferSize < 1 && receiveBufferSize != DEFAULT_RECEIVE_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Invalid receive buffer size: " + receiveBufferSize);
+        }
+        this.receiveBufferSize = receiveBufferSize;
+        return this;
+    }
+
+    public boolean isUsePooledBuffers() {
+        return usePooledBuffers;
+    }
+
+    /**
+     * Sets whether Netty reads into pooled buffers, which saves allocating a buffer per read.
+     *
+     * @param usePooledBuffers - true to use pooled buffers.
+     * @return - reference to this object.
+     */
+    public TransportOptions setUsePooledBuffers(boolean usePooledBuffers) {
+        this.usePooledBuffers = usePooledBuffers;
+        return this;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Sets whether connections are kept open and reused for later calls, HTTP/1.1 only.
+     *
+     * @param keepAlive - false to open a connection per call.
+     * @return - reference to this object.
+     */
+    public TransportOptions setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets how long a connection may go without traffic before it is closed. Set it below the idle timeout of the
+     * service and any load balancer in between so the client recycles a connection before it is closed from the other
+     * side while a request is on its way.
+     *
+     * @param idleTimeout - timeout in seconds, 0 means connections are never closed for being idle.
+     * @return - reference to this object.
+     */
+    public TransportOptions setIdleTimeout(int idleTimeout) {
+        if (idleTimeout < 0) {
+            throw new IllegalArgumentException("Invalid idle timeout: " + idleTimeout);
+        }
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+}
@@ -0,0 +1,25 @@
+package com.cyngn.vertx.client;
+
+/**
+ * Fails a typed {@link ServiceClient} call when the service answers with a status other than 2xx.
+ */
+public class UnexpectedStatusException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public UnexpectedStatusException(int statusCode, String statusMessage) {
+        super("unexpected response status " + statusCode + " " + statusMessage, null, false, false);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Gets the status code of the response
+     *
+     * @return - http status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
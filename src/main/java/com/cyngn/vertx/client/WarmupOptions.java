@@ -0,0 +1,117 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Settings for opening the connections of a {@link ServiceClient} before the first call and keeping them valid, see
+ * {@link ServiceClient#ready(Handler)}.
+ *
+ * Connections are opened by sending HEAD requests to a path on every endpoint, any response counts as a connection
+ * opened so the path doesn't have to exist.
+ */
+public class WarmupOptions {
+
+    // configuration key constants
+    public static final String CONNECTIONS = "connections";
+    public static final String PATH = "path";
+    public static final String TIMEOUT = "timeout";
+    public static final String VALIDATION_INTERVAL = "validation_interval";
+
+    public static final int DEFAULT_CONNECTIONS = 0;
+    public static final String DEFAULT_PATH = "/";
+    public static final long DEFAULT_TIMEOUT = 5000L;
+    public static final long DEFAULT_VALIDATION_INTERVAL = 0L;
+
+    private int connections = DEFAULT_CONNECTIONS;
+    private String path = DEFAULT_PATH;
+    private long timeout = DEFAULT_TIMEOUT;
+    private long validationInterval = DEFAULT_VALIDATION_INTERVAL;
+
+    /**
+     * Creates options from json configuration, missing keys keep their defaults.
+     *
+     * @param config - Json configuration.
+     * @return the options
+     */
+    public static WarmupOptions fromConfig(JsonObject config) {
+        return new WarmupOptions()
+                .setConnections(config.getInteger(CONNECTIONS, DEFAULT_CONNECTIONS))
+                .setPath(config.getString(PATH, DEFAULT_PATH))
+                .setTimeout(config.getLong(TIMEOUT, DEFAULT_TIMEOUT))
+                .setValidationInterval(config.getLong(VALIDATION_INTERVAL, DEFAULT_VALIDATION_INTERVAL));
+    }
+
+    public int getConnections() {
+        return connections;
+    }
+
+    /**
+     * Sets the number of connections opened per endpoint.
+     *
+     * @param connections - number of connections, 0 opens the whole connection pool.
+     * @return - reference to this object.
+     */
+    public WarmupOptions setConnections(int connections) {
+        if (connections < 0) {
+            throw new IllegalArgumentException("Invalid warmup connections: " + connections);
+        }
+        this.connections = connections;
+        return this;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Sets the path the warmup requests are sent to, preferably a cheap health check.
+     *
+     * @param path - the absolute URI path
+     * @return - reference to this object.
+     */
+    public WarmupOptions setPath(String path) {
+        if (path == null || !path.startsWith("/")) {
+            throw new IllegalArgumentException("Invalid warmup path: " + path);
+        }
+        this.path = path;
+        return this;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets how long a warmup request may take, including opening the connection.
+     *
+     * @param timeout - timeout in milliseconds.
+     * @return - reference to this object.
+     */
+    public WarmupOptions setTimeout(long timeout) {
+        if (timeout < 1L) {
+            throw new IllegalArgumentException("Invalid warmup timeout: " + timeout);
+        }
+        this.timeout = timeout;
+        return this;
+    }
+
+    public long getValidationInterval() {
+        return validationInterval;
+    }
+
+    /**
+     * Sets how often the connections are validated by sending the warmup requests again. Connections that fail are
+     * closed and dropped from the pool, the ones that answer count as used so an idle timeout doesn't close them.
+     *
+     * @param validationInterval - interval in milliseconds, 0 means connections are only opened once.
+     * @return - reference to this object.
+     */
+    public WarmupOptions setValidationInterval(long validationInterval) {
+        if (validationInterval < 0L) {
+            throw new IllegalArgumentException("Invalid validation interval: " + validationInterval);
+        }
+        this.validationInterval = validationInterval;
+        return this;
+    }
+}
@@ -23,6 +23,12 @@ public interface RestApi {
      */
     String X_REAL_IP = "x-real-ip";
 
+    /**
+     * The time the caller is still waiting for the response in milliseconds. It is relative so the clocks of the
+     * services don't have to agree, see {@link com.cyngn.vertx.web.handler.DeadlineHandler}
+     */
+    String X_REQUEST_DEADLINE = "x-request-deadline";
+
     /**
      * Handle adding your APIs to the server's router
      *
@@ -0,0 +1,97 @@
+package com.cyngn.vertx.web.handler;
+
+import com.cyngn.vertx.web.HttpHelper;
+import com.cyngn.vertx.web.RestApi;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Reads the {@link RestApi#X_REQUEST_DEADLINE} header of a request into an absolute deadline on the context, rejecting
+ * requests whose caller has already given up. Pass the deadline on to downstream calls with
+ * {@link com.cyngn.vertx.client.ServiceRequest#setDeadline(long)} so they stop when the caller does.
+ */
+public class DeadlineHandler implements Handler<RoutingContext> {
+
+  /**
+   * The context key of the deadline in epoch millis
+   */
+  public static final String DEADLINE = "deadline";
+
+  private final long defaultTimeout;
+
+  private DeadlineHandler(long defaultTimeout) {
+    this.defaultTimeout = defaultTimeout;
+  }
+
+  /**
+   * Get a DeadlineHandler, requests without the header have no deadline
+   *
+   * @return reference to created handler
+   */
+  public static DeadlineHandler create() { return new DeadlineHandler(0L); }
+
+  /**
+   * Get a DeadlineHandler
+   *
+   * @param defaultTimeout the deadline in millis from now for requests without the header, 0 for none
+   * @return reference to created handler
+   */
+  public static DeadlineHandler create(long defaultTimeout) {
+    if (defaultTimeout < 0L) {
+      throw new IllegalArgumentException("Invalid default timeout value: " + defaultTimeout);
+    }
+    return new DeadlineHandler(defaultTimeout);
+  }
+
+  @Override
+  public void handle(RoutingContext ctx) {
+    long timeout = defaultTimeout;
+    String header = ctx.request().getHeader(RestApi.X_REQUEST_DEADLINE);
+    if (StringUtils.isNotEmpty(header)) {
+      try {
+        timeout = Long.parseLong(header);
+      } catch (NumberFormatException ex) {
+        HttpHelper.processErrorResponse("invalid " + RestApi.X_REQUEST_DEADLINE + " header: " + header,
+            ctx.response(), HttpResponseStatus.BAD_REQUEST.code());
+        return;
+      }
+
+      // the caller isn't waiting anymore, don't do the work
+      if (timeout <= 0L) {
+        HttpHelper.processErrorResponse("deadline exceeded", ctx.response(),
+            HttpResponseStatus.GATEWAY_TIMEOUT.code());
+        return;
+      }
+    }
+
+    if (timeout > 0L) {
+      ctx.put(DEADLINE, System.currentTimeMillis() + timeout);
+    }
+    ctx.next();
+  }
+
+  /**
+   * Gets the deadline of the request
+   *
+   * @param ctx the request context
+   * @return the deadline in epoch millis, 0 if the request has none
+   */
+  public static long getDeadline(RoutingContext ctx) {
+    Long deadline = ctx.get(DEADLINE);
+    return deadline != null ? deadline : 0L;
+  }
+
+  /**
+   * Checks if the deadline of the request has passed, ie before starting expensive work after the request waited in a
+   * queue
+   *
+   * @param ctx the request context
+   * @return true if the request has a deadline and it has passed
+   */
+  public static boolean isExpired(RoutingContext ctx) {
+    long deadline = getDeadline(ctx);
+    return deadline > 0L && System.currentTimeMillis() >= deadline;
+  }
+}
@@ -0,0 +1,142 @@
+package com.cyngn.vertx.async;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for TimerWheel
+ */
+@RunWith(VertxUnitRunner.class)
+public class TimerWheelTests {
+
+    private Vertx vertx;
+
+    @Before
+    public void before(TestContext context) {
+        vertx = Vertx.vertx();
+    }
+
+    @After
+    public void after(TestContext context) {
+        vertx.close();
+    }
+
+    @Test
+    public void testFiresInOrder(TestContext context) {
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            TimerWheel wheel = new TimerWheel(vertx, 5L, 8);
+            List<Integer> order = new ArrayList<>();
+            long start = System.currentTimeMillis();
+
+            // further out than a revolution of the wheel
+            wheel.schedule(100L, aVoid -> {
+                order.add(3);
+                context.assertTrue(System.currentTimeMillis() - start >= 100L);
+                context.assertEquals(3, order.size());
+                context.assertEquals(0, wheel.getPending());
+                context.assertEquals(3L, wheel.getFired());
+                async.complete();
+            });
+            wheel.schedule(30L, aVoid -> order.add(2));
+            wheel.schedule(10L, aVoid -> order.add(1));
+            context.assertEquals(3, wheel.getPending());
+
+            vertx.setTimer(80L, timer -> {
+                context.assertEquals(1, order.get(0));
+                context.assertEquals(2, order.get(1));
+            });
+        });
+    }
+
+    @Test
+    public void testCancel(TestContext context) {
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            TimerWheel wheel = TimerWheel.get(vertx, TimerWheel.DEFAULT_TICK);
+            context.assertTrue(wheel == TimerWheel.get(vertx, TimerWheel.DEFAULT_TICK));
+
+            TimerWheel.Timeout timeout = wheel.schedule(20L, aVoid -> context.fail("cancelled timeouts don't fire"));
+            context.assertTrue(timeout.isPending());
+            context.assertTrue(timeout.cancel());
+            context.assertFalse(timeout.cancel());
+            context.assertEquals(0, wheel.getPending());
+
+            vertx.setTimer(100L, timer -> {
+                context.assertEquals(0L, wheel.getFired());
+                async.complete();
+            });
+        });
+    }
+
+    @Test
+    public void testHugeDelay(TestContext context) {
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            TimerWheel wheel = new TimerWheel(vertx, 10L, 4);
+            // must not overflow into a deadline in the past
+            TimerWheel.Timeout timeout = wheel.schedule(Long.MAX_VALUE, aVoid -> context.fail("never due"));
+            wheel.schedule(Long.MAX_VALUE / 2, aVoid -> context.fail("never due"));
+
+            vertx.setTimer(100L, timer -> {
+                context.assertEquals(0L, wheel.getFired());
+                context.assertTrue(timeout.isPending());
+                async.complete();
+            });
+        });
+    }
+
+    @Test
+    public void testHandlerCancelsSibling(TestContext context) {
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            TimerWheel wheel = new TimerWheel(vertx, 10L, 4);
+            List<TimerWheel.Timeout> timeouts = new ArrayList<>();
+            // both land in the same slot, whichever fires first cancels the other
+            for (int i = 0; i < 2; i++) {
+                timeouts.add(wheel.schedule(20L, aVoid -> {
+                    timeouts.forEach(TimerWheel.Timeout::cancel);
+                }));
+            }
+
+            vertx.setTimer(100L, timer -> {
+                context.assertEquals(1L, wheel.getFired());
+                context.assertEquals(0, wheel.getPending());
+                async.complete();
+            });
+        });
+    }
+
+    @Test
+    public void testCountsLateTimeouts(TestContext context) {
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            TimerWheel wheel = new TimerWheel(vertx, 5L, 64);
+            wheel.schedule(10L, aVoid -> {
+                context.assertEquals(1L, wheel.getLate());
+                context.assertTrue(wheel.getMaxLateness() >= 40L);
+                async.complete();
+            });
+
+            // keep the event loop busy past the deadline
+            long busyUntil = System.currentTimeMillis() + 60L;
+            while (System.currentTimeMillis() < busyUntil) {
+                Thread.yield();
+            }
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.cyngn.vertx.async.promise;
 
+import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -11,6 +12,9 @@ import org.junit.runner.RunWith;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -193,6 +197,45 @@ public class PromiseImplTests {
         }).eval();
     }
 
+    @Test
+    public void testTimeoutOnEventLoop(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx, 5L);
+
+        Async async = context.async();
+
+        vertx.runOnContext(v -> {
+            long start = System.currentTimeMillis();
+            factory.createSerial((taskContext, onComplete) -> {
+                // do nothing, aka don't hit the callback
+            }).timeout(50).except(taskContext -> {
+                context.assertTrue(System.currentTimeMillis() - start >= 50L);
+                context.assertEquals("promise timed out", taskContext.getString(Promise.CONTEXT_FAILURE_KEY));
+                async.complete();
+            }).eval();
+        });
+    }
+
+    @Test
+    public void testTimeoutOnEvalContext(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx, 5L);
+
+        Async async = context.async();
+
+        Context built = vertx.getOrCreateContext();
+        Context evaluated = vertx.getOrCreateContext();
+        built.runOnContext(v -> {
+            // the timeout is set on one context and the chain runs on another
+            Promise promise = factory.createSerial((taskContext, onComplete) -> {
+                // do nothing, aka don't hit the callback
+            }).timeout(50).except(taskContext -> {
+                context.assertEquals(evaluated, Vertx.currentContext());
+                context.assertEquals("promise timed out", taskContext.getString(Promise.CONTEXT_FAILURE_KEY));
+                async.complete();
+            });
+            evaluated.runOnContext(eval -> promise.eval());
+        });
+    }
+
     @Test
     public void testTimeoutCancelled(TestContext context) {
         PromiseFactory factory = new PromiseFactory(vertx);
@@ -240,6 +283,250 @@ public class PromiseImplTests {
         }).eval();
     }
 
+    @Test
+    public void testSynchronousStepsRunInline(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        AtomicBoolean hopped = new AtomicBoolean(false);
+
+        Promise promise = factory.createSerial((taskContext, onComplete) -> {
+            // anything queued on the event loop runs after the synchronous steps
+            vertx.runOnContext(v -> hopped.set(true));
+            onComplete.accept(true);
+        });
+        for (int i = 0; i < 10; i++) {
+            promise.then((taskContext, onComplete) -> {
+                context.assertFalse(hopped.get());
+                onComplete.accept(true);
+            });
+        }
+        promise.done(taskContext -> {
+            context.assertFalse(hopped.get());
+            async.complete();
+        }).eval();
+    }
+
+    @Test
+    public void testLongSynchronousChain(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        AtomicInteger count = new AtomicInteger(0);
+
+        Promise promise = factory.create();
+        for (int i = 0; i < PromiseImpl.MAX_INLINE_STEPS * 100; i++) {
+            int expected = i;
+            promise.then((taskContext, onComplete) ->
+                    onComplete.accept(count.getAndIncrement() == expected));
+        }
+        promise.done(taskContext -> {
+            context.assertEquals(PromiseImpl.MAX_INLINE_STEPS * 100, count.get());
+            async.complete();
+        }).except(taskContext -> context.fail("steps ran out of order")).eval();
+    }
+
+    @Test
+    public void testResultsFromOtherThreads(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Async async = context.async();
+
+        AtomicInteger count = new AtomicInteger(0);
+
+        // results race the eval loop that is still returning from the action
+        Promise promise = factory.create();
+        for (int i = 0; i < 500; i++) {
+            promise.then((taskContext, onComplete) -> executor.execute(() -> {
+                count.incrementAndGet();
+                onComplete.accept(true);
+            }));
+        }
+        promise.all(2, (taskContext, onComplete) -> executor.execute(() -> onComplete.accept(true)),
+                (taskContext, onComplete) -> executor.execute(() -> onComplete.accept(true)),
+                (taskContext, onComplete) -> executor.execute(() -> onComplete.accept(true)));
+        promise.done(taskContext -> {
+            context.assertEquals(500, count.get());
+            context.assertTrue(Context.isOnEventLoopThread());
+            executor.shutdown();
+            async.complete();
+        }).except(taskContext -> context.fail("promise failed")).eval();
+    }
+
+    @Test
+    public void testAllBoundedParallelism(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        AtomicInteger inFlight = new AtomicInteger(0);
+        AtomicInteger maxInFlight = new AtomicInteger(0);
+        AtomicInteger finished = new AtomicInteger(0);
+
+        PromiseAction[] actions = new PromiseAction[10];
+        for (int i = 0; i < actions.length; i++) {
+            actions[i] = (taskContext, onComplete) -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                vertx.setTimer(10, timer -> {
+                    inFlight.decrementAndGet();
+                    finished.incrementAndGet();
+                    onComplete.accept(true);
+                });
+            };
+        }
+
+        factory.create().all(3, actions).done(taskContext -> {
+            context.assertEquals(10, finished.get());
+            context.assertEquals(3, maxInFlight.get());
+            async.complete();
+        }).eval();
+    }
+
+    @Test
+    public void testAllFailsOnce(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        AtomicInteger started = new AtomicInteger(0);
+        AtomicInteger cancelled = new AtomicInteger(0);
+        AtomicInteger failures = new AtomicInteger(0);
+
+        PromiseAction failing = (taskContext, onComplete) -> {
+            started.incrementAndGet();
+            vertx.setTimer(10, timer -> onComplete.accept(false));
+        };
+        PromiseAction slow = PromiseAction.cancellable((taskContext, onComplete) -> {
+            started.incrementAndGet();
+            vertx.setTimer(200, timer -> onComplete.accept(true));
+        }, taskContext -> cancelled.incrementAndGet());
+
+        factory.create().all(3, failing, failing, slow, slow, slow)
+                .done(taskContext -> context.fail("shouldn't call done on failure"))
+                .except(taskContext -> failures.incrementAndGet())
+                .eval();
+
+        vertx.setTimer(500, timer -> {
+            context.assertEquals(1, failures.get());
+            // the second failure freed no slot for the queued actions
+            context.assertEquals(3, started.get());
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testAllSameActionTwice(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        AtomicInteger launched = new AtomicInteger(0);
+        AtomicInteger finished = new AtomicInteger(0);
+
+        // the first launch reports its result twice, that must not count for the other launches of the action
+        PromiseAction action = (taskContext, onComplete) -> {
+            int launch = launched.incrementAndGet();
+            vertx.setTimer(10 * launch, timer -> {
+                finished.incrementAndGet();
+                onComplete.accept(true);
+                if (launch == 1) {
+                    onComplete.accept(true);
+                }
+            });
+        };
+        factory.create().all(3, action, action, action).done(taskContext -> {
+            context.assertEquals(3, finished.get());
+            async.complete();
+        }).except(taskContext -> context.fail("promise failed")).eval();
+    }
+
+    @Test
+    public void testForEach(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add(i);
+        }
+
+        AtomicInteger sum = new AtomicInteger(0);
+        factory.create().forEach(items, 4, item -> (taskContext, onComplete) -> {
+            sum.addAndGet(item);
+            onComplete.accept(true);
+        }).done(taskContext -> {
+            context.assertEquals(499500, sum.get());
+            async.complete();
+        }).eval();
+    }
+
+    @Test
+    public void testAny(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        AtomicInteger cancelled = new AtomicInteger(0);
+
+        factory.create().any((taskContext, onComplete) -> onComplete.accept(false),
+                PromiseAction.cancellable((taskContext, onComplete) -> vertx.setTimer(200, timer -> {
+                    taskContext.put("replica", "slow");
+                    onComplete.accept(true);
+                }), taskContext -> cancelled.incrementAndGet()),
+                (taskContext, onComplete) -> vertx.setTimer(10, timer -> {
+                    taskContext.put("replica", "fast");
+                    onComplete.accept(true);
+                })
+        ).done(taskContext -> {
+            context.assertEquals("fast", taskContext.getString("replica"));
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        }).eval();
+    }
+
+    @Test
+    public void testAnyFailsWhenAllFail(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        AtomicInteger failures = new AtomicInteger(0);
+
+        factory.create().any((taskContext, onComplete) -> onComplete.accept(false),
+                (taskContext, onComplete) -> vertx.setTimer(10, timer -> onComplete.accept(false))
+        ).done(taskContext -> context.fail("shouldn't call done on failure"))
+        .except(taskContext -> failures.incrementAndGet()).eval();
+
+        vertx.setTimer(200, timer -> {
+            context.assertEquals(1, failures.get());
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testRace(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        AtomicInteger cancelled = new AtomicInteger(0);
+
+        factory.create().race(PromiseAction.cancellable((taskContext, onComplete) ->
+                        vertx.setTimer(200, timer -> onComplete.accept(true)),
+                taskContext -> cancelled.incrementAndGet()),
+                (taskContext, onComplete) -> vertx.setTimer(10, timer -> onComplete.accept(false))
+        ).done(taskContext -> context.fail("the first result was a failure"))
+        .except(taskContext -> {
+            context.assertEquals(1, cancelled.get());
+            async.complete();
+        }).eval();
+    }
+
     @Test
     public void testIsEmpty(TestContext context) {
         PromiseFactory factory = new PromiseFactory(vertx);
@@ -0,0 +1,104 @@
+package com.cyngn.vertx.async.promise;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tests for TypedPromiseImpl
+ */
+@RunWith(VertxUnitRunner.class)
+public class TypedPromiseImplTests {
+
+    private static class Lookup {
+        long userId;
+        int hits;
+        String name;
+    }
+
+    private Vertx vertx;
+
+    @Before
+    public void before(TestContext context) {
+        vertx = Vertx.vertx();
+    }
+
+    @After
+    public void after(TestContext context) {
+        vertx.close();
+    }
+
+    @Test
+    public void testBasic(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        factory.create(new Lookup()).then((lookup, onComplete) -> {
+            lookup.userId = 42L;
+            onComplete.accept(true);
+        }).then((lookup, onComplete) -> vertx.setTimer(10, timer -> {
+            lookup.name = "user-" + lookup.userId;
+            onComplete.accept(true);
+        })).done(lookup -> {
+            context.assertEquals(42L, lookup.userId);
+            context.assertEquals("user-42", lookup.name);
+            async.complete();
+        }).eval();
+    }
+
+    @Test
+    public void testParallel(TestContext context) {
+        Async async = context.async();
+
+        TypedPromise.newInstance(vertx, new Lookup()).all(Arrays.asList((lookup, onComplete) -> {
+            lookup.hits++;
+            onComplete.accept(true);
+        }, (lookup, onComplete) -> vertx.setTimer(10, timer -> {
+            lookup.hits++;
+            onComplete.accept(true);
+        }))).done(lookup -> {
+            context.assertEquals(2, lookup.hits);
+            async.complete();
+        }).eval();
+    }
+
+    @Test
+    public void testExceptionOnCallback(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        TypedPromise<Lookup> promise = factory.create(new Lookup());
+        promise.then((lookup, onComplete) -> {
+            throw new IllegalStateException("bad lookup");
+        }).done(lookup -> context.fail("shouldn't call done on failure")).except(lookup -> {
+            context.assertTrue(promise.getFailure() instanceof IllegalStateException);
+            context.assertFalse(promise.succeeded());
+            async.complete();
+        }).eval();
+    }
+
+    @Test
+    public void testTimeout(TestContext context) {
+        PromiseFactory factory = new PromiseFactory(vertx);
+
+        Async async = context.async();
+
+        TypedPromise<Lookup> promise = factory.create(new Lookup());
+        promise.then((lookup, onComplete) -> {
+            // do nothing, aka don't hit the callback
+        }).timeout(100).except(lookup -> {
+            context.assertTrue(promise.getFailure() instanceof TimeoutException);
+            async.complete();
+        }).eval();
+    }
+}
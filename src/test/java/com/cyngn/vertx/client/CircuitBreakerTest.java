@@ -0,0 +1,168 @@
+package com.cyngn.vertx.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link CircuitBreaker}
+ */
+public class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private CircuitBreaker breaker(CircuitBreakerOptions options) {
+        return new CircuitBreaker("test", options);
+    }
+
+    private void record(CircuitBreaker breaker, int times, boolean failed, long latency) {
+        for (int i = 0; i < times; i++) {
+            long permit = breaker.tryAcquire();
+            Assert.assertNotEquals(CircuitBreaker.REJECTED, permit);
+            breaker.recordResult(permit, failed, latency);
+        }
+    }
+
+    @Test
+    public void testTripsOnFailureRate() {
+        CircuitBreaker breaker = breaker(new CircuitBreakerOptions().setMinimumRequests(10).setFailureRate(50));
+        record(breaker, 5, false, FAST);
+        record(breaker, 4, true, FAST);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        record(breaker, 1, true, FAST);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+    }
+
+    @Test
+    public void testNeedsMinimumRequests() {
+        CircuitBreaker breaker = breaker(new CircuitBreakerOptions().setMinimumRequests(10));
+        record(breaker, 9, true, FAST);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testWindowEvictsOldResults() {
+        CircuitBreaker breaker = breaker(new CircuitBreakerOptions().setWindowSize(10).setMinimumRequests(10)
+                .setFailureRate(50));
+        record(breaker, 4, true, FAST);
+        record(breaker, 20, false, FAST);
+        // the old failures have left the window
+        record(breaker, 4, true, FAST);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testTripsOnLatencyPercentile() {
+        CircuitBreaker breaker = breaker(new CircuitBreakerOptions().setMinimumRequests(10)
+                .setLatencyThreshold(100).setLatencyPercentile(90));
+        record(breaker, 9, false, FAST);
+        // 10% slow keeps p90 under the threshold
+        record(breaker, 1, false, SLOW);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        record(breaker, 1, false, SLOW);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenProbes() throws Exception {
+        CircuitBreaker breaker = breaker(new CircuitBreakerOptions().setMinimumRequests(1).setOpenDuration(50)
+                .setHalfOpenRequests(2));
+        record(breaker, 1, true, FAST);
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+
+        Thread.sleep(60);
+        // only the configured number of probes are let through
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        Assert.assertNotEquals(CircuitBreaker.REJECTED, first);
+        Assert.assertNotEquals(CircuitBreaker.REJECTED, second);
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.recordResult(first, false, FAST);
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.recordResult(second, false, FAST);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testFailedProbeReopens() throws Exception {
+        CircuitBreaker breaker = breaker(new CircuitBreakerOptions().setMinimumRequests(1).setOpenDuration(50));
+        record(breaker, 1, true, FAST);
+
+        Thread.sleep(60);
+        breaker.recordResult(breaker.tryAcquire(), true, FAST);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+    }
+
+    @Test
+    public void testCancelReleasesProbe() throws Exception {
+        CircuitBreaker breaker = breaker(new CircuitBreakerOptions().setMinimumRequests(1).setOpenDuration(50));
+        record(breaker, 1, true, FAST);
+
+        Thread.sleep(60);
+        long probe = breaker.tryAcquire();
+        Assert.assertNotEquals(CircuitBreaker.REJECTED, probe);
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        breaker.cancel(probe);
+        Assert.assertNotEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+    }
+
+    @Test
+    public void testOnlyProbesCountWhenHalfOpen() throws Exception {
+        CircuitBreaker breaker = breaker(new CircuitBreakerOptions().setMinimumRequests(2).setOpenDuration(50));
+        // sent while closed, still in flight when the breaker opens
+        long late = breaker.tryAcquire();
+        record(breaker, 2, true, FAST);
+        Assert.assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(60);
+        long probe = breaker.tryAcquire();
+        breaker.recordResult(late, true, FAST);
+        breaker.cancel(late);
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+
+        // a probe of the next half open period is let in only once this one reopened the breaker
+        breaker.recordResult(probe, true, FAST);
+        Thread.sleep(60);
+        long next = breaker.tryAcquire();
+        Assert.assertNotEquals(CircuitBreaker.REJECTED, next);
+        breaker.recordResult(probe, false, FAST);
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        breaker.recordResult(next, false, FAST);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testHungProbeExpires() throws Exception {
+        CircuitBreaker breaker = breaker(new CircuitBreakerOptions().setMinimumRequests(1).setOpenDuration(50));
+        record(breaker, 1, true, FAST);
+
+        Thread.sleep(60);
+        // never answers
+        long hung = breaker.tryAcquire();
+        Assert.assertNotEquals(CircuitBreaker.REJECTED, hung);
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+
+        // after the open duration a new probe is let through, the hung one no longer counts
+        Thread.sleep(60);
+        long probe = breaker.tryAcquire();
+        Assert.assertNotEquals(CircuitBreaker.REJECTED, probe);
+        breaker.recordResult(hung, true, FAST);
+        Assert.assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.recordResult(probe, false, FAST);
+        Assert.assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFailureRate() {
+        new CircuitBreakerOptions().setFailureRate(0);
+    }
+}
@@ -0,0 +1,167 @@
+package com.cyngn.vertx.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link ConcurrencyLimiter}
+ */
+public class ConcurrencyLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testQueuesThenRejects() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test",
+                new ConcurrencyLimitOptions().setInitialLimit(1).setQueueSize(1));
+        AtomicInteger permitted = new AtomicInteger();
+        List<Throwable> rejections = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(permitted::incrementAndGet, rejections::add);
+        }
+        Assert.assertEquals(1, permitted.get());
+        Assert.assertEquals(1, limiter.getInFlight());
+        Assert.assertEquals(1, limiter.getQueueDepth());
+        Assert.assertEquals(1, rejections.size());
+        Assert.assertTrue(rejections.get(0) instanceof LimitExceededException);
+        Assert.assertEquals(1L, limiter.getRejected());
+
+        // the queued call runs once the first one is done
+        limiter.cancel();
+        Assert.assertEquals(2, permitted.get());
+        Assert.assertEquals(1, limiter.getInFlight());
+        Assert.assertEquals(0, limiter.getQueueDepth());
+    }
+
+    @Test
+    public void testShedsLowerPriority() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test",
+                new ConcurrencyLimitOptions().setInitialLimit(1).setQueueSize(2));
+        List<String> ran = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+
+        limiter.acquire(Priority.NORMAL, () -> ran.add("first"), error -> rejected.add("first"));
+        limiter.acquire(Priority.LOW, () -> ran.add("low1"), error -> rejected.add("low1"));
+        limiter.acquire(Priority.LOW, () -> ran.add("low2"), error -> rejected.add("low2"));
+
+        // a full queue sheds the newest low priority call for a high one but not for another low one
+        limiter.acquire(Priority.HIGH, () -> ran.add("high"), error -> rejected.add("high"));
+        limiter.acquire(Priority.LOW, () -> ran.add("low3"), error -> rejected.add("low3"));
+        Assert.assertEquals(2, rejected.size());
+        Assert.assertEquals("low2", rejected.get(0));
+        Assert.assertEquals("low3", rejected.get(1));
+        Assert.assertEquals(1L, limiter.getShed());
+        Assert.assertEquals(1L, limiter.getRejected());
+        Assert.assertEquals(1, limiter.getQueueDepth(Priority.HIGH));
+        Assert.assertEquals(1, limiter.getQueueDepth(Priority.LOW));
+
+        limiter.cancel();
+        limiter.cancel();
+        Assert.assertEquals(3, ran.size());
+        Assert.assertEquals("high", ran.get(1));
+        Assert.assertEquals("low1", ran.get(2));
+    }
+
+    @Test
+    public void testWeightedLanes() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test",
+                new ConcurrencyLimitOptions().setInitialLimit(1).setQueueSize(100));
+        List<Priority> ran = new ArrayList<>();
+
+        limiter.acquire(() -> { }, error -> { });
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire(Priority.LOW, () -> ran.add(Priority.LOW), error -> { });
+            limiter.acquire(Priority.HIGH, () -> ran.add(Priority.HIGH), error -> { });
+        }
+        for (int i = 0; i < 18; i++) {
+            limiter.cancel();
+        }
+
+        // low priority calls still get their share while high priority calls keep waiting
+        Assert.assertEquals(16, ran.stream().filter(priority -> priority == Priority.HIGH).count());
+        Assert.assertEquals(2, ran.stream().filter(priority -> priority == Priority.LOW).count());
+        Assert.assertEquals(Priority.HIGH, ran.get(0));
+    }
+
+    @Test
+    public void testAimd() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", new ConcurrencyLimitOptions()
+                .setAlgorithm(ConcurrencyLimitOptions.Algorithm.AIMD).setInitialLimit(10).setBackoffRatio(0.5)
+                .setLatencyThreshold(100L));
+
+        fill(limiter, 10);
+        limiter.release(10 * MILLIS, false);
+        Assert.assertEquals(11, limiter.getLimit());
+
+        limiter.release(10 * MILLIS, true);
+        Assert.assertEquals(5, limiter.getLimit());
+
+        limiter.release(200 * MILLIS, false);
+        Assert.assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void testGradient() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", new ConcurrencyLimitOptions()
+                .setInitialLimit(20).setTolerance(2.0));
+
+        // round trip times at the baseline let a busy limiter grow
+        for (int i = 0; i < 50; i++) {
+            fill(limiter, limiter.getLimit());
+            limiter.release(10 * MILLIS, false);
+            drainAll(limiter);
+        }
+        int grown = limiter.getLimit();
+        Assert.assertTrue(grown > 20);
+
+        // queueing at the service shows up as growing round trip times and shrinks the limit
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire(() -> { }, error -> { });
+            limiter.release(100 * MILLIS, false);
+        }
+        Assert.assertTrue(limiter.getLimit() < grown / 2);
+        Assert.assertTrue(limiter.getLimit() >= ConcurrencyLimitOptions.DEFAULT_MIN_LIMIT);
+    }
+
+    @Test
+    public void testLimitStaysInBounds() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", new ConcurrencyLimitOptions()
+                .setAlgorithm(ConcurrencyLimitOptions.Algorithm.AIMD).setInitialLimit(2).setMinLimit(2)
+                .setMaxLimit(3));
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(() -> { }, error -> { });
+            limiter.release(MILLIS, true);
+        }
+        Assert.assertEquals(2, limiter.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            fill(limiter, limiter.getLimit());
+            limiter.release(MILLIS, false);
+            drainAll(limiter);
+        }
+        Assert.assertEquals(3, limiter.getLimit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBounds() {
+        new ConcurrencyLimiter("test", new ConcurrencyLimitOptions().setMinLimit(10).setMaxLimit(5));
+    }
+
+    private static void fill(ConcurrencyLimiter limiter, int inFlight) {
+        while (limiter.getInFlight() < inFlight) {
+            limiter.acquire(() -> { }, error -> { });
+        }
+    }
+
+    private static void drainAll(ConcurrencyLimiter limiter) {
+        while (limiter.getInFlight() > 0) {
+            limiter.cancel();
+        }
+    }
+}
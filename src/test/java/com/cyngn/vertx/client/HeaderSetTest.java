@@ -0,0 +1,37 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.MultiMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests {@link HeaderSet}
+ */
+public class HeaderSetTest {
+
+    @Test
+    public void testApply() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-api", "api");
+        headers.put("Accept", "application/json");
+        MultiMap request = MultiMap.caseInsensitiveMultiMap().set("x-api", "caller");
+
+        new HeaderSet(headers).apply(request);
+        Assert.assertEquals(2, request.size());
+        Assert.assertEquals("api", request.get("x-api"));
+        Assert.assertEquals("application/json", request.get("accept"));
+    }
+
+    @Test
+    public void testContains() {
+        HeaderSet headers = new HeaderSet(Collections.singletonMap("Content-Encoding", "br"));
+
+        Assert.assertTrue(headers.contains("content-encoding"));
+        Assert.assertFalse(headers.contains("content-type"));
+        Assert.assertFalse(new HeaderSet(null).contains("content-encoding"));
+    }
+}
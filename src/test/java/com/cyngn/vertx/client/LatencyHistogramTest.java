@@ -0,0 +1,58 @@
+package com.cyngn.vertx.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link LatencyHistogram}
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0L, histogram.getCount());
+        Assert.assertEquals(0L, histogram.getValueAtPercentile(99.0));
+        Assert.assertEquals(0.0, histogram.getMean(), 0.0);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 20; i++) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(20L, histogram.getCount());
+        Assert.assertEquals(10L, histogram.getValueAtPercentile(50.0));
+        Assert.assertEquals(20L, histogram.getValueAtPercentile(100.0));
+        Assert.assertEquals(10.5, histogram.getMean(), 0.001);
+    }
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(i);
+        }
+        assertClose(50000L, histogram.getValueAtPercentile(50.0));
+        assertClose(99000L, histogram.getValueAtPercentile(99.0));
+        assertClose(99900L, histogram.getValueAtPercentile(99.9));
+        Assert.assertEquals(100000L, histogram.getMax());
+        Assert.assertEquals(100000L, histogram.getValueAtPercentile(100.0));
+    }
+
+    @Test
+    public void testOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5L);
+        histogram.record(Long.MAX_VALUE);
+        Assert.assertEquals(2L, histogram.getCount());
+        Assert.assertEquals(0L, histogram.getValueAtPercentile(50.0));
+        Assert.assertEquals((1L << 40) - 1, histogram.getValueAtPercentile(100.0));
+    }
+
+    private static void assertClose(long expected, long actual) {
+        Assert.assertTrue("expected about " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected * 0.04);
+    }
+}
@@ -0,0 +1,89 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link LruResponseCache} and the freshness rules of {@link ResponseCacheLayer}
+ */
+public class LruResponseCacheTest {
+
+    private static CachedResponse response(int bodySize, long expiresAt) {
+        return new CachedResponse(200, "OK", new CaseInsensitiveHeaders(), Buffer.buffer(new byte[bodySize]),
+                expiresAt);
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        LruResponseCache cache = new LruResponseCache(10000L);
+        cache.put("fresh", response(10, Long.MAX_VALUE));
+        cache.put("stale", response(10, 0L));
+
+        Assert.assertNotNull(cache.get("fresh"));
+        Assert.assertNotNull(cache.get("stale"));
+        Assert.assertNull(cache.get("missing"));
+        Assert.assertEquals(1L, cache.getHits());
+        Assert.assertEquals(1L, cache.getStaleHits());
+        Assert.assertEquals(1L, cache.getMisses());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        int size = response(100, 0L).size();
+        LruResponseCache cache = new LruResponseCache(size * 2);
+        cache.put("a", response(100, Long.MAX_VALUE));
+        cache.put("b", response(100, Long.MAX_VALUE));
+        cache.get("a");
+        cache.put("c", response(100, Long.MAX_VALUE));
+
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("a"));
+        Assert.assertNotNull(cache.get("c"));
+        Assert.assertEquals(1L, cache.getEvictions());
+        Assert.assertEquals(2, cache.getCount());
+        Assert.assertEquals(size * 2, cache.getBytes());
+    }
+
+    @Test
+    public void testSkipsOversizedResponses() {
+        LruResponseCache cache = new LruResponseCache(100L);
+        cache.put("big", response(1000, Long.MAX_VALUE));
+        Assert.assertEquals(0, cache.getCount());
+        Assert.assertEquals(0L, cache.getBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new LruResponseCache(0L);
+    }
+
+    @Test
+    public void testExpiresAt() {
+        long now = 1000000L;
+        MultiMap headers = new CaseInsensitiveHeaders();
+        Assert.assertEquals(ResponseCacheLayer.NOT_CACHEABLE, ResponseCacheLayer.expiresAt(headers, 0L, now));
+        Assert.assertEquals(now + 500L, ResponseCacheLayer.expiresAt(headers, 500L, now));
+
+        headers.set(HttpHeaders.ETAG, "\"v1\"");
+        Assert.assertEquals(now, ResponseCacheLayer.expiresAt(headers, 0L, now));
+
+        headers.set(HttpHeaders.EXPIRES, "Thu, 01 Jan 1970 00:20:00 GMT");
+        Assert.assertEquals(1200000L, ResponseCacheLayer.expiresAt(headers, 500L, now));
+
+        headers.set(HttpHeaders.CACHE_CONTROL, "public, max-age=10");
+        Assert.assertEquals(now + 10000L, ResponseCacheLayer.expiresAt(headers, 500L, now));
+
+        headers.set(HttpHeaders.CACHE_CONTROL, "max-age=10, s-maxage=20");
+        Assert.assertEquals(now + 20000L, ResponseCacheLayer.expiresAt(headers, 500L, now));
+
+        headers.set(HttpHeaders.CACHE_CONTROL, "no-cache");
+        Assert.assertEquals(now, ResponseCacheLayer.expiresAt(headers, 500L, now));
+
+        headers.set(HttpHeaders.CACHE_CONTROL, "no-store");
+        Assert.assertEquals(ResponseCacheLayer.NOT_CACHEABLE, ResponseCacheLayer.expiresAt(headers, 500L, now));
+    }
+}
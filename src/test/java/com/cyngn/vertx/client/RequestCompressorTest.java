@@ -0,0 +1,112 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Tests {@link RequestCompressor}
+ */
+public class RequestCompressorTest {
+
+    private static Buffer payload(int size) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; json.length() < size; i++) {
+            json.append("{\"id\":").append(i).append(",\"name\":\"item\"},");
+        }
+        return Buffer.buffer(json.append("{}]").toString());
+    }
+
+    private static RequestSpec spec(Buffer payload) {
+        return new RequestSpec(null, HttpMethod.POST, "/items", payload, 0L, null);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            out.write(chunk, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testGzip() throws Exception {
+        RequestCompressor compressor = new RequestCompressor(new RequestCompressionOptions());
+        Buffer payload = payload(100000);
+
+        // the deflater is reused so the second body must come out the same
+        for (int i = 0; i < 2; i++) {
+            RequestSpec call = compressor.compressCall(spec(payload));
+            Assert.assertEquals("gzip", call.headers.get(HttpHeaders.CONTENT_ENCODING.toString()));
+            Assert.assertTrue(call.payload.length() < payload.length() / 4);
+
+            byte[] decoded = readAll(new GZIPInputStream(new ByteArrayInputStream(call.payload.getBytes())));
+            Assert.assertEquals(payload, Buffer.buffer(decoded));
+        }
+    }
+
+    @Test
+    public void testDeflate() throws Exception {
+        RequestCompressor compressor = new RequestCompressor(new RequestCompressionOptions()
+                .setEncoding(RequestCompressionOptions.Encoding.DEFLATE).setLevel(9));
+        Buffer payload = payload(10000);
+
+        byte[] compressed = compressor.compress(spec(payload)).getBytes();
+        byte[] decoded = readAll(new InflaterInputStream(new ByteArrayInputStream(compressed)));
+        Assert.assertEquals(payload, Buffer.buffer(decoded));
+    }
+
+    @Test
+    public void testThreshold() {
+        RequestCompressor compressor = new RequestCompressor(new RequestCompressionOptions().setMinSize(2048));
+
+        Assert.assertFalse(compressor.shouldCompress(spec(payload(1000)), null));
+        Assert.assertFalse(compressor.shouldCompress(spec(Buffer.buffer()), null));
+        Assert.assertTrue(compressor.shouldCompress(spec(payload(4096)), null));
+        // already encoded by the caller
+        Assert.assertFalse(compressor.shouldCompress(new RequestSpec(null, HttpMethod.POST, "/items", payload(4096),
+                0L, Collections.singletonMap(HttpHeaders.CONTENT_ENCODING.toString(), "br")), null));
+    }
+
+    @Test
+    public void testAlreadyEncodedAnyCase() {
+        RequestCompressor compressor = new RequestCompressor(new RequestCompressionOptions());
+
+        Assert.assertFalse(compressor.shouldCompress(new RequestSpec(null, HttpMethod.POST, "/items", payload(4096),
+                0L, Collections.singletonMap("content-encoding", "br")), null));
+        // set on every call of the api
+        HeaderSet defaults = new HeaderSet(Collections.singletonMap("CONTENT-ENCODING", "br"));
+        Assert.assertFalse(compressor.shouldCompress(spec(payload(4096)), defaults));
+        Assert.assertTrue(compressor.shouldCompress(spec(payload(4096)),
+                new HeaderSet(Collections.singletonMap("x-api", "v1"))));
+    }
+
+    @Test
+    public void testBodyOutlivesNextCall() throws Exception {
+        RequestCompressor compressor = new RequestCompressor(new RequestCompressionOptions());
+        Buffer first = payload(4096);
+        Buffer body = compressor.compress(spec(first));
+
+        // a later call on the same thread reuses the scratch array but not the body
+        compressor.compress(spec(payload(100000)));
+        byte[] decoded = readAll(new GZIPInputStream(new ByteArrayInputStream(body.getBytes())));
+        Assert.assertEquals(first, Buffer.buffer(decoded));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLevel() {
+        new RequestCompressionOptions().setLevel(10);
+    }
+}
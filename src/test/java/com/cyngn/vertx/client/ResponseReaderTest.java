@@ -0,0 +1,165 @@
+package com.cyngn.vertx.client;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests {@link ResponseReader} against a local http server
+ */
+@RunWith(VertxUnitRunner.class)
+public class ResponseReaderTest {
+
+    private static final int PORT = 8092;
+
+    private Vertx vertx;
+    private ServiceClient client;
+
+    public static class Item {
+        public String name;
+    }
+
+    @Before
+    public void before(TestContext context) {
+        vertx = Vertx.vertx();
+        vertx.createHttpServer().requestHandler(request -> {
+            switch (request.path()) {
+                case "/json":
+                    request.response().end("{\"name\":\"one\"}");
+                    break;
+                case "/large":
+                    request.response().end(Buffer.buffer(new byte[2048]));
+                    break;
+                case "/chunked":
+                    request.response().setChunked(true).write(Buffer.buffer(new byte[600]));
+                    vertx.setTimer(10, timer -> request.response().end(Buffer.buffer(new byte[600])));
+                    break;
+                case "/lines":
+                    // records are split across writes
+                    request.response().setChunked(true).write("{\"name\":\"one\"}\n{\"na");
+                    vertx.setTimer(10, timer -> request.response().end("me\":\"two\"}\n\n{\"name\":\"three\"}"));
+                    break;
+                case "/missing":
+                    request.response().setStatusCode(404).end("not found");
+                    break;
+                default:
+                    request.response().end("not json");
+            }
+        }).listen(PORT, context.asyncAssertSuccess());
+        client = new ServiceClient.Builder(vertx).withHost("localhost").withPort(PORT).withMaxResponseBytes(1024L)
+                .addApiTimeout("get", 1000L).build();
+    }
+
+    @After
+    public void after(TestContext context) {
+        vertx.close(context.asyncAssertSuccess());
+    }
+
+    private static Handler<Throwable> failUnlessDone(TestContext context, Async async) {
+        // closing vertx at the end of a test closes the connection under the response
+        return error -> {
+            if (!async.isCompleted()) {
+                context.fail(error);
+            }
+        };
+    }
+
+    @Test
+    public void testReadJson(TestContext context) {
+        Async async = context.async();
+        client.call(HttpMethod.GET, "/json", response -> client.readJson(response, Item.class,
+                context.asyncAssertSuccess(item -> {
+                    context.assertEquals("one", item.name);
+                    async.complete();
+                })), failUnlessDone(context, async));
+    }
+
+    @Test
+    public void testReadJsonFailsOnBadJson(TestContext context) {
+        Async async = context.async();
+        client.call(HttpMethod.GET, "/text", response -> client.readJson(response, Item.class,
+                context.asyncAssertFailure(error -> async.complete())), failUnlessDone(context, async));
+    }
+
+    @Test
+    public void testContentLengthOverLimit(TestContext context) {
+        Async async = context.async();
+        client.call(HttpMethod.GET, "/large", response -> client.readBody(response,
+                context.asyncAssertFailure(error -> {
+                    context.assertTrue(error instanceof ResponseTooLargeException);
+                    async.complete();
+                })), failUnlessDone(context, async));
+    }
+
+    @Test
+    public void testChunkedOverLimit(TestContext context) {
+        Async async = context.async();
+        client.call(HttpMethod.GET, "/chunked", response -> client.readBody(response,
+                context.asyncAssertFailure(error -> {
+                    context.assertTrue(error instanceof ResponseTooLargeException);
+                    // the rest of the body is discarded so the connection can be used again
+                    client.call(HttpMethod.GET, "/json", next -> async.complete(), failUnlessDone(context, async));
+                })), failUnlessDone(context, async));
+    }
+
+    @Test
+    public void testReadJsonLines(TestContext context) {
+        List<String> names = new ArrayList<>();
+        Async async = context.async();
+        client.call(HttpMethod.GET, "/lines", response -> ResponseReader.readJsonLines(response, 64L, Item.class,
+                item -> names.add(item.name), context.asyncAssertSuccess(end -> {
+                    context.assertEquals(3, names.size());
+                    context.assertEquals("one", names.get(0));
+                    context.assertEquals("two", names.get(1));
+                    context.assertEquals("three", names.get(2));
+                    async.complete();
+                })), failUnlessDone(context, async));
+    }
+
+    @Test
+    public void testReadJsonLinesOverLimit(TestContext context) {
+        Async async = context.async();
+        client.call(HttpMethod.GET, "/lines", response -> ResponseReader.readJsonLines(response, 10L, Item.class,
+                item -> context.fail("record is over the limit"), context.asyncAssertFailure(error -> {
+                    context.assertTrue(error instanceof ResponseTooLargeException);
+                    async.complete();
+                })), failUnlessDone(context, async));
+    }
+
+    @Test
+    public void testCallForObject(TestContext context) {
+        Async async = context.async();
+        client.callForObject(client.getApi("get"), HttpMethod.GET, "/json", Buffer.buffer(), Item.class)
+                .setHandler(context.asyncAssertSuccess(item -> {
+                    context.assertEquals("one", item.name);
+                    async.complete();
+                }));
+    }
+
+    @Test
+    public void testCallForObjectResultContext(TestContext context) {
+        Async async = context.async();
+        client.callForObject(HttpMethod.GET, "/missing", new ServiceRequest(), Item.class, result -> {
+            context.assertFalse(result.succeeded);
+            context.assertEquals(404, ((UnexpectedStatusException) result.error).getStatusCode());
+
+            client.callForObject(client.getApi("get"), HttpMethod.GET, "/json", new ServiceRequest(), Item.class,
+                    success -> {
+                        context.assertTrue(success.succeeded);
+                        context.assertEquals("one", success.value.name);
+                        async.complete();
+                    });
+        });
+    }
+}
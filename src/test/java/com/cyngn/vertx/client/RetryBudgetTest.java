@@ -0,0 +1,49 @@
+package com.cyngn.vertx.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link RetryBudget}
+ */
+public class RetryBudgetTest {
+
+    @Test
+    public void testPercentOfCalls() {
+        RetryBudget budget = new RetryBudget(10.0, 0);
+        Assert.assertFalse(budget.tryWithdraw());
+
+        for (int i = 0; i < 25; i++) {
+            budget.deposit();
+        }
+        Assert.assertTrue(budget.tryWithdraw());
+        Assert.assertTrue(budget.tryWithdraw());
+        Assert.assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void testMinPerSecond() throws Exception {
+        RetryBudget budget = new RetryBudget(0.0, 100);
+        int allowed = 0;
+        while (budget.tryWithdraw()) {
+            allowed++;
+        }
+        Assert.assertEquals(100, allowed);
+
+        Thread.sleep(50);
+        Assert.assertTrue(budget.tryWithdraw());
+    }
+
+    @Test
+    public void testCapped() {
+        RetryBudget budget = new RetryBudget(100.0, 0);
+        for (int i = 0; i < 5000; i++) {
+            budget.deposit();
+        }
+        int allowed = 0;
+        while (budget.tryWithdraw()) {
+            allowed++;
+        }
+        Assert.assertEquals(1000, allowed);
+    }
+}
@@ -0,0 +1,951 @@
+package com.cyngn.vertx.client;
+
+import com.cyngn.vertx.web.RestApi;
+import com.cyngn.vertx.web.handler.RequestIdResponseHandler;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.handler.BodyHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link ServiceClient} calls against a local http server
+ */
+@RunWith(VertxUnitRunner.class)
+public class ServiceClientCallTest {
+
+    private static final int PORT = 8089;
+
+    private Vertx vertx;
+    private HttpServer server;
+    private AtomicInteger hedgeHits;
+    private AtomicInteger sharedHits;
+    private AtomicInteger cachedHits;
+    private AtomicInteger fanInFlight;
+    private AtomicInteger fanMaxInFlight;
+    private AtomicInteger connections;
+
+    @Before
+    public void before(TestContext context) {
+        vertx = Vertx.vertx();
+        hedgeHits = new AtomicInteger();
+        sharedHits = new AtomicInteger();
+        cachedHits = new AtomicInteger();
+        fanInFlight = new AtomicInteger();
+        fanMaxInFlight = new AtomicInteger();
+        connections = new AtomicInteger();
+        server = vertx.createHttpServer().requestHandler(request -> {
+            if (request.path().equals("/hedge") && hedgeHits.incrementAndGet() == 1) {
+                // only the first request is stuck
+                return;
+            }
+            if (request.path().equals("/delayed")) {
+                vertx.setTimer(100, timer -> request.response().end("delayed"));
+                return;
+            }
+            if (request.path().equals("/slow")) {
+                // never respond
+                return;
+            }
+            if (request.path().equals("/shared")) {
+                sharedHits.incrementAndGet();
+                // hold the response so concurrent calls pile up
+                vertx.setTimer(100, timer -> request.response()
+                        .putHeader("x-user", String.valueOf(request.getHeader("x-user"))).end("shared"));
+                return;
+            }
+            if (request.path().equals("/cached")) {
+                cachedHits.incrementAndGet();
+                request.response().putHeader("Cache-Control", "max-age=60").end("cached");
+                return;
+            }
+            if (request.path().equals("/etag")) {
+                cachedHits.incrementAndGet();
+                if ("\"v1\"".equals(request.getHeader("If-None-Match"))) {
+                    request.response().setStatusCode(304).end();
+                } else {
+                    request.response().putHeader("ETag", "\"v1\"").end("etag");
+                }
+                return;
+            }
+            if (request.path().startsWith("/fan/")) {
+                int inFlight = fanInFlight.incrementAndGet();
+                fanMaxInFlight.accumulateAndGet(inFlight, Math::max);
+                vertx.setTimer(20, timer -> {
+                    fanInFlight.decrementAndGet();
+                    request.response().end(request.path().substring("/fan/".length()));
+                });
+                return;
+            }
+            if (request.path().equals("/error")) {
+                request.response().setStatusCode(500).end();
+                return;
+            }
+            request.bodyHandler(body -> {
+                String apiHeader = request.getHeader("x-api");
+                request.response()
+                        .putHeader("x-api", apiHeader == null ? "" : apiHeader)
+                        .putHeader("x-chunked", String.valueOf(request.getHeader("Transfer-Encoding") != null))
+                        .putHeader("x-version", request.version().name())
+                        .putHeader("x-deadline", String.valueOf(request.getHeader(RestApi.X_REQUEST_DEADLINE)))
+                        .putHeader("x-encoding", String.valueOf(request.getHeader("Content-Encoding")))
+                        .end(body);
+            });
+        }).connectionHandler(connection -> connections.incrementAndGet())
+                .listen(PORT, context.asyncAssertSuccess());
+    }
+
+    @After
+    public void after(TestContext context) {
+        vertx.close(context.asyncAssertSuccess());
+    }
+
+    private ServiceClient.Builder builder() {
+        return new ServiceClient.Builder(vertx).withHost("localhost").withPort(PORT);
+    }
+
+    @Test
+    public void testCall(TestContext context) {
+        ServiceClient client = builder().build();
+        Async async = context.async();
+
+        client.call(HttpMethod.POST, "/echo", "{\"a\":1}".getBytes(), response -> {
+            context.assertEquals(200, response.statusCode());
+            response.bodyHandler(body -> {
+                context.assertEquals("{\"a\":1}", body.toString());
+                async.complete();
+            });
+        }, context::fail);
+    }
+
+    @Test
+    public void testCallServiceRequestSendsPayload(TestContext context) {
+        ServiceClient client = builder().build();
+        Async async = context.async();
+
+        ServiceRequest request = new ServiceRequest();
+        request.setPayload("payload".getBytes());
+        client.call(HttpMethod.POST, "/echo", request, response -> response.bodyHandler(body -> {
+            context.assertEquals("payload", body.toString());
+            async.complete();
+        }), context::fail);
+    }
+
+    @Test
+    public void testCallBuffer(TestContext context) {
+        ServiceClient client = builder().build();
+        Async async = context.async();
+
+        client.call(HttpMethod.PUT, "/echo", Buffer.buffer("buffer"), 0L, response -> response.bodyHandler(body -> {
+            context.assertEquals("buffer", body.toString());
+            async.complete();
+        }), context::fail);
+    }
+
+    @Test
+    public void testCallStream(TestContext context) throws Exception {
+        ServiceClient client = builder().build();
+        File file = File.createTempFile("upload", ".bin");
+        file.deleteOnExit();
+        byte[] content = new byte[1024 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(file.toPath(), content);
+        Async async = context.async();
+
+        vertx.fileSystem().open(file.getPath(), new OpenOptions().setRead(true), context.asyncAssertSuccess(upload ->
+                client.call(HttpMethod.POST, "/echo", upload, 5000L, null, response -> {
+                    context.assertEquals("true", response.getHeader("x-chunked"));
+                    response.bodyHandler(body -> {
+                        context.assertEquals(Buffer.buffer(content), body);
+                        async.complete();
+                    });
+                }, context::fail)));
+    }
+
+    @Test
+    public void testCallStreamWaitsInLimiterQueue(TestContext context) {
+        ServiceClient client = builder()
+                .withConcurrencyLimit(new ConcurrencyLimitOptions().setInitialLimit(1).setMaxLimit(1).setQueueSize(1))
+                .build();
+        Async async = context.async();
+
+        // holds the only slot for 100ms, the upload must not flow while it waits
+        client.call(HttpMethod.GET, "/shared", response -> { }, context::fail);
+        FlowingStream upload = new FlowingStream(20);
+        client.call(HttpMethod.POST, "/echo", upload, 5000L, null, response ->
+                response.bodyHandler(body -> {
+                    context.assertEquals(upload.expected(), body.toString());
+                    async.complete();
+                }), context::fail);
+    }
+
+    /**
+     * A stream that emits chunks on its own while resumed, dropping them if nothing handles them, like a request
+     * being received.
+     */
+    private class FlowingStream implements ReadStream<Buffer> {
+        private final int chunks;
+        private int sent;
+        private boolean paused;
+        private Handler<Buffer> handler;
+        private Handler<Void> endHandler;
+
+        FlowingStream(int chunks) {
+            this.chunks = chunks;
+            vertx.setPeriodic(5, id -> {
+                if (paused) {
+                    return;
+                }
+                if (sent < chunks) {
+                    Buffer chunk = Buffer.buffer("chunk-" + sent++ + ";");
+                    if (handler != null) {
+                        handler.handle(chunk);
+                    }
+                } else {
+                    vertx.cancelTimer(id);
+                    if (endHandler != null) {
+                        endHandler.handle(null);
+                    }
+                }
+            });
+        }
+
+        String expected() {
+            StringBuilder body = new StringBuilder();
+            for (int i = 0; i < chunks; i++) {
+                body.append("chunk-").append(i).append(';');
+            }
+            return body.toString();
+        }
+
+        @Override
+        public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+            this.handler = handler;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> pause() {
+            paused = true;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> resume() {
+            paused = false;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+            this.endHandler = endHandler;
+            return this;
+        }
+    }
+
+    @Test
+    public void testCallApiAppliesHeaders(TestContext context) {
+        ServiceClient client = builder().addApi("put", 1000L, Collections.singletonMap("x-api", "put")).build();
+        Async async = context.async();
+
+        client.call("put", HttpMethod.PUT, "/echo", new byte[0], response -> {
+            context.assertEquals("put", response.getHeader("x-api"));
+            async.complete();
+        }, context::fail);
+    }
+
+    @Test
+    public void testCallApiAppliesTimeout(TestContext context) {
+        ServiceClient client = builder().addApiTimeout("slow", 100L).build();
+        Async async = context.async();
+
+        // the timeout closes the connection so the exception handler may see either the close or the timeout first
+        long start = System.currentTimeMillis();
+        ApiDescriptor api = client.getApi("slow");
+        client.call(api, HttpMethod.GET, "/slow", new ServiceRequest(), response -> context.fail("should time out"),
+                error -> {
+                    if (!async.isCompleted()) {
+                        context.assertTrue(System.currentTimeMillis() - start < 1000L);
+                        async.complete();
+                    }
+                });
+    }
+
+    @Test
+    public void testRequestCompression(TestContext context) {
+        ServiceClient client = builder().withRequestCompression(new RequestCompressionOptions().setMinSize(100))
+                .build();
+        Async async = context.async();
+        StringBuilder json = new StringBuilder();
+        while (json.length() < 10000) {
+            json.append("{\"a\":1}");
+        }
+
+        client.call(HttpMethod.POST, "/echo", Buffer.buffer(json.toString()), 0L, response -> {
+            context.assertEquals("gzip", response.getHeader("x-encoding"));
+            response.bodyHandler(body -> {
+                context.assertTrue(body.length() < json.length());
+                client.call(HttpMethod.POST, "/echo", Buffer.buffer("{}"), 0L, small -> {
+                    // under the threshold
+                    context.assertEquals("null", small.getHeader("x-encoding"));
+                    async.complete();
+                }, context::fail);
+            });
+        }, context::fail);
+    }
+
+    @Test
+    public void testWarmup(TestContext context) {
+        ServiceClient client = builder().withNumConnections(3).withWarmup(new WarmupOptions()).build();
+        Async async = context.async(2);
+
+        // every handler waiting is called
+        client.ready(context.asyncAssertSuccess(ready -> async.countDown()));
+        client.ready(context.asyncAssertSuccess(ready -> {
+            context.assertEquals(3, connections.get());
+            // the call reuses a warm connection
+            client.call(HttpMethod.GET, "/echo", Buffer.buffer(), 0L, response -> {
+                context.assertEquals(3, connections.get());
+                async.countDown();
+            }, context::fail);
+        }));
+    }
+
+    @Test
+    public void testWarmupUnreachable(TestContext context) {
+        ServiceClient client = new ServiceClient.Builder(vertx).withHost("localhost").withPort(PORT + 5)
+                .withWarmup(new WarmupOptions().setTimeout(1000L)).build();
+
+        client.ready(context.asyncAssertFailure());
+    }
+
+    @Test
+    public void testHeaders(TestContext context) {
+        Map<String, String> clientHeaders = new HashMap<>();
+        clientHeaders.put("x-api", "client");
+        clientHeaders.put("x-other", "other");
+        ServiceClient client = builder().withHeaders(clientHeaders)
+                .addApi("get", 1000L, Collections.singletonMap("x-api", "api")).build();
+        Async async = context.async();
+
+        client.call(HttpMethod.POST, "/echo", new ServiceRequest(), plain -> {
+            context.assertEquals("client", plain.getHeader("x-api"));
+            // the api header wins over the client default
+            client.call(client.getApi("get"), HttpMethod.POST, "/echo", new ServiceRequest(), api -> {
+                context.assertEquals("api", api.getHeader("x-api"));
+                async.complete();
+            }, context::fail);
+        }, context::fail);
+    }
+
+    @Test
+    public void testLocalTransport(TestContext context) {
+        Router router = Router.router(vertx);
+        router.route().handler(BodyHandler.create());
+        router.route().handler(RequestIdResponseHandler.create());
+        router.post("/items/:id").handler(ctx -> ctx.response()
+                .putHeader("x-id", ctx.request().getParam("id"))
+                .putHeader("x-api", ctx.request().getHeader("x-api"))
+                .end(ctx.getBody()));
+        LocalTransport registration = LocalTransport.register(vertx, "items", router);
+        ServiceClient client = builder().withLocalAddress("items")
+                .addApi("post", 1000L, Collections.singletonMap("x-api", "post")).build();
+        Async async = context.async();
+
+        ServiceRequest request = new ServiceRequest();
+        request.setPayload("{\"a\":1}".getBytes());
+        request.setHeaders(Collections.singletonMap(RestApi.X_REQUEST_ID, "local-id"));
+        client.call(client.getApi("post"), HttpMethod.POST, "/items/7?full=true", request, response -> {
+            context.assertEquals(200, response.statusCode());
+            context.assertEquals("7", response.getHeader("x-id"));
+            context.assertEquals("post", response.getHeader("x-api"));
+            context.assertEquals("local-id", response.getHeader(RestApi.X_REQUEST_ID));
+            response.bodyHandler(body -> {
+                context.assertEquals("{\"a\":1}", body.toString());
+
+                // back to HTTP once the service is gone
+                registration.unregister();
+                client.call(HttpMethod.POST, "/echo", Buffer.buffer("http"), 0L, remote -> {
+                    context.assertNull(remote.getHeader("x-id"));
+                    async.complete();
+                }, context::fail);
+            });
+        }, context::fail);
+    }
+
+    @Test
+    public void testLocalTransportTimeout(TestContext context) {
+        LocalTransport.register(vertx, "stuck", request -> { });
+        ServiceClient client = builder().withLocalAddress("stuck").build();
+        Async async = context.async();
+
+        client.call(HttpMethod.GET, "/", Buffer.buffer(), 100L, response -> context.fail("should time out"),
+                error -> {
+                    context.assertTrue(error instanceof TimeoutException);
+                    async.complete();
+                });
+    }
+
+    @Test
+    public void testLocalTransportHandlerFails(TestContext context) {
+        LocalTransport.register(vertx, "broken", request -> {
+            throw new IllegalStateException("broken handler");
+        });
+        ServiceClient client = builder().withLocalAddress("broken").build();
+        Async async = context.async();
+
+        client.call(HttpMethod.GET, "/", Buffer.buffer(), 1000L, response -> {
+            context.assertEquals(500, response.statusCode());
+            async.complete();
+        }, context::fail);
+    }
+
+    @Test
+    public void testLocalTransportMaxResponseBytes(TestContext context) {
+        LocalTransport.register(vertx, "large", request -> request.response().end(Buffer.buffer(new byte[2048])));
+        ServiceClient client = builder().withLocalAddress("large").withMaxResponseBytes(1024L).build();
+        Async async = context.async();
+
+        client.call(HttpMethod.GET, "/", Buffer.buffer(), 1000L, response -> context.fail("should be too large"),
+                error -> {
+                    context.assertTrue(error instanceof ResponseTooLargeException);
+                    async.complete();
+                });
+    }
+
+    @Test
+    public void testMetrics(TestContext context) {
+        InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+        ServiceClient client = builder().withMetrics(metrics).addApi("put", 1000L, null).build();
+        Async async = context.async();
+
+        client.call(client.getApi("put"), HttpMethod.PUT, "/echo", new ServiceRequest(), response -> {
+            client.call(HttpMethod.GET, "/error", new ServiceRequest(), failure -> {
+                RequestMetrics api = metrics.getApiMetrics("put");
+                context.assertEquals(1L, api.getRequests().getCount());
+                context.assertEquals(1L, api.getResponses(2));
+                context.assertEquals(1L, api.getLatency().getCount());
+                context.assertEquals(1L, api.getConnectLatency().getCount());
+
+                RequestMetrics all = metrics.getClientMetrics();
+                context.assertEquals(2L, all.getRequests().getCount());
+                context.assertEquals(1L, all.getResponses(5));
+                context.assertEquals(0, all.getInFlight());
+                // the first response is still being read so the second call opened another connection
+                context.assertEquals(2L, all.getConnectLatency().getCount());
+                context.assertEquals(1L, metrics.toJson().getJsonObject("apis").getJsonObject("put")
+                        .getJsonObject("responses").getLong("2xx"));
+                async.complete();
+            }, context::fail);
+        }, context::fail);
+    }
+
+    @Test
+    public void testMetricsCountsTimeouts(TestContext context) {
+        InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+        ServiceClient client = builder().withMetrics(metrics).build();
+        Async async = context.async();
+
+        client.call(HttpMethod.GET, "/slow", Buffer.buffer(), 100L, response -> context.fail("should time out"),
+                error -> {
+                    if (!async.isCompleted()) {
+                        RequestMetrics all = metrics.getClientMetrics();
+                        context.assertEquals(1L, all.getTimeouts());
+                        context.assertEquals(0, all.getInFlight());
+                        async.complete();
+                    }
+                });
+    }
+
+    @Test
+    public void testDeadlineForwarded(TestContext context) {
+        ServiceClient client = builder().addApiTimeout("put", 1000L).build();
+        Async async = context.async();
+
+        ServiceRequest request = new ServiceRequest();
+        request.setDeadline(System.currentTimeMillis() + 5000L);
+        client.call(client.getApi("put"), HttpMethod.PUT, "/echo", request, response -> {
+            // the service gets the time this call waits, the api timeout is shorter than the deadline
+            long forwarded = Long.parseLong(response.getHeader("x-deadline"));
+            context.assertTrue(forwarded > 0L && forwarded <= 1000L);
+            async.complete();
+        }, context::fail);
+    }
+
+    @Test
+    public void testDeadlineCapsTimeout(TestContext context) {
+        ServiceClient client = builder().build();
+        Async async = context.async();
+
+        long start = System.currentTimeMillis();
+        ServiceRequest request = new ServiceRequest();
+        request.setDeadline(start + 100L);
+        client.call(HttpMethod.GET, "/slow", request, response -> context.fail("should time out"), error -> {
+            if (!async.isCompleted()) {
+                context.assertTrue(System.currentTimeMillis() - start < 1000L);
+                async.complete();
+            }
+        });
+    }
+
+    @Test
+    public void testDeadlinePassed(TestContext context) {
+        ServiceClient client = builder().build();
+        Async async = context.async();
+
+        ServiceRequest request = new ServiceRequest();
+        request.setDeadline(System.currentTimeMillis() - 1L);
+        client.call(HttpMethod.GET, "/echo", request, response -> context.fail("should not be sent"), error -> {
+            context.assertTrue(error instanceof DeadlineExceededException);
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testCallBalancesAcrossEndpoints(TestContext context) {
+        AtomicInteger secondServerHits = new AtomicInteger();
+        Async listening = context.async();
+        vertx.createHttpServer().requestHandler(request -> {
+            secondServerHits.incrementAndGet();
+            request.response().end();
+        }).listen(PORT + 1, context.asyncAssertSuccess(server -> listening.complete()));
+        listening.awaitSuccess();
+
+        ServiceClient client = builder().addEndpoint("localhost", PORT + 1).build();
+        int calls = 10;
+        AtomicInteger responses = new AtomicInteger();
+        Async async = context.async();
+        for (int i = 0; i < calls; i++) {
+            client.call(HttpMethod.GET, "/echo", response -> {
+                if (responses.incrementAndGet() == calls) {
+                    context.assertTrue(secondServerHits.get() > 0);
+                    context.assertTrue(secondServerHits.get() < calls);
+                    for (Endpoint endpoint : client.getEndpoints()) {
+                        context.assertEquals(0, endpoint.getInFlight());
+                    }
+                    async.complete();
+                }
+            }, context::fail);
+        }
+    }
+
+    @Test
+    public void testCircuitBreakerFailsFast(TestContext context) {
+        ServiceClient client = builder().addApiTimeout("error", 0L)
+                .withCircuitBreaker(new CircuitBreakerOptions().setMinimumRequests(2)).build();
+        ApiDescriptor api = client.getApi("error");
+        Async async = context.async();
+
+        client.call(api, HttpMethod.GET, "/error", new byte[0], first -> {
+            context.assertEquals(500, first.statusCode());
+            client.call(api, HttpMethod.GET, "/error", new byte[0], second -> {
+                context.assertEquals(CircuitBreaker.State.OPEN, api.getCircuitBreaker().getState());
+                context.assertEquals(CircuitBreaker.State.OPEN,
+                        client.getEndpoints().get(0).getCircuitBreaker().getState());
+
+                client.call(api, HttpMethod.GET, "/echo", new byte[0], third -> context.fail("should be rejected"),
+                        error -> {
+                            context.assertTrue(error instanceof CircuitOpenException);
+                            // the endpoint breaker rejects calls without an api too
+                            client.call(HttpMethod.GET, "/echo", response -> context.fail("should be rejected"),
+                                    endpointError -> {
+                                        context.assertTrue(endpointError instanceof CircuitOpenException);
+                                        async.complete();
+                                    });
+                        });
+            }, context::fail);
+        }, context::fail);
+    }
+
+    @Test
+    public void testCircuitBreakerEjectsEndpoint(TestContext context) {
+        Async listening = context.async();
+        vertx.createHttpServer().requestHandler(request -> request.response().setStatusCode(500).end())
+                .listen(PORT + 1, context.asyncAssertSuccess(server -> listening.complete()));
+        listening.awaitSuccess();
+
+        ServiceClient client = builder().addEndpoint("localhost", PORT + 1)
+                .withCircuitBreaker(new CircuitBreakerOptions().setMinimumRequests(1)).build();
+        Endpoint failing = client.getEndpoints().get(1);
+        int calls = 20;
+        AtomicInteger responses = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        Async async = context.async();
+
+        // calls are sent one after the other so the failing endpoint gets ejected after its first response
+        callInSequence(context, client, calls, response -> {
+            if (response.statusCode() == 500) {
+                errors.incrementAndGet();
+            }
+            if (responses.incrementAndGet() == calls) {
+                context.assertEquals(1, errors.get());
+                context.assertEquals(CircuitBreaker.State.OPEN, failing.getCircuitBreaker().getState());
+                async.complete();
+            }
+        });
+    }
+
+    private void callInSequence(TestContext context, ServiceClient client, int remaining,
+                                Handler<HttpClientResponse> responseHandler) {
+        client.call(HttpMethod.GET, "/echo", response -> {
+            responseHandler.handle(response);
+            if (remaining > 1) {
+                callInSequence(context, client, remaining - 1, responseHandler);
+            }
+        }, context::fail);
+    }
+
+    @Test
+    public void testHedgedCall(TestContext context) {
+        ServiceClient client = builder()
+                .withHedging(new HedgingOptions().setInitialDelay(50).setMinRetriesPerSecond(1)).build();
+        Async async = context.async();
+
+        long start = System.currentTimeMillis();
+        client.call(HttpMethod.GET, "/hedge", 5000L, response -> {
+            context.assertEquals(200, response.statusCode());
+            context.assertEquals(2, hedgeHits.get());
+            context.assertTrue(System.currentTimeMillis() - start < 1000L);
+            // the slow request is cancelled once the response is delivered
+            vertx.runOnContext(v -> {
+                context.assertEquals(0, client.getEndpoints().get(0).getInFlight());
+                async.complete();
+            });
+        }, context::fail);
+    }
+
+    @Test
+    public void testHedgeWaitingForConnection(TestContext context) {
+        // the only connection is busy with the first request so the hedge waits in the pool
+        ServiceClient client = builder().withNumConnections(1)
+                .withHedging(new HedgingOptions().setInitialDelay(20).setMinRetriesPerSecond(1)).build();
+        Async async = context.async();
+
+        client.call(HttpMethod.GET, "/delayed", 5000L, response -> {
+            context.assertEquals(200, response.statusCode());
+            async.complete();
+        }, context::fail);
+    }
+
+    @Test
+    public void testHedgingSkipsNonIdempotentCalls(TestContext context) {
+        ServiceClient client = builder()
+                .withHedging(new HedgingOptions().setInitialDelay(10).setMinRetriesPerSecond(1)).build();
+        Async async = context.async();
+
+        client.call(HttpMethod.POST, "/hedge", 300L, response -> context.fail("should time out"), error -> {
+            if (!async.isCompleted()) {
+                context.assertEquals(1, hedgeHits.get());
+                async.complete();
+            }
+        });
+    }
+
+    @Test
+    public void testHedgingPerRequest(TestContext context) {
+        ServiceClient client = builder().build();
+        Async async = context.async();
+
+        ServiceRequest request = new ServiceRequest();
+        request.setHedged(true);
+        request.setTimeout(5000L);
+        client.call(HttpMethod.GET, "/hedge", request, response -> {
+            context.assertEquals(2, hedgeHits.get());
+            async.complete();
+        }, context::fail);
+    }
+
+    @Test
+    public void testHedgingRespectsBudget(TestContext context) {
+        ServiceClient client = builder()
+                .withHedging(new HedgingOptions().setInitialDelay(10).setMinRetriesPerSecond(0)).build();
+        Async async = context.async();
+
+        client.call(HttpMethod.GET, "/hedge", 300L, response -> context.fail("should time out"), error -> {
+            if (!async.isCompleted()) {
+                context.assertEquals(1, hedgeHits.get());
+                async.complete();
+            }
+        });
+    }
+
+    @Test
+    public void testCoalescing(TestContext context) {
+        ServiceClient client = builder().withCoalescing("x-user").build();
+        int calls = 10;
+        AtomicInteger responses = new AtomicInteger();
+        Async async = context.async();
+
+        for (int i = 0; i < calls; i++) {
+            ServiceRequest request = new ServiceRequest();
+            // two distinct users, so two upstream requests
+            request.setHeaders(Collections.singletonMap("x-user", String.valueOf(i % 2)));
+            client.call(HttpMethod.GET, "/shared", request, response -> {
+                context.assertEquals(200, response.statusCode());
+                String user = response.getHeader("x-user");
+                response.bodyHandler(body -> {
+                    context.assertEquals("shared", body.toString());
+                    context.assertTrue("0".equals(user) || "1".equals(user));
+                    if (responses.incrementAndGet() == calls) {
+                        context.assertEquals(2, sharedHits.get());
+                        async.complete();
+                    }
+                });
+            }, context::fail);
+        }
+    }
+
+    @Test
+    public void testCoalescingMaxResponseBytes(TestContext context) {
+        ServiceClient client = builder().withCoalescing().withMaxResponseBytes(4L).build();
+        int calls = 2;
+        AtomicInteger failures = new AtomicInteger();
+        Async async = context.async();
+
+        for (int i = 0; i < calls; i++) {
+            client.call(HttpMethod.GET, "/shared", response -> context.fail("should be too large"), error -> {
+                context.assertTrue(error instanceof ResponseTooLargeException);
+                if (failures.incrementAndGet() == calls) {
+                    context.assertEquals(1, sharedHits.get());
+                    async.complete();
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testCoalescingJoinerTimeout(TestContext context) {
+        ServiceClient client = builder().withCoalescing().build();
+        Async async = context.async();
+
+        // the shared request is sent without a timeout and never answered, it fails once the server closes
+        client.call(HttpMethod.GET, "/slow", response -> context.fail("should not respond"), error -> { });
+        long start = System.currentTimeMillis();
+        client.call(HttpMethod.GET, "/slow", 100L, response -> context.fail("should time out"), error -> {
+            context.assertTrue(error instanceof TimeoutException);
+            context.assertTrue(System.currentTimeMillis() - start < 1000L);
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testCoalescingJoinerDeadline(TestContext context) {
+        ServiceClient client = builder().withCoalescing().build();
+        Async async = context.async();
+
+        client.call(HttpMethod.GET, "/slow", response -> context.fail("should not respond"), error -> { });
+        ServiceRequest request = new ServiceRequest();
+        request.setDeadline(System.currentTimeMillis() + 100L);
+        client.call(HttpMethod.GET, "/slow", request, response -> context.fail("should time out"), error -> {
+            context.assertTrue(error instanceof TimeoutException);
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testCoalescingSkipsPost(TestContext context) {
+        ServiceClient client = builder().withCoalescing().build();
+        int calls = 3;
+        AtomicInteger responses = new AtomicInteger();
+        Async async = context.async();
+
+        for (int i = 0; i < calls; i++) {
+            client.call(HttpMethod.POST, "/shared", response -> {
+                if (responses.incrementAndGet() == calls) {
+                    context.assertEquals(calls, sharedHits.get());
+                    async.complete();
+                }
+            }, context::fail);
+        }
+    }
+
+    @Test
+    public void testCacheServesFreshResponse(TestContext context) {
+        LruResponseCache cache = new LruResponseCache(10000L);
+        ServiceClient client = builder().withResponseCache(cache).build();
+        Async async = context.async();
+
+        client.call(HttpMethod.GET, "/cached", first -> first.bodyHandler(firstBody ->
+                client.call(HttpMethod.GET, "/cached", second -> {
+                    context.assertEquals(200, second.statusCode());
+                    context.assertEquals("max-age=60", second.getHeader("Cache-Control"));
+                    second.bodyHandler(body -> {
+                        context.assertEquals("cached", body.toString());
+                        context.assertEquals(1, cachedHits.get());
+                        context.assertEquals(1L, cache.getHits());
+                        async.complete();
+                    });
+                }, context::fail)), context::fail);
+    }
+
+    @Test
+    public void testCacheMaxResponseBytes(TestContext context) {
+        LruResponseCache cache = new LruResponseCache(10000L);
+        ServiceClient client = builder().withResponseCache(cache).withMaxResponseBytes(4L).build();
+        Async async = context.async();
+
+        client.call(HttpMethod.GET, "/cached", response -> context.fail("should be too large"), error -> {
+            context.assertTrue(error instanceof ResponseTooLargeException);
+            context.assertEquals(0, cache.getCount());
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testCacheRevalidatesWithETag(TestContext context) {
+        LruResponseCache cache = new LruResponseCache(10000L);
+        ServiceClient client = builder().withResponseCache(cache).build();
+        Async async = context.async();
+
+        client.call(HttpMethod.GET, "/etag", first -> first.bodyHandler(firstBody ->
+                client.call(HttpMethod.GET, "/etag", second -> {
+                    // the 304 is turned back into the cached response
+                    context.assertEquals(200, second.statusCode());
+                    second.bodyHandler(body -> {
+                        context.assertEquals("etag", body.toString());
+                        context.assertEquals(2, cachedHits.get());
+                        context.assertEquals(1L, cache.getStaleHits());
+                        async.complete();
+                    });
+                }, context::fail)), context::fail);
+    }
+
+    @Test
+    public void testCacheUsesApiTtl(TestContext context) {
+        ServiceClient client = builder().addApiTimeout("echo", 0L).withApiCacheTtl("echo", 60000L)
+                .withResponseCache(new LruResponseCache(10000L)).build();
+        ApiDescriptor api = client.getApi("echo");
+        Async async = context.async();
+
+        client.call(api, HttpMethod.GET, "/echo", new byte[0], first -> first.bodyHandler(firstBody ->
+                client.call(api, HttpMethod.GET, "/echo", new byte[0], second -> {
+                    context.assertEquals(1L, ((LruResponseCache) client.getResponseCache()).getHits());
+                    // calls outside the api have no ttl so they are not cached
+                    client.call(HttpMethod.GET, "/echo", third -> {
+                        context.assertEquals(1, ((LruResponseCache) client.getResponseCache()).getCount());
+                        async.complete();
+                    }, context::fail);
+                }, context::fail)), context::fail);
+    }
+
+    @Test
+    public void testConcurrencyLimitRejectsOverflow(TestContext context) {
+        ServiceClient client = builder()
+                .withConcurrencyLimit(new ConcurrencyLimitOptions().setInitialLimit(1).setMaxLimit(1).setQueueSize(1))
+                .build();
+        ConcurrencyLimiter limiter = client.getConcurrencyLimiter();
+        AtomicInteger responses = new AtomicInteger();
+        Async async = context.async();
+
+        for (int i = 0; i < 3; i++) {
+            client.call(HttpMethod.GET, "/shared", response -> {
+                if (responses.incrementAndGet() == 2) {
+                    context.assertEquals(1L, limiter.getRejected());
+                    context.assertEquals(0, limiter.getQueueDepth());
+                    async.complete();
+                }
+            }, error -> context.assertTrue(error instanceof LimitExceededException));
+        }
+        context.assertEquals(1, limiter.getInFlight());
+        context.assertEquals(1, limiter.getQueueDepth());
+    }
+
+    @Test
+    public void testHttp2(TestContext context) {
+        ServiceClient client = builder().withProtocol(HttpVersion.HTTP_2).withHttp2MaxPoolSize(1)
+                .addApi("put", 1000L, Collections.singletonMap("x-api", "put")).build();
+        int calls = 5;
+        AtomicInteger responses = new AtomicInteger();
+        Async async = context.async();
+
+        // concurrent calls share the one connection
+        for (int i = 0; i < calls; i++) {
+            client.call("put", HttpMethod.PUT, "/echo", "h2".getBytes(), response -> {
+                context.assertEquals(HttpVersion.HTTP_2, response.version());
+                context.assertEquals("HTTP_2", response.getHeader("x-version"));
+                context.assertEquals("put", response.getHeader("x-api"));
+                response.bodyHandler(body -> {
+                    context.assertEquals("h2", body.toString());
+                    if (responses.incrementAndGet() == calls) {
+                        async.complete();
+                    }
+                });
+            }, context::fail);
+        }
+    }
+
+    @Test
+    public void testFanOut(TestContext context) {
+        ServiceClient client = builder().build();
+        List<FanOutRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(new FanOutRequest(HttpMethod.GET, i == 4 ? "/error" : "/fan/" + i));
+        }
+        Async async = context.async();
+
+        client.fanOut(requests, Buffer.class, 3, 0L, results -> {
+            context.assertEquals(10, results.size());
+            for (int i = 0; i < 10; i++) {
+                if (i == 4) {
+                    context.assertFalse(results.get(i).succeeded);
+                    context.assertTrue(results.get(i).error instanceof UnexpectedStatusException);
+                } else {
+                    context.assertTrue(results.get(i).succeeded);
+                    context.assertEquals(String.valueOf(i), results.get(i).value.toString());
+                }
+            }
+            context.assertTrue(fanMaxInFlight.get() <= 3);
+            async.complete();
+        });
+    }
+
+    @Test
+    public void testFanOutDeadline(TestContext context) {
+        ServiceClient client = builder().build();
+        List<FanOutRequest> requests = new ArrayList<>();
+        requests.add(new FanOutRequest(HttpMethod.GET, "/fan/0"));
+        requests.add(new FanOutRequest(HttpMethod.GET, "/slow"));
+        requests.add(new FanOutRequest(HttpMethod.GET, "/fan/2"));
+        Async async = context.async();
+
+        long start = System.currentTimeMillis();
+        client.fanOut(requests, Buffer.class, 1, 200L, results -> {
+            context.assertTrue(System.currentTimeMillis() - start < 1000L);
+            context.assertEquals("0", results.get(0).value.toString());
+            context.assertFalse(results.get(1).succeeded);
+            // never sent, the slow call held the only slot until the deadline
+            context.assertTrue(results.get(2).error instanceof TimeoutException);
+            async.complete();
+        });
+    }
+}
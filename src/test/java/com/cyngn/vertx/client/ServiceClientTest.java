@@ -1,11 +1,15 @@
 package com.cyngn.vertx.client;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Tests {@link ServiceClient}
  *
@@ -75,6 +79,12 @@ public class ServiceClientTest {
         builder.withTimeout(-1);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxResponseBytesOverBufferSize() {
+        ServiceClient.Builder builder = new ServiceClient.Builder(vertx);
+        builder.withMaxResponseBytes(Integer.MAX_VALUE + 1L);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testBuildWithoutHost() {
         ServiceClient.Builder builder = new ServiceClient.Builder(vertx);
@@ -101,4 +111,154 @@ public class ServiceClientTest {
         ServiceClient.create(vertx, config);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testGetApi() {
+        Map<String, String> clientHeaders = new HashMap<>();
+        clientHeaders.put("x-client", "client");
+        clientHeaders.put("x-shared", "client");
+        Map<String, String> apiHeaders = new HashMap<>();
+        apiHeaders.put("x-shared", "api");
+
+        ServiceClient.Builder builder = new ServiceClient.Builder(vertx);
+        builder.withHost("localhost").withPort(1234).withTimeout(10).withHeaders(clientHeaders);
+        builder.addApi("api", 1000L, apiHeaders);
+        builder.addApiTimeout("noTimeout", 0L);
+        ServiceClient serviceClient = builder.build();
+
+        ApiDescriptor api = serviceClient.getApi("api");
+        Assert.assertEquals("api", api.getName());
+        Assert.assertEquals(1000L, api.getTimeout());
+        Assert.assertEquals("client", api.getHeaders().get("x-client"));
+        Assert.assertEquals("api", api.getHeaders().get("x-shared"));
+
+        // no api timeout falls back to the client timeout
+        Assert.assertEquals(10L, serviceClient.getApi("noTimeout").getTimeout());
+        Assert.assertTrue(10L == serviceClient.getTimeout("noTimeout"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetUnknownApi() {
+        ServiceClient.Builder builder = new ServiceClient.Builder(vertx);
+        builder.withHost("localhost").withPort(1234);
+        builder.build().getApi("api");
+    }
+
+    @Test
+    public void testBuildFromJsonConfigWithApis() {
+        JsonObject config = new JsonObject()
+                .put(ServiceClient.HOST, "localhost")
+                .put(ServiceClient.PORT, 8080)
+                .put(ServiceClient.TIMEOUT, 50L)
+                .put(ServiceClient.APIS, new JsonArray()
+                        .add(new JsonObject().put(ServiceClient.API_NAME, "put").put(ServiceClient.TIMEOUT, 1000L)
+                                .put(ServiceClient.HEADERS, new JsonObject().put("x-api", "put")))
+                        .add(new JsonObject().put(ServiceClient.API_NAME, "remove")
+                                .put(ServiceClient.PRIORITY, "low")));
+        ServiceClient serviceClient = ServiceClient.create(vertx, config);
+
+        Assert.assertEquals(1000L, serviceClient.getApi("put").getTimeout());
+        Assert.assertEquals("put", serviceClient.getApi("put").getHeaders().get("x-api"));
+        Assert.assertEquals(50L, serviceClient.getApi("remove").getTimeout());
+        Assert.assertTrue(serviceClient.getApi("remove").getHeaders().isEmpty());
+        Assert.assertEquals(Priority.NORMAL, serviceClient.getApi("put").getPriority());
+        Assert.assertEquals(Priority.LOW, serviceClient.getApi("remove").getPriority());
+    }
+
+    @Test
+    public void testBuildWithEndpoints() {
+        ServiceClient.Builder builder = new ServiceClient.Builder(vertx);
+        builder.addEndpoint("host1", 1234).addEndpoint("host2", 1235);
+        ServiceClient serviceClient = builder.build();
+
+        Assert.assertEquals(2, serviceClient.getEndpoints().size());
+        Assert.assertEquals("host1", serviceClient.getHost());
+        Assert.assertEquals("host2", serviceClient.getEndpoints().get(1).getHost());
+        Assert.assertEquals(1235, serviceClient.getEndpoints().get(1).getPort());
+    }
+
+    @Test
+    public void testBuildFromJsonConfigWithEndpoints() {
+        JsonObject config = new JsonObject()
+                .put(ServiceClient.LOAD_BALANCER, "power_of_two_choices")
+                .put(ServiceClient.ENDPOINTS, new JsonArray()
+                        .add(new JsonObject().put(ServiceClient.HOST, "host1").put(ServiceClient.PORT, 1234))
+                        .add(new JsonObject().put(ServiceClient.HOST, "host2").put(ServiceClient.PORT, 1235)));
+        ServiceClient serviceClient = ServiceClient.create(vertx, config);
+
+        Assert.assertEquals(2, serviceClient.getEndpoints().size());
+        Assert.assertEquals(1234, serviceClient.getEndpoints().get(0).getPort());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testBuildFromJsonConfigWithBadLoadBalancer() {
+        JsonObject config = new JsonObject()
+                .put(ServiceClient.HOST, "localhost")
+                .put(ServiceClient.PORT, 8080)
+                .put(ServiceClient.LOAD_BALANCER, "random");
+        ServiceClient.create(vertx, config);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testBuildFromJsonConfigWithBadProtocol() {
+        JsonObject config = new JsonObject()
+                .put(ServiceClient.HOST, "localhost")
+                .put(ServiceClient.PORT, 8080)
+                .put(ServiceClient.PROTOCOL, "spdy");
+        ServiceClient.create(vertx, config);
+    }
+
+    @Test
+    public void testBuildFromJsonConfigWithTransport() {
+        JsonObject config = new JsonObject()
+                .put(ServiceClient.HOST, "localhost")
+                .put(ServiceClient.PORT, 8080)
+                .put(ServiceClient.TRANSPORT, new JsonObject()
+                        .put(TransportOptions.TCP_NO_DELAY, true)
+                        .put(TransportOptions.SEND_BUFFER_SIZE, 65536)
+                        .put(TransportOptions.KEEP_ALIVE, true)
+                        .put(TransportOptions.IDLE_TIMEOUT, 60));
+        ServiceClient serviceClient = ServiceClient.create(vertx, config);
+        Assert.assertEquals("localhost", serviceClient.getHost());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidTransportBufferSize() {
+        new TransportOptions().setReceiveBufferSize(0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidHttp2MultiplexingLimit() {
+        new ServiceClient.Builder(vertx).withHttp2MultiplexingLimit(0);
+    }
+
+    @Test
+    public void testLeastOutstanding() {
+        Endpoint[] endpoints = {
+                new Endpoint("a", 1, null, null, 1), new Endpoint("b", 1, null, null, 1),
+                new Endpoint("c", 1, null, null, 1)
+        };
+        endpoints[0].requestStarted();
+        endpoints[1].requestStarted();
+        endpoints[1].requestStarted();
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(endpoints[2], LoadBalancer.LEAST_OUTSTANDING.select(endpoints));
+        }
+
+        endpoints[2].requestStarted();
+        endpoints[2].requestStarted();
+        endpoints[1].requestFinished();
+        endpoints[1].requestFinished();
+        Assert.assertSame(endpoints[1], LoadBalancer.LEAST_OUTSTANDING.select(endpoints));
+    }
+
+    @Test
+    public void testPowerOfTwoChoicesAvoidsBusiestEndpoint() {
+        Endpoint[] endpoints = { new Endpoint("a", 1, null, null, 1), new Endpoint("b", 1, null, null, 1) };
+        endpoints[0].requestStarted();
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(endpoints[1], LoadBalancer.POWER_OF_TWO_CHOICES.select(endpoints));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.cyngn.vertx.web.handler;
+
+import com.cyngn.vertx.web.RestApi;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.WebTestBase;
+import org.junit.Test;
+
+/**
+ * Tests {@link DeadlineHandler}.
+ */
+public class DeadlineHandlerTest extends WebTestBase {
+
+    @Test
+    public void testDeadline() throws Exception {
+        router.route().handler(DeadlineHandler.create());
+        router.route().handler(rc -> {
+            long left = DeadlineHandler.getDeadline(rc) - System.currentTimeMillis();
+            assertTrue(left > 0L && left <= 5000L);
+            assertFalse(DeadlineHandler.isExpired(rc));
+            rc.response().end();
+        });
+        testRequest(HttpMethod.GET, "/", req -> req.putHeader(RestApi.X_REQUEST_DEADLINE, "5000"), 200, "OK", null);
+    }
+
+    @Test
+    public void testDeadlineAbsent() throws Exception {
+        router.route().handler(DeadlineHandler.create());
+        router.route().handler(rc -> {
+            assertEquals(0L, DeadlineHandler.getDeadline(rc));
+            assertFalse(DeadlineHandler.isExpired(rc));
+            rc.response().end();
+        });
+        testRequest(HttpMethod.GET, "/", 200, "OK");
+    }
+
+    @Test
+    public void testDefaultTimeout() throws Exception {
+        router.route().handler(DeadlineHandler.create(1000L));
+        router.route().handler(rc -> {
+            assertTrue(DeadlineHandler.getDeadline(rc) > System.currentTimeMillis());
+            rc.response().end();
+        });
+        testRequest(HttpMethod.GET, "/", 200, "OK");
+    }
+
+    @Test
+    public void testDeadlineExceeded() throws Exception {
+        router.route().handler(DeadlineHandler.create());
+        router.route().handler(rc -> fail("expired request should not be handled"));
+        testRequest(HttpMethod.GET, "/", req -> req.putHeader(RestApi.X_REQUEST_DEADLINE, "0"), 504,
+                "Gateway Timeout", null);
+    }
+
+    @Test
+    public void testInvalidDeadline() throws Exception {
+        router.route().handler(DeadlineHandler.create());
+        testRequest(HttpMethod.GET, "/", req -> req.putHeader(RestApi.X_REQUEST_DEADLINE, "soon"), 400,
+                "Bad Request", null);
+    }
+}